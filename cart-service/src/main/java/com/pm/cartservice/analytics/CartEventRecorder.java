@@ -0,0 +1,97 @@
+package com.pm.cartservice.analytics;
+
+import com.pm.cartservice.model.Cart;
+import com.pm.cartservice.model.CartEvent;
+import com.pm.cartservice.model.CartEventType;
+import com.pm.cartservice.model.CartItem;
+import com.pm.cartservice.model.Money;
+import com.pm.cartservice.repository.CartEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Appends cart events to the {@code cart_events} outbox. Callers run inside the transaction that
+ * changes the cart, so an event exists exactly when its change was committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class CartEventRecorder {
+
+    private final CartEventRepository cartEventRepository;
+
+    public void recordLineChange(Cart cart, UUID productId, Money unitPrice, int previousQuantity, int quantity) {
+        lineEvent(cart, productId, unitPrice, previousQuantity, quantity, Instant.now())
+                .ifPresent(cartEventRepository::save);
+    }
+
+    /**
+     * Records one event per line whose quantity differs between the two states of a cart.
+     */
+    public void recordLineChanges(Cart cart, Map<UUID, LineState> previousLines, Collection<CartItem> currentItems) {
+        Instant now = Instant.now();
+        Map<UUID, LineState> remaining = new HashMap<>(previousLines);
+        List<CartEvent> events = new ArrayList<>();
+        for (CartItem item : currentItems) {
+            LineState previous = remaining.remove(item.getProductId());
+            lineEvent(cart, item.getProductId(), item.getUnitPrice(),
+                    previous == null ? 0 : previous.quantity(), item.getQuantity(), now)
+                    .ifPresent(events::add);
+        }
+        remaining.forEach((productId, previous) ->
+                lineEvent(cart, productId, previous.unitPrice(), previous.quantity(), 0, now).ifPresent(events::add));
+        cartEventRepository.saveAll(events);
+    }
+
+    public void recordCleared(Cart cart) {
+        cartEventRepository.save(event(cart, CartEventType.CART_CLEARED, null,
+                -cart.getItemCount(), cart.getTotalAmount().negate(), Instant.now()));
+    }
+
+    public void recordConverted(Cart cart) {
+        cartEventRepository.save(event(cart, CartEventType.CONVERTED_TO_ORDER, null,
+                cart.getItemCount(), cart.getTotalAmount(), Instant.now()));
+    }
+
+    public static Map<UUID, LineState> lineStates(Collection<CartItem> items) {
+        Map<UUID, LineState> states = new HashMap<>();
+        items.forEach(item -> states.put(item.getProductId(), new LineState(item.getQuantity(), item.getUnitPrice())));
+        return states;
+    }
+
+    private Optional<CartEvent> lineEvent(Cart cart, UUID productId, Money unitPrice,
+                                          int previousQuantity, int quantity, Instant occurredAt) {
+        int delta = quantity - previousQuantity;
+        if (delta == 0) {
+            return Optional.empty();
+        }
+        CartEventType type = previousQuantity == 0 ? CartEventType.ITEM_ADDED
+                : quantity == 0 ? CartEventType.ITEM_REMOVED
+                : CartEventType.QUANTITY_CHANGED;
+        return Optional.of(event(cart, type, productId, delta, unitPrice.times(delta), occurredAt));
+    }
+
+    private CartEvent event(Cart cart, CartEventType type, UUID productId, int quantityDelta, Money amountDelta,
+                            Instant occurredAt) {
+        return CartEvent.builder()
+                .eventType(type)
+                .cartId(cart.getCartId())
+                .userId(cart.getUserId())
+                .productId(productId)
+                .quantityDelta(quantityDelta)
+                .amountDelta(amountDelta)
+                .occurredAt(occurredAt)
+                .build();
+    }
+
+    public record LineState(int quantity, Money unitPrice) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.pm.cartservice.analytics;
+
+import com.pm.cartservice.model.CartEvent;
+import com.pm.cartservice.repository.CartEventRepository;
+import com.pm.cartservice.repository.CartFunnelHourRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Drains the {@code cart_events} outbox into the shared {@code cart_event_log} table in batches.
+ * Each batch is locked, copied and deleted in one transaction, together with a revision bump of
+ * every hour it has events for, so the {@link CartFunnelAggregator} recomputes hours that receive
+ * late events.
+ */
+@Slf4j
+@Component
+public class CartEventRelay {
+
+    private final CartEventRepository cartEventRepository;
+    private final CartFunnelHourRepository cartFunnelHourRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${cart.events.relay-batch-size:500}")
+    private int batchSize;
+
+    public CartEventRelay(CartEventRepository cartEventRepository,
+                          CartFunnelHourRepository cartFunnelHourRepository,
+                          PlatformTransactionManager transactionManager) {
+        this.cartEventRepository = cartEventRepository;
+        this.cartFunnelHourRepository = cartFunnelHourRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${cart.events.relay-interval-ms:5000}")
+    public void relayEvents() {
+        try {
+            int relayed = 0;
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status -> relayBatch());
+                relayed += batch;
+            } while (batch == batchSize);
+
+            if (relayed > 0) {
+                log.debug("Relayed {} cart events", relayed);
+            }
+        } catch (Exception e) {
+            log.error("Error relaying cart events: {}", e.getMessage(), e);
+        }
+    }
+
+    private int relayBatch() {
+        List<CartEvent> events = cartEventRepository.lockNextBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        cartEventRepository.copyToLog(events.stream().map(CartEvent::getEventId).toList());
+        cartEventRepository.deleteAllInBatch(events);
+        // Sorted so concurrent relays bump shared hours in the same order
+        TreeSet<Instant> hours = new TreeSet<>();
+        events.forEach(event -> hours.add(event.getOccurredAt().truncatedTo(ChronoUnit.HOURS)));
+        hours.forEach(cartFunnelHourRepository::bumpRevision);
+        return events.size();
+    }
+}
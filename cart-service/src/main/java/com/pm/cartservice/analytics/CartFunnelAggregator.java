@@ -0,0 +1,108 @@
+package com.pm.cartservice.analytics;
+
+import com.pm.cartservice.model.CartEventType;
+import com.pm.cartservice.model.CartFunnelHour;
+import com.pm.cartservice.model.LoggedCartEvent;
+import com.pm.cartservice.model.Money;
+import com.pm.cartservice.repository.CartFunnelHourRepository;
+import com.pm.cartservice.repository.LoggedCartEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes hourly funnel metrics from the shared cart event log, so reporting never scans the
+ * {@code carts}/{@code cart_items} tables. Every closed hour whose revision moved since it was last
+ * aggregated is recomputed from all of its events, which picks up events relayed late.
+ */
+@Slf4j
+@Component
+public class CartFunnelAggregator {
+
+    private final CartFunnelHourRepository cartFunnelHourRepository;
+    private final LoggedCartEventRepository loggedCartEventRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${cart.events.funnel-hours-per-run:48}")
+    private int hoursPerRun;
+
+    public CartFunnelAggregator(CartFunnelHourRepository cartFunnelHourRepository,
+                                LoggedCartEventRepository loggedCartEventRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.cartFunnelHourRepository = cartFunnelHourRepository;
+        this.loggedCartEventRepository = loggedCartEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${cart.events.funnel-cron:0 */5 * * * ?}") // Every 5 minutes
+    public void aggregatePendingHours() {
+        Instant currentHour = Instant.now().truncatedTo(ChronoUnit.HOURS);
+        List<CartFunnelHour> pending = cartFunnelHourRepository.findPending(currentHour, PageRequest.of(0, hoursPerRun));
+        for (CartFunnelHour hour : pending) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> cartFunnelHourRepository.save(aggregate(hour)));
+                log.info("Cart funnel for {}: {} carts with additions, {} converted", hour.getHourStart(),
+                        hour.getCartsWithAdditions(), hour.getCartsConverted());
+            } catch (Exception e) {
+                log.error("Error aggregating cart funnel for {}: {}", hour.getHourStart(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Recomputes the metrics of the hour from its events. The revision read with the hour is
+     * recorded as aggregated; events relayed meanwhile bump it again and the hour stays pending.
+     */
+    public CartFunnelHour aggregate(CartFunnelHour hour) {
+        List<LoggedCartEvent> events = loggedCartEventRepository.findByOccurredAtGreaterThanEqualAndOccurredAtLessThan(
+                hour.getHourStart(), hour.getHourStart().plus(1, ChronoUnit.HOURS));
+
+        Set<Integer> cartsWithAdditions = new HashSet<>();
+        Set<Integer> cartsConverted = new HashSet<>();
+        long unitsAdded = 0;
+        long unitsRemoved = 0;
+        Money amountAdded = Money.ZERO;
+        Money amountConverted = Money.ZERO;
+
+        for (LoggedCartEvent event : events) {
+            if (event.getEventType() == CartEventType.CONVERTED_TO_ORDER) {
+                cartsConverted.add(event.getCartId());
+                amountConverted = amountConverted.plus(event.getAmountDelta());
+            } else if (event.getQuantityDelta() > 0) {
+                if (event.getEventType() == CartEventType.ITEM_ADDED) {
+                    cartsWithAdditions.add(event.getCartId());
+                }
+                unitsAdded += event.getQuantityDelta();
+                amountAdded = amountAdded.plus(event.getAmountDelta());
+            } else {
+                unitsRemoved -= event.getQuantityDelta();
+            }
+        }
+
+        // Carts converted this hour may have been filled in an earlier one; only this hour's
+        // cohort counts towards its rate
+        long convertedAfterAdding = cartsConverted.stream().filter(cartsWithAdditions::contains).count();
+        hour.setEvents(events.size());
+        hour.setCartsWithAdditions(cartsWithAdditions.size());
+        hour.setCartsConverted(cartsConverted.size());
+        hour.setUnitsAdded(unitsAdded);
+        hour.setUnitsRemoved(unitsRemoved);
+        hour.setAmountAdded(amountAdded);
+        hour.setAmountConverted(amountConverted);
+        hour.setConversionRate(cartsWithAdditions.isEmpty() ? 0.0
+                : (double) convertedAfterAdding / cartsWithAdditions.size());
+        hour.setAggregatedRevision(hour.getRevision());
+        hour.setAggregatedAt(Instant.now());
+        return hour;
+    }
+}
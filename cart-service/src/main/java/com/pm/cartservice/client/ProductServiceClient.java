@@ -0,0 +1,110 @@
+package com.pm.cartservice.client;
+
+import com.pm.cartservice.dto.product.ProductAvailabilityDto;
+import com.pm.cartservice.exception.ProductCatalogUnavailableException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Looks up current product price and stock in batches. Results are cached for a short TTL so
+ * repeated cart views do not hit product-service for every product on every request.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductServiceClient {
+
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private final RestTemplate restTemplate;
+    private final Map<UUID, CachedAvailability> availabilityCache = new ConcurrentHashMap<>();
+
+    @Value("${services.product.url:http://product-service:8501/product-service}")
+    private String productServiceUrl;
+
+    @Value("${cart.revalidation.cache-ttl:PT30S}")
+    private Duration cacheTtl;
+
+    @Value("${cart.revalidation.cache-max-entries:10000}")
+    private int cacheMaxEntries;
+
+    /**
+     * Returns the availability of the given products, keyed by product ID. Products unknown to
+     * product-service are absent from the result.
+     */
+    public Map<UUID, ProductAvailabilityDto> getAvailability(Collection<UUID> productIds) {
+        Instant now = Instant.now();
+        Map<UUID, ProductAvailabilityDto> result = new HashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID productId : productIds) {
+            CachedAvailability cached = availabilityCache.get(productId);
+            if (cached != null && cached.expiresAt().isAfter(now)) {
+                if (cached.availability() != null) {
+                    result.put(productId, cached.availability());
+                }
+            } else {
+                missing.add(productId);
+            }
+        }
+
+        for (int from = 0; from < missing.size(); from += MAX_BATCH_SIZE) {
+            List<UUID> batch = missing.subList(from, Math.min(from + MAX_BATCH_SIZE, missing.size()));
+            Map<UUID, ProductAvailabilityDto> fetched = fetchAvailability(batch);
+            Instant expiresAt = Instant.now().plus(cacheTtl);
+            for (UUID productId : batch) {
+                // Unknown products are cached too, so they are not asked for again until the TTL passes
+                ProductAvailabilityDto availability = fetched.get(productId);
+                availabilityCache.put(productId, new CachedAvailability(availability, expiresAt));
+                if (availability != null) {
+                    result.put(productId, availability);
+                }
+            }
+        }
+
+        evictExpiredIfFull(now);
+        return result;
+    }
+
+    private Map<UUID, ProductAvailabilityDto> fetchAvailability(List<UUID> productIds) {
+        try {
+            log.info("Fetching availability of {} products", productIds.size());
+            String url = productServiceUrl + "/api/products/availability";
+            ProductAvailabilityDto[] response = restTemplate.postForObject(url, productIds, ProductAvailabilityDto[].class);
+            Map<UUID, ProductAvailabilityDto> availability = new HashMap<>();
+            if (response != null) {
+                Arrays.stream(response).forEach(product -> availability.put(product.getProductId(), product));
+            }
+            return availability;
+        } catch (Exception e) {
+            log.error("Failed to fetch availability of {} products", productIds.size(), e);
+            throw new ProductCatalogUnavailableException("Product catalog is unavailable, please retry: " + e.getMessage(), e);
+        }
+    }
+
+    private void evictExpiredIfFull(Instant now) {
+        if (availabilityCache.size() <= cacheMaxEntries) {
+            return;
+        }
+        availabilityCache.values().removeIf(cached -> !cached.expiresAt().isAfter(now));
+        if (availabilityCache.size() > cacheMaxEntries) {
+            availabilityCache.clear();
+        }
+    }
+
+    private record CachedAvailability(ProductAvailabilityDto availability, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.pm.cartservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class RestTemplateConfig {
+
+    // Cart views wait on product-service during revalidation, so calls must fail fast
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+                                     @Value("${services.product.connect-timeout:1s}") Duration connectTimeout,
+                                     @Value("${services.product.read-timeout:2s}") Duration readTimeout) {
+        return builder
+                .setConnectTimeout(connectTimeout)
+                .setReadTimeout(readTimeout)
+                .build();
+    }
+}
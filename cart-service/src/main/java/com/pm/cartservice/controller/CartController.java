@@ -2,12 +2,15 @@ package com.pm.cartservice.controller;
 
 import com.pm.cartservice.dto.CartDto;
 import com.pm.cartservice.dto.AddToCartRequest;
+import com.pm.cartservice.dto.BulkCartMutationRequest;
 import com.pm.cartservice.dto.UpdateCartItemRequest;
 import com.pm.cartservice.dto.response.collection.CollectionResponse;
+import com.pm.cartservice.service.CartMutationGuard;
 import com.pm.cartservice.service.CartService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +18,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/api/carts")
 @RequiredArgsConstructor
@@ -22,13 +28,18 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Cart Management", description = "APIs for managing shopping carts and cart items")
 public class CartController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final CartService cartService;
+    private final CartMutationGuard cartMutationGuard;
 
     @GetMapping
     @Operation(summary = "Get all carts")
-    public ResponseEntity<CollectionResponse<CartDto>> findAllCarts() {
-        log.info("Fetching all carts");
-        return ResponseEntity.ok(cartService.findAllCarts());
+    public ResponseEntity<CollectionResponse<CartDto>> findAllCarts(
+            @RequestParam(defaultValue = "0") @Min(value = 0, message = "Page must not be negative") Integer page,
+            @RequestParam(defaultValue = "20") @Min(value = 1, message = "Size must be greater than 0") @Max(value = 200, message = "Size must not exceed 200") Integer size) {
+        log.info("Fetching carts page {} of size {}", page, size);
+        return ResponseEntity.ok(cartService.findAllCarts(page, size));
     }
 
     @GetMapping("/{cartId}")
@@ -51,56 +62,131 @@ public class CartController {
         return ResponseEntity.ok(cart);
     }
 
+    // Revalidation writes refreshed prices and names back to the cart, so it is not a GET
+    @PostMapping("/user/{userId}/revalidation")
+    @Operation(summary = "Refresh cart prices and stock from product-service")
+    public ResponseEntity<CartDto> revalidateCartByUserId(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @PathVariable @NotNull(message = "User ID must not be null") @Valid Integer userId) {
+        log.info("Revalidating cart for user ID: {}", userId);
+        CartDto cart = cartMutationGuard.execute(userId, "revalidate", idempotencyKey, userId,
+                () -> cartService.revalidateCartByUserId(userId));
+        if (cart == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(cart);
+    }
+
     @PostMapping("/add")
     @Operation(summary = "Add item to cart")
     public ResponseEntity<CartDto> addToCart(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody @NotNull(message = "Request must not be null") @Valid AddToCartRequest request) {
         log.info("Adding item to cart for user ID: {}", request.getUserId());
-        return ResponseEntity.ok(cartService.addToCart(request));
+        return ResponseEntity.ok(cartMutationGuard.execute(request.getUserId(), "add", idempotencyKey, request,
+                () -> cartService.addToCart(request)));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Add, update and remove many cart items in one call")
+    public ResponseEntity<CartDto> applyBulkMutations(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody @NotNull(message = "Request must not be null") @Valid BulkCartMutationRequest request) {
+        log.info("Applying {} cart operations for user ID: {}", request.getOperations().size(), request.getUserId());
+        return ResponseEntity.ok(cartMutationGuard.execute(request.getUserId(), "batch", idempotencyKey, request,
+                () -> cartService.applyBulkMutations(request)));
     }
 
     @PutMapping("/items/{cartItemId}/quantity")
     @Operation(summary = "Update cart item quantity")
     public ResponseEntity<CartDto> updateCartItemQuantity(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @PathVariable @NotNull(message = "Cart item ID must not be null") @Valid Integer cartItemId,
             @RequestParam @NotNull(message = "Quantity must not be null") @Min(value = 1, message = "Quantity must be greater than 0") @Valid Integer quantity) {
         log.info("Updating cart item quantity: {} to {}", cartItemId, quantity);
-        return ResponseEntity.ok(cartService.updateCartItemQuantity(cartItemId, quantity));
+        Integer userId = cartService.findUserIdByCartItemId(cartItemId);
+        return ResponseEntity.ok(cartMutationGuard.execute(userId, "update-quantity", idempotencyKey,
+                List.of(cartItemId, quantity), () -> cartService.updateCartItemQuantity(cartItemId, quantity)));
     }
 
     @PutMapping("/items/quantity")
     @Operation(summary = "Update cart item quantity using request body")
     public ResponseEntity<CartDto> updateCartItemQuantityWithBody(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody @NotNull(message = "Request must not be null") @Valid UpdateCartItemRequest request) {
         log.info("Updating cart item quantity: {} to {}", request.getCartItemId(), request.getQuantity());
-        return ResponseEntity.ok(cartService.updateCartItemQuantity(request.getCartItemId(), request.getQuantity()));
+        Integer userId = cartService.findUserIdByCartItemId(request.getCartItemId());
+        return ResponseEntity.ok(cartMutationGuard.execute(userId, "update-quantity", idempotencyKey,
+                List.of(request.getCartItemId(), request.getQuantity()),
+                () -> cartService.updateCartItemQuantity(request.getCartItemId(), request.getQuantity())));
+    }
+
+    @PutMapping("/user/{userId}/products/{productId}/quantity")
+    @Operation(summary = "Update the quantity of a product in a user's cart")
+    public ResponseEntity<CartDto> updateProductQuantity(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @PathVariable @NotNull(message = "User ID must not be null") @Valid Integer userId,
+            @PathVariable @NotNull(message = "Product ID must not be null") @Valid UUID productId,
+            @RequestParam @NotNull(message = "Quantity must not be null") @Min(value = 1, message = "Quantity must be greater than 0") @Valid Integer quantity) {
+        log.info("Updating quantity of product {} for user ID: {} to {}", productId, userId, quantity);
+        return ResponseEntity.ok(cartMutationGuard.execute(userId, "update-quantity", idempotencyKey,
+                List.of(productId, quantity), () -> cartService.updateCartItemQuantityByProduct(userId, productId, quantity)));
+    }
+
+    @DeleteMapping("/user/{userId}/products/{productId}")
+    @Operation(summary = "Remove a product from a user's cart")
+    public ResponseEntity<Void> removeProductFromCart(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @PathVariable @NotNull(message = "User ID must not be null") @Valid Integer userId,
+            @PathVariable @NotNull(message = "Product ID must not be null") @Valid UUID productId) {
+        log.info("Removing product {} from cart of user ID: {}", productId, userId);
+        cartMutationGuard.execute(userId, "remove", idempotencyKey, productId, () -> {
+            cartService.removeProductFromCart(userId, productId);
+            return null;
+        });
+        return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/{cartId}/items/{cartItemId}")
     @Operation(summary = "Remove item from cart")
     public ResponseEntity<Void> removeFromCart(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @PathVariable @NotNull(message = "Cart ID must not be null") @Valid Integer cartId,
             @PathVariable @NotNull(message = "Cart item ID must not be null") @Valid Integer cartItemId) {
         log.info("Removing cart item: {} from cart: {}", cartItemId, cartId);
-        cartService.removeFromCart(cartId, cartItemId);
+        Integer userId = cartService.findUserIdByCartId(cartId);
+        cartMutationGuard.execute(userId, "remove", idempotencyKey, List.of(cartId, cartItemId), () -> {
+            cartService.removeFromCart(cartId, cartItemId);
+            return null;
+        });
         return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/{cartId}/clear")
     @Operation(summary = "Clear all items from cart")
     public ResponseEntity<Void> clearCart(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @PathVariable @NotNull(message = "Cart ID must not be null") @Valid Integer cartId) {
         log.info("Clearing cart: {}", cartId);
-        cartService.clearCart(cartId);
+        Integer userId = cartService.findUserIdByCartId(cartId);
+        cartMutationGuard.execute(userId, "clear", idempotencyKey, cartId, () -> {
+            cartService.clearCart(cartId);
+            return null;
+        });
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping("/{cartId}/convert-to-order")
     @Operation(summary = "Convert cart to order")
     public ResponseEntity<Void> convertCartToOrder(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @PathVariable @NotNull(message = "Cart ID must not be null") @Valid Integer cartId) {
         log.info("Converting cart to order: {}", cartId);
-        cartService.convertCartToOrder(cartId);
+        Integer userId = cartService.findUserIdByCartId(cartId);
+        cartMutationGuard.execute(userId, "convert-to-order", idempotencyKey, cartId, () -> {
+            cartService.convertCartToOrder(cartId);
+            return null;
+        });
         return ResponseEntity.ok().build();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.pm.cartservice.controller;
+
+import com.pm.cartservice.dto.AddToGuestCartRequest;
+import com.pm.cartservice.dto.CartDto;
+import com.pm.cartservice.service.CartMutationGuard;
+import com.pm.cartservice.service.CartService;
+import com.pm.cartservice.service.GuestCartService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/carts/guest")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Guest Cart Management", description = "APIs for anonymous carts and merging them on login")
+public class GuestCartController {
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final GuestCartService guestCartService;
+    private final CartService cartService;
+    private final CartMutationGuard cartMutationGuard;
+
+    @PostMapping
+    @Operation(summary = "Create a guest cart and return its token")
+    public ResponseEntity<CartDto> createGuestCart() {
+        log.info("Creating guest cart");
+        return ResponseEntity.status(HttpStatus.CREATED).body(guestCartService.createGuestCart());
+    }
+
+    @GetMapping("/{guestToken}")
+    @Operation(summary = "Get a guest cart by token")
+    public ResponseEntity<CartDto> findGuestCart(
+            @PathVariable @NotNull(message = "Guest token must not be null") UUID guestToken) {
+        log.info("Fetching guest cart");
+        CartDto cart = guestCartService.findGuestCart(guestToken);
+        if (cart == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(cart);
+    }
+
+    @PostMapping("/{guestToken}/items")
+    @Operation(summary = "Add item to guest cart")
+    public ResponseEntity<CartDto> addToGuestCart(
+            @PathVariable @NotNull(message = "Guest token must not be null") UUID guestToken,
+            @RequestBody @NotNull(message = "Request must not be null") @Valid AddToGuestCartRequest request) {
+        log.info("Adding item to guest cart");
+        return ResponseEntity.ok(guestCartService.addToGuestCart(guestToken, request));
+    }
+
+    @PutMapping("/{guestToken}/items/{productId}/quantity")
+    @Operation(summary = "Update guest cart item quantity")
+    public ResponseEntity<CartDto> updateGuestCartItemQuantity(
+            @PathVariable @NotNull(message = "Guest token must not be null") UUID guestToken,
+            @PathVariable @NotNull(message = "Product ID must not be null") UUID productId,
+            @RequestParam @NotNull(message = "Quantity must not be null") @Min(value = 1, message = "Quantity must be greater than 0") Integer quantity) {
+        log.info("Updating guest cart item quantity: {} to {}", productId, quantity);
+        return ResponseEntity.ok(guestCartService.updateGuestCartItemQuantity(guestToken, productId, quantity));
+    }
+
+    @DeleteMapping("/{guestToken}/items/{productId}")
+    @Operation(summary = "Remove item from guest cart")
+    public ResponseEntity<Void> removeFromGuestCart(
+            @PathVariable @NotNull(message = "Guest token must not be null") UUID guestToken,
+            @PathVariable @NotNull(message = "Product ID must not be null") UUID productId) {
+        log.info("Removing item {} from guest cart", productId);
+        guestCartService.removeFromGuestCart(guestToken, productId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{guestToken}/merge")
+    @Operation(summary = "Merge a guest cart into the user's active cart after login")
+    public ResponseEntity<CartDto> mergeGuestCart(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @PathVariable @NotNull(message = "Guest token must not be null") UUID guestToken,
+            @RequestParam @NotNull(message = "User ID must not be null") Integer userId) {
+        log.info("Merging guest cart into cart of user ID: {}", userId);
+        return ResponseEntity.ok(cartMutationGuard.execute(userId, "merge-guest", idempotencyKey, guestToken,
+                () -> cartService.mergeGuestCart(guestToken, userId)));
+    }
+}
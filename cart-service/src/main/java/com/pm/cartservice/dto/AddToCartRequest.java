@@ -1,5 +1,7 @@
 package com.pm.cartservice.dto;
 
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -8,6 +10,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.util.UUID;
 
 @NoArgsConstructor
@@ -31,8 +34,9 @@ public class AddToCartRequest implements Serializable {
     private String productSku;
     
     @NotNull(message = "Unit price must not be null")
-    @Min(value = 0, message = "Unit price must be greater than or equal to 0")
-    private Double unitPrice;
+    @DecimalMin(value = "0.00", message = "Unit price must be greater than or equal to 0")
+    @Digits(integer = 8, fraction = 2, message = "Unit price must have at most 8 integer and 2 fraction digits")
+    private BigDecimal unitPrice;
     
     @NotNull(message = "Quantity must not be null")
     @Min(value = 1, message = "Quantity must be greater than 0")
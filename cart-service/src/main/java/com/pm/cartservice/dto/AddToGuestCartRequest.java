@@ -0,0 +1,43 @@
+package com.pm.cartservice.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class AddToGuestCartRequest implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @NotNull(message = "Product ID must not be null")
+    private UUID productId;
+    
+    @NotNull(message = "Product name must not be null")
+    private String productName;
+    
+    @NotNull(message = "Product SKU must not be null")
+    private String productSku;
+    
+    @NotNull(message = "Unit price must not be null")
+    @DecimalMin(value = "0.00", message = "Unit price must be greater than or equal to 0")
+    @Digits(integer = 8, fraction = 2, message = "Unit price must have at most 8 integer and 2 fraction digits")
+    private BigDecimal unitPrice;
+    
+    @NotNull(message = "Quantity must not be null")
+    @Min(value = 1, message = "Quantity must be greater than 0")
+    private Integer quantity;
+    
+    private String productImageUrl;
+}
@@ -0,0 +1,29 @@
+package com.pm.cartservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class BulkCartMutationRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull(message = "User ID must not be null")
+    private Integer userId;
+
+    @NotEmpty(message = "Operations must not be empty")
+    @Size(max = 500, message = "At most 500 operations can be applied at once")
+    private List<@Valid CartLineOperation> operations;
+}
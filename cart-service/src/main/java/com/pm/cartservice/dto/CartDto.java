@@ -8,7 +8,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.util.Set;
+import java.util.UUID;
 
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,13 +23,19 @@ public class CartDto implements Serializable {
     private Integer cartId;
     
     private Integer userId;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UUID guestToken;
     
     private CartStatus status;
     
-    private Double totalAmount;
+    private BigDecimal totalAmount;
     
     private Integer itemCount;
 
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private Set<CartItemDto> cartItems;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private CartRevalidationDto revalidation;
 } 
\ No newline at end of file
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.util.UUID;
 
 @NoArgsConstructor
@@ -26,11 +27,11 @@ public class CartItemDto implements Serializable {
     
     private String productSku;
     
-    private Double unitPrice;
+    private BigDecimal unitPrice;
     
     private Integer quantity;
     
-    private Double totalPrice;
+    private BigDecimal totalPrice;
     
     private String productImageUrl;
 } 
\ No newline at end of file
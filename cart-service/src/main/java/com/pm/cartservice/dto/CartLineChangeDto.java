@@ -0,0 +1,39 @@
+package com.pm.cartservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CartLineChangeDto implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Integer cartItemId;
+
+    private UUID productId;
+
+    private CartLineChangeType type;
+
+    private BigDecimal previousUnitPrice;
+
+    private BigDecimal currentUnitPrice;
+
+    private String previousProductName;
+
+    private String currentProductName;
+
+    private Integer requestedQuantity;
+
+    private Integer availableQuantity;
+}
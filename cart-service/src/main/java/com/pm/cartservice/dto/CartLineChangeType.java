@@ -0,0 +1,8 @@
+package com.pm.cartservice.dto;
+
+public enum CartLineChangeType {
+    PRICE_CHANGED,        // Unit price was updated to the current product price
+    NAME_CHANGED,         // Product name was updated to the current product name
+    INSUFFICIENT_STOCK,   // Fewer units are available than the line asks for
+    UNAVAILABLE           // Product no longer exists or is not active
+}
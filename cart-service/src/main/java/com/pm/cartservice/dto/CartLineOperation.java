@@ -0,0 +1,46 @@
+package com.pm.cartservice.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CartLineOperation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull(message = "Operation type must not be null")
+    private CartLineOperationType type;
+
+    @NotNull(message = "Product ID must not be null")
+    private UUID productId;
+
+    // Required for ADD
+    private String productName;
+
+    // Required for ADD
+    private String productSku;
+
+    // Required for ADD
+    @DecimalMin(value = "0.00", message = "Unit price must be greater than or equal to 0")
+    @Digits(integer = 8, fraction = 2, message = "Unit price must have at most 8 integer and 2 fraction digits")
+    private BigDecimal unitPrice;
+
+    // Required for ADD and SET_QUANTITY
+    @Min(value = 1, message = "Quantity must be greater than 0")
+    private Integer quantity;
+
+    private String productImageUrl;
+}
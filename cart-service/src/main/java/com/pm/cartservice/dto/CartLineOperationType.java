@@ -0,0 +1,7 @@
+package com.pm.cartservice.dto;
+
+public enum CartLineOperationType {
+    ADD,            // Add quantity of a product, creating the line if needed
+    SET_QUANTITY,   // Replace the quantity of an existing line
+    REMOVE          // Remove the line of a product
+}
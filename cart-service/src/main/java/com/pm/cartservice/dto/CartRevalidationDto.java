@@ -0,0 +1,27 @@
+package com.pm.cartservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CartRevalidationDto implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Integer cartId;
+
+    private BigDecimal previousTotalAmount;
+
+    private BigDecimal totalAmount;
+
+    private List<CartLineChangeDto> changes;
+}
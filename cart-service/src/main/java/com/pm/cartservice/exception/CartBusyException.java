@@ -0,0 +1,12 @@
+package com.pm.cartservice.exception;
+
+/**
+ * Thrown when a hot cart mutation is refused because another request is moving that cart to the
+ * database. The client may retry once it has finished.
+ */
+public class CartBusyException extends RuntimeException {
+
+    public CartBusyException(Integer userId) {
+        super("Cart of user " + userId + " is being updated, please retry");
+    }
+}
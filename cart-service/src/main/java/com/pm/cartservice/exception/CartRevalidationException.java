@@ -0,0 +1,15 @@
+package com.pm.cartservice.exception;
+
+import com.pm.cartservice.dto.CartRevalidationDto;
+import lombok.Getter;
+
+@Getter
+public class CartRevalidationException extends RuntimeException {
+
+    private final CartRevalidationDto revalidation;
+
+    public CartRevalidationException(CartRevalidationDto revalidation) {
+        super("Cart " + revalidation.getCartId() + " changed during revalidation and must be reviewed before checkout");
+        this.revalidation = revalidation;
+    }
+}
@@ -0,0 +1,12 @@
+package com.pm.cartservice.exception;
+
+/**
+ * Thrown when a hot cart mutation finds no cart in the store because the hash expired or was
+ * evicted after the cart was hydrated. The caller hydrates the cart again and retries.
+ */
+public class HotCartMissingException extends RuntimeException {
+
+    public HotCartMissingException(Integer userId) {
+        super("Hot cart of user " + userId + " is no longer in the store, please retry");
+    }
+}
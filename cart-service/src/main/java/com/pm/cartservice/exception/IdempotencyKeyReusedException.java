@@ -0,0 +1,12 @@
+package com.pm.cartservice.exception;
+
+/**
+ * Thrown when an {@code Idempotency-Key} that already completed a mutation arrives again with a
+ * different request. Replaying the stored result would answer a request that was never applied.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String idempotencyKey, String operation) {
+        super("Idempotency key " + idempotencyKey + " was already used for a different " + operation + " request");
+    }
+}
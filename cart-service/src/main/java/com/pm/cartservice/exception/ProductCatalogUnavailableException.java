@@ -0,0 +1,13 @@
+package com.pm.cartservice.exception;
+
+/**
+ * Thrown when product-service cannot be asked for current prices and stock. A cart that could not
+ * be revalidated has not changed as far as anyone knows, so this is answered with 503 rather than
+ * with the 409 of a {@link CartRevalidationException}.
+ */
+public class ProductCatalogUnavailableException extends RuntimeException {
+
+    public ProductCatalogUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -5,7 +5,7 @@ import com.pm.cartservice.model.CartItem;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = {MoneyMapper.class})
 public interface CartItemMapper {
     
     @Mapping(target = "cartId", source = "cart.cartId")
@@ -1,19 +1,55 @@
 package com.pm.cartservice.mapper;
 
 import com.pm.cartservice.dto.CartDto;
+import com.pm.cartservice.dto.CartItemDto;
 import com.pm.cartservice.model.Cart;
+import com.pm.cartservice.model.CartStatus;
+import com.pm.cartservice.model.Money;
+import com.pm.cartservice.store.HotCartSnapshot;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
-@Mapper(componentModel = "spring", uses = {CartItemMapper.class})
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Mapper(componentModel = "spring", uses = {CartItemMapper.class, MoneyMapper.class})
 public interface CartMapper {
     
     @Mapping(target = "cartItems", source = "cartItems")
+    @Mapping(target = "revalidation", ignore = true)
+    @Mapping(target = "guestToken", ignore = true)
     CartDto toDTO(Cart cart);
     
     @Mapping(target = "cartItems", ignore = true)
     @Mapping(target = "cartId", ignore = true)
+    @Mapping(target = "version", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     Cart toEntity(CartDto cartDto);
-} 
\ No newline at end of file
+
+    default CartDto fromSnapshot(HotCartSnapshot snapshot) {
+        Set<CartItemDto> cartItems = snapshot.getLines().stream()
+                .map(line -> CartItemDto.builder()
+                        .cartItemId(line.getCartItemId())
+                        .cartId(snapshot.getCartId())
+                        .productId(line.getProductId())
+                        .productName(line.getProductName())
+                        .productSku(line.getProductSku())
+                        .unitPrice(Money.ofMinor(line.getUnitPriceCents()).toBigDecimal())
+                        .quantity(line.getQuantity())
+                        .totalPrice(Money.ofMinor(line.getTotalCents()).toBigDecimal())
+                        .productImageUrl(line.getProductImageUrl())
+                        .build())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        return CartDto.builder()
+                .cartId(snapshot.getCartId())
+                .userId(snapshot.getUserId())
+                .status(CartStatus.ACTIVE)
+                .totalAmount(Money.ofMinor(snapshot.getTotalCents()).toBigDecimal())
+                .itemCount(snapshot.getItemCount())
+                .cartItems(cartItems)
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.pm.cartservice.mapper;
+
+import com.pm.cartservice.model.Money;
+import org.mapstruct.Mapper;
+
+import java.math.BigDecimal;
+
+@Mapper(componentModel = "spring")
+public interface MoneyMapper {
+
+    default BigDecimal toBigDecimal(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
+
+    default Money toMoney(BigDecimal amount) {
+        return amount != null ? Money.of(amount) : null;
+    }
+}
@@ -31,11 +31,15 @@ public final class Cart extends AbstractMappedEntity implements Serializable {
     private CartStatus status;
 
     @Column(name = "total_amount", nullable = false, columnDefinition = "DECIMAL(10,2) DEFAULT 0.00")
-    private Double totalAmount;
+    private Money totalAmount;
 
     @Column(name = "item_count", nullable = false, columnDefinition = "INT DEFAULT 0")
     private Integer itemCount;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "cart", fetch = FetchType.LAZY, orphanRemoval = true)
     private Set<CartItem> cartItems;
 } 
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.pm.cartservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "cart_events")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public final class CartEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "event_id", unique = true, nullable = false, updatable = false)
+    private Long eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private CartEventType eventType;
+
+    @Column(name = "cart_id", nullable = false)
+    private Integer cartId;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "product_id", columnDefinition = "BINARY(16)")
+    private UUID productId;
+
+    @Column(name = "quantity_delta", nullable = false)
+    private Integer quantityDelta;
+
+    @Column(name = "amount_delta", nullable = false, columnDefinition = "DECIMAL(10,2) DEFAULT 0.00")
+    private Money amountDelta;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+}
@@ -0,0 +1,9 @@
+package com.pm.cartservice.model;
+
+public enum CartEventType {
+    ITEM_ADDED,
+    ITEM_REMOVED,
+    QUANTITY_CHANGED,
+    CART_CLEARED,
+    CONVERTED_TO_ORDER
+}
@@ -0,0 +1,63 @@
+package com.pm.cartservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Funnel metrics of one UTC hour of cart events. {@code revision} is only ever bumped by the relay
+ * (see {@link com.pm.cartservice.repository.CartFunnelHourRepository#bumpRevision}), so saving the
+ * metrics never overwrites a bump that raced with the aggregation.
+ * <p>
+ * The conversion rate is the share of carts with additions in the hour that were also converted in
+ * it, so it never exceeds 1; {@code cartsConverted} counts every conversion of the hour.
+ */
+@Entity
+@Table(name = "cart_funnel_hourly")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CartFunnelHour implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "hour_start", nullable = false, updatable = false)
+    private Instant hourStart;
+
+    @Column(name = "revision", nullable = false, insertable = false, updatable = false)
+    private int revision;
+
+    @Column(name = "aggregated_revision", nullable = false)
+    private int aggregatedRevision;
+
+    @Column(name = "events", nullable = false)
+    private long events;
+
+    @Column(name = "carts_with_additions", nullable = false)
+    private long cartsWithAdditions;
+
+    @Column(name = "carts_converted", nullable = false)
+    private long cartsConverted;
+
+    @Column(name = "units_added", nullable = false)
+    private long unitsAdded;
+
+    @Column(name = "units_removed", nullable = false)
+    private long unitsRemoved;
+
+    @Column(name = "amount_added", nullable = false, columnDefinition = "DECIMAL(14,2) DEFAULT 0.00")
+    private Money amountAdded;
+
+    @Column(name = "amount_converted", nullable = false, columnDefinition = "DECIMAL(14,2) DEFAULT 0.00")
+    private Money amountConverted;
+
+    @Column(name = "conversion_rate", nullable = false)
+    private double conversionRate;
+
+    @Column(name = "aggregated_at")
+    private Instant aggregatedAt;
+}
@@ -37,13 +37,13 @@ public final class CartItem extends AbstractMappedEntity implements Serializable
     private String productSku;
 
     @Column(name = "unit_price", nullable = false, columnDefinition = "DECIMAL(10,2)")
-    private Double unitPrice;
+    private Money unitPrice;
 
     @Column(name = "quantity", nullable = false)
     private Integer quantity;
 
     @Column(name = "total_price", nullable = false, columnDefinition = "DECIMAL(10,2)")
-    private Double totalPrice;
+    private Money totalPrice;
 
     @Column(name = "product_image_url", length = 500)
     private String productImageUrl;
@@ -0,0 +1,74 @@
+package com.pm.cartservice.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.function.ToLongFunction;
+
+/**
+ * Exact amount of money held as a count of minor units (cents). Cart arithmetic works on the
+ * primitive {@code long}, and amounts are converted to {@link BigDecimal} only at the persistence
+ * and API boundaries, matching the DECIMAL(10,2) columns and order-service's BigDecimal amounts.
+ */
+public record Money(long minorUnits) implements Serializable, Comparable<Money> {
+
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0L);
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0L ? ZERO : new Money(minorUnits);
+    }
+
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            return ZERO;
+        }
+        return ofMinor(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Sums the minor units of all values with a primitive accumulator, allocating only the result.
+     */
+    public static <T> Money sum(Iterable<T> values, ToLongFunction<? super T> minorUnits) {
+        long total = 0L;
+        for (T value : values) {
+            total = Math.addExact(total, minorUnits.applyAsLong(value));
+        }
+        return ofMinor(total);
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(int quantity) {
+        return ofMinor(Math.multiplyExact(minorUnits, quantity));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0L;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,27 @@
+package com.pm.cartservice.repository;
+
+import com.pm.cartservice.model.CartEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CartEventRepository extends JpaRepository<CartEvent, Long> {
+    
+    // Rows locked by another instance's relay are skipped rather than waited for
+    @Query(value = "SELECT * FROM cart_events ORDER BY event_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<CartEvent> lockNextBatch(@Param("limit") int limit);
+    
+    @Modifying
+    @Query(value = "INSERT INTO cart_event_log (event_id, event_type, cart_id, user_id, product_id, quantity_delta, " +
+                   "amount_delta, occurred_at) " +
+                   "SELECT event_id, event_type, cart_id, user_id, product_id, quantity_delta, amount_delta, occurred_at " +
+                   "FROM cart_events WHERE event_id IN (:eventIds)",
+           nativeQuery = true)
+    int copyToLog(@Param("eventIds") Collection<Long> eventIds);
+}
@@ -0,0 +1,27 @@
+package com.pm.cartservice.repository;
+
+import com.pm.cartservice.model.CartFunnelHour;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface CartFunnelHourRepository extends JpaRepository<CartFunnelHour, Instant> {
+
+    // Creates the hour on its first events; events arriving after it was aggregated make it pending again
+    @Modifying
+    @Query(value = "INSERT INTO cart_funnel_hourly (hour_start, revision) VALUES (:hourStart, 1) " +
+                   "ON DUPLICATE KEY UPDATE revision = revision + 1",
+           nativeQuery = true)
+    int bumpRevision(@Param("hourStart") Instant hourStart);
+
+    @Query("SELECT f FROM CartFunnelHour f WHERE f.revision > f.aggregatedRevision AND f.hourStart < :closedBefore " +
+           "ORDER BY f.hourStart")
+    List<CartFunnelHour> findPending(@Param("closedBefore") Instant closedBefore, Pageable pageable);
+}
@@ -2,10 +2,15 @@ package com.pm.cartservice.repository;
 
 import com.pm.cartservice.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,14 +20,50 @@ public interface CartItemRepository extends JpaRepository<CartItem, Integer> {
     
     List<CartItem> findByCartCartId(Integer cartId);
     
+    List<CartItem> findByCartCartIdIn(Collection<Integer> cartIds);
+    
     Optional<CartItem> findByCartCartIdAndProductId(Integer cartId, UUID productId);
     
     @Query("SELECT ci FROM CartItem ci WHERE ci.cart.cartId = :cartId AND ci.productId = :productId")
     Optional<CartItem> findCartItemByCartIdAndProductId(@Param("cartId") Integer cartId, @Param("productId") UUID productId);
     
+    @Query("SELECT ci.cart.userId FROM CartItem ci WHERE ci.cartItemId = :cartItemId")
+    Optional<Integer> findUserIdByCartItemId(@Param("cartItemId") Integer cartItemId);
+    
+    // Inserts the line, or adds the quantity to the existing line of the product (uk_cart_items_cart_product)
+    @Modifying
+    @Query(value = "INSERT INTO cart_items (cart_id, product_id, product_name, product_sku, unit_price, quantity, " +
+                   "total_price, product_image_url, created_at, updated_at) " +
+                   "VALUES (:cartId, :productId, :productName, :productSku, :unitPrice, :quantity, " +
+                   ":totalPrice, :productImageUrl, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+                   "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), total_price = unit_price * quantity",
+           nativeQuery = true)
+    int upsertItem(@Param("cartId") Integer cartId,
+                   @Param("productId") byte[] productId,
+                   @Param("productName") String productName,
+                   @Param("productSku") String productSku,
+                   @Param("unitPrice") BigDecimal unitPrice,
+                   @Param("quantity") Integer quantity,
+                   @Param("totalPrice") BigDecimal totalPrice,
+                   @Param("productImageUrl") String productImageUrl);
+    
+    default int upsertItem(CartItem item) {
+        ByteBuffer productId = ByteBuffer.allocate(16)
+                .putLong(item.getProductId().getMostSignificantBits())
+                .putLong(item.getProductId().getLeastSignificantBits());
+        return upsertItem(item.getCart().getCartId(), productId.array(), item.getProductName(), item.getProductSku(),
+                item.getUnitPrice().toBigDecimal(), item.getQuantity(), item.getTotalPrice().toBigDecimal(),
+                item.getProductImageUrl());
+    }
+    
     void deleteByCartCartIdAndProductId(Integer cartId, UUID productId);
     
     void deleteByCartCartId(Integer cartId);
     
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM cart_items WHERE cart_id IN (:cartIds)", nativeQuery = true)
+    int deleteByCartIds(@Param("cartIds") Collection<Integer> cartIds);
+    
     boolean existsByCartCartIdAndProductId(Integer cartId, UUID productId);
 } 
\ No newline at end of file
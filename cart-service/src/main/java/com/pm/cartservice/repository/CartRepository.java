@@ -2,11 +2,21 @@ package com.pm.cartservice.repository;
 
 import com.pm.cartservice.model.Cart;
 import com.pm.cartservice.model.CartStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,8 +29,85 @@ public interface CartRepository extends JpaRepository<Cart, Integer> {
     
     List<Cart> findByStatus(CartStatus status);
     
+    // Takes the rows, and the index gaps of users without one, for the duration of a hot cart flush
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cart c WHERE c.userId IN :userIds AND c.status = :status ORDER BY c.cartId")
+    List<Cart> lockByUserIdInAndStatus(@Param("userIds") Collection<Integer> userIds,
+                                       @Param("status") CartStatus status);
+    
     @Query("SELECT c FROM Cart c WHERE c.userId = :userId AND c.status = 'ACTIVE'")
     Optional<Cart> findActiveCartByUserId(@Param("userId") Integer userId);
     
+    @EntityGraph(attributePaths = "cartItems")
+    @Query("SELECT c FROM Cart c WHERE c.userId = :userId AND c.status = 'ACTIVE'")
+    Optional<Cart> findActiveCartWithItemsByUserId(@Param("userId") Integer userId);
+    
+    @EntityGraph(attributePaths = "cartItems")
+    @Query("SELECT c FROM Cart c WHERE c.cartId = :cartId")
+    Optional<Cart> findWithItemsByCartId(@Param("cartId") Integer cartId);
+    
+    @EntityGraph(attributePaths = "cartItems")
+    List<Cart> findByCartIdIn(Collection<Integer> cartIds, Sort sort);
+    
+    // Paging over ids keeps LIMIT/OFFSET in SQL; items are then fetched for the page with findByCartIdIn
+    @Query(value = "SELECT c.cartId FROM Cart c",
+           countQuery = "SELECT COUNT(c) FROM Cart c")
+    Page<Integer> findCartIds(Pageable pageable);
+    
+    @Query("SELECT c.userId FROM Cart c WHERE c.cartId = :cartId")
+    Optional<Integer> findUserIdByCartId(@Param("cartId") Integer cartId);
+    
     boolean existsByUserIdAndStatus(Integer userId, CartStatus status);
+    
+    @Query("SELECT MAX(c.cartId) FROM Cart c")
+    Integer findMaxCartId();
+    
+    @Query(value = "SELECT c.cart_id FROM carts c LEFT JOIN cart_items ci ON ci.cart_id = c.cart_id " +
+                   "WHERE c.status = :status AND c.cart_id > :fromCartId AND c.cart_id <= :toCartId " +
+                   "GROUP BY c.cart_id, c.total_amount, c.item_count " +
+                   "HAVING c.total_amount <> COALESCE(SUM(ci.total_price), 0) OR c.item_count <> COALESCE(SUM(ci.quantity), 0)",
+           nativeQuery = true)
+    List<Integer> findCartIdsWithDriftedTotals(@Param("status") String status,
+                                               @Param("fromCartId") Integer fromCartId,
+                                               @Param("toCartId") Integer toCartId);
+    
+    // Keyset page over (updatedAt, cartId) of carts in a status that were last touched before the cutoff
+    @Query("SELECT new com.pm.cartservice.repository.CartSweepCandidate(c.cartId, c.userId, c.updatedAt) " +
+           "FROM Cart c WHERE c.status = :status AND c.updatedAt < :cutoff " +
+           "AND (c.updatedAt > :afterUpdatedAt OR (c.updatedAt = :afterUpdatedAt AND c.cartId > :afterCartId)) " +
+           "ORDER BY c.updatedAt, c.cartId")
+    List<CartSweepCandidate> findSweepCandidates(@Param("status") CartStatus status,
+                                                 @Param("cutoff") Instant cutoff,
+                                                 @Param("afterUpdatedAt") Instant afterUpdatedAt,
+                                                 @Param("afterCartId") Integer afterCartId,
+                                                 Pageable pageable);
+    
+    // The status and cutoff are re-checked so carts touched since they were selected are left alone
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE carts SET status = :toStatus, version = version + 1 " +
+                   "WHERE cart_id IN (:cartIds) AND status = :fromStatus AND updated_at < :cutoff",
+           nativeQuery = true)
+    int transitionStaleCarts(@Param("cartIds") Collection<Integer> cartIds,
+                             @Param("fromStatus") String fromStatus,
+                             @Param("toStatus") String toStatus,
+                             @Param("cutoff") Instant cutoff);
+    
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM carts WHERE cart_id IN (:cartIds) AND status = :status AND updated_at < :cutoff",
+           nativeQuery = true)
+    int deleteStaleCarts(@Param("cartIds") Collection<Integer> cartIds,
+                         @Param("status") String status,
+                         @Param("cutoff") Instant cutoff);
+    
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE carts c SET " +
+                   "c.total_amount = (SELECT COALESCE(SUM(ci.total_price), 0) FROM cart_items ci WHERE ci.cart_id = c.cart_id), " +
+                   "c.item_count = (SELECT COALESCE(SUM(ci.quantity), 0) FROM cart_items ci WHERE ci.cart_id = c.cart_id), " +
+                   "c.version = c.version + 1 " +
+                   "WHERE c.cart_id IN (:cartIds)",
+           nativeQuery = true)
+    int recomputeTotals(@Param("cartIds") Collection<Integer> cartIds);
 } 
\ No newline at end of file
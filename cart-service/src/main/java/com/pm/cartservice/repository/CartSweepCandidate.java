@@ -0,0 +1,6 @@
+package com.pm.cartservice.repository;
+
+import java.time.Instant;
+
+public record CartSweepCandidate(Integer cartId, Integer userId, Instant updatedAt) {
+}
@@ -0,0 +1,14 @@
+package com.pm.cartservice.repository;
+
+import com.pm.cartservice.model.LoggedCartEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface LoggedCartEventRepository extends JpaRepository<LoggedCartEvent, Long> {
+
+    List<LoggedCartEvent> findByOccurredAtGreaterThanEqualAndOccurredAtLessThan(Instant from, Instant to);
+}
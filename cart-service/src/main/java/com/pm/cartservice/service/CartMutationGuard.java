@@ -0,0 +1,114 @@
+package com.pm.cartservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.cartservice.exception.IdempotencyKeyReusedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes the cart mutations of one user on this instance and replays the result of requests
+ * retried with the same {@code Idempotency-Key}. A key is bound to a hash of the request it was first
+ * used with, so reusing it for a different request is refused instead of replaying the wrong result.
+ * Callers must invoke it outside the mutation's transaction, so the lock is only released once the
+ * change is committed.
+ */
+@Slf4j
+@Component
+public class CartMutationGuard {
+
+    private final ReentrantLock[] stripes;
+    private final int maxIdempotencyEntries;
+    private final Duration idempotencyTtl;
+    private final Map<String, CachedResult> results;
+    private final ObjectMapper objectMapper;
+
+    public CartMutationGuard(ObjectMapper objectMapper,
+                             @Value("${cart.mutation.lock-stripes:256}") int lockStripes,
+                             @Value("${cart.mutation.idempotency-max-entries:10000}") int maxIdempotencyEntries,
+                             @Value("${cart.mutation.idempotency-ttl:PT10M}") Duration idempotencyTtl) {
+        this.stripes = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.maxIdempotencyEntries = maxIdempotencyEntries;
+        this.idempotencyTtl = idempotencyTtl;
+        this.objectMapper = objectMapper;
+        // Access-ordered so the least recently used keys are dropped first once the cache is full
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > CartMutationGuard.this.maxIdempotencyEntries;
+            }
+        };
+    }
+
+    /**
+     * Runs the mutation while holding the user's lock. When an idempotency key is given and the
+     * same operation already completed with it, the original result is returned instead. The request
+     * holds everything the mutation depends on: the body, or the path and query parameters.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Integer userId, String operation, String idempotencyKey, Object request,
+                         Supplier<T> mutation) {
+        ReentrantLock lock = stripes[Math.floorMod(userId.hashCode(), stripes.length)];
+        lock.lock();
+        try {
+            if (idempotencyKey == null || idempotencyKey.isBlank()) {
+                return mutation.get();
+            }
+
+            String cacheKey = userId + ":" + operation + ":" + idempotencyKey;
+            byte[] requestHash = hash(request);
+            CachedResult replayed = findResult(cacheKey);
+            if (replayed != null) {
+                if (!Arrays.equals(replayed.requestHash(), requestHash)) {
+                    throw new IdempotencyKeyReusedException(idempotencyKey, operation);
+                }
+                log.info("Replaying {} for user ID: {} with idempotency key: {}", operation, userId, idempotencyKey);
+                return (T) replayed.value();
+            }
+
+            T result = mutation.get();
+            storeResult(cacheKey, requestHash, result);
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] hash(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not hash the request of an idempotent cart mutation", e);
+        }
+    }
+
+    private synchronized CachedResult findResult(String cacheKey) {
+        CachedResult cached = results.get(cacheKey);
+        if (cached != null && cached.expiresAt().isBefore(Instant.now())) {
+            results.remove(cacheKey);
+            return null;
+        }
+        return cached;
+    }
+
+    private synchronized void storeResult(String cacheKey, byte[] requestHash, Object value) {
+        results.put(cacheKey, new CachedResult(value, requestHash, Instant.now().plus(idempotencyTtl)));
+    }
+
+    private record CachedResult(Object value, byte[] requestHash, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.pm.cartservice.service;
+
+import com.pm.cartservice.client.ProductServiceClient;
+import com.pm.cartservice.dto.CartLineChangeDto;
+import com.pm.cartservice.dto.CartLineChangeType;
+import com.pm.cartservice.dto.CartRevalidationDto;
+import com.pm.cartservice.dto.product.ProductAvailabilityDto;
+import com.pm.cartservice.model.Cart;
+import com.pm.cartservice.model.CartItem;
+import com.pm.cartservice.model.Money;
+import com.pm.cartservice.repository.CartItemRepository;
+import com.pm.cartservice.repository.CartRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Checks cart lines against the current product catalog. The lines of all given carts are loaded
+ * in one query and the distinct products are looked up in one batched call; price and name changes
+ * are written back in one batch, while stock problems are only reported.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CartRevalidator {
+
+    private static final Set<CartLineChangeType> CHECKOUT_BLOCKING_CHANGES = Set.of(
+            CartLineChangeType.PRICE_CHANGED,
+            CartLineChangeType.INSUFFICIENT_STOCK,
+            CartLineChangeType.UNAVAILABLE);
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final ProductServiceClient productServiceClient;
+
+    @Transactional
+    public CartRevalidationDto revalidate(Cart cart) {
+        return revalidate(List.of(cart)).get(cart.getCartId());
+    }
+
+    @Transactional
+    public Map<Integer, CartRevalidationDto> revalidate(Collection<Cart> carts) {
+        Map<Integer, Cart> cartsById = carts.stream()
+                .collect(Collectors.toMap(Cart::getCartId, cart -> cart, (first, second) -> first, LinkedHashMap::new));
+        Map<Integer, List<CartItem>> itemsByCartId = cartItemRepository.findByCartCartIdIn(cartsById.keySet()).stream()
+                .collect(Collectors.groupingBy(item -> item.getCart().getCartId()));
+        Set<UUID> productIds = itemsByCartId.values().stream()
+                .flatMap(List::stream)
+                .map(CartItem::getProductId)
+                .collect(Collectors.toSet());
+        Map<UUID, ProductAvailabilityDto> availability = productIds.isEmpty()
+                ? Map.of()
+                : productServiceClient.getAvailability(productIds);
+
+        Map<Integer, CartRevalidationDto> results = new LinkedHashMap<>();
+        List<CartItem> changedItems = new ArrayList<>();
+        List<Cart> changedCarts = new ArrayList<>();
+        for (Cart cart : cartsById.values()) {
+            List<CartItem> items = itemsByCartId.getOrDefault(cart.getCartId(), List.of());
+            Money previousTotal = cart.getTotalAmount();
+            List<CartLineChangeDto> changes = new ArrayList<>();
+            boolean itemsChanged = false;
+
+            for (CartItem item : items) {
+                itemsChanged |= revalidateLine(item, availability.get(item.getProductId()), changes, changedItems);
+            }
+
+            if (itemsChanged) {
+                cart.setTotalAmount(Money.sum(items, item -> item.getTotalPrice().minorUnits()));
+                changedCarts.add(cart);
+            }
+            results.put(cart.getCartId(), CartRevalidationDto.builder()
+                    .cartId(cart.getCartId())
+                    .previousTotalAmount(previousTotal.toBigDecimal())
+                    .totalAmount(cart.getTotalAmount().toBigDecimal())
+                    .changes(changes)
+                    .build());
+        }
+
+        if (!changedItems.isEmpty()) {
+            log.info("Revalidation updated {} lines in {} carts", changedItems.size(), changedCarts.size());
+            cartItemRepository.saveAll(changedItems);
+            cartRepository.saveAll(changedCarts);
+        }
+        return results;
+    }
+
+    /**
+     * Whether the cart must go back to the customer before it can be turned into an order.
+     */
+    public boolean requiresReview(CartRevalidationDto revalidation) {
+        return revalidation.getChanges().stream()
+                .anyMatch(change -> CHECKOUT_BLOCKING_CHANGES.contains(change.getType()));
+    }
+
+    private boolean revalidateLine(CartItem item, ProductAvailabilityDto product,
+                                   List<CartLineChangeDto> changes, List<CartItem> changedItems) {
+        if (product == null || !ProductAvailabilityDto.STATUS_ACTIVE.equalsIgnoreCase(product.getStatus())) {
+            changes.add(change(item, CartLineChangeType.UNAVAILABLE)
+                    .requestedQuantity(item.getQuantity())
+                    .availableQuantity(0)
+                    .build());
+            return false;
+        }
+
+        boolean changed = false;
+        Money currentPrice = Money.of(product.getPrice());
+        if (!currentPrice.equals(item.getUnitPrice())) {
+            changes.add(change(item, CartLineChangeType.PRICE_CHANGED)
+                    .previousUnitPrice(item.getUnitPrice().toBigDecimal())
+                    .currentUnitPrice(currentPrice.toBigDecimal())
+                    .build());
+            item.setUnitPrice(currentPrice);
+            item.setTotalPrice(currentPrice.times(item.getQuantity()));
+            changed = true;
+        }
+        if (product.getName() != null && !Objects.equals(product.getName(), item.getProductName())) {
+            changes.add(change(item, CartLineChangeType.NAME_CHANGED)
+                    .previousProductName(item.getProductName())
+                    .currentProductName(product.getName())
+                    .build());
+            item.setProductName(product.getName());
+            changed = true;
+        }
+        if (product.getAvailableQuantity() != null && product.getAvailableQuantity() < item.getQuantity()) {
+            changes.add(change(item, CartLineChangeType.INSUFFICIENT_STOCK)
+                    .requestedQuantity(item.getQuantity())
+                    .availableQuantity(product.getAvailableQuantity())
+                    .build());
+        }
+
+        if (changed) {
+            changedItems.add(item);
+        }
+        return changed;
+    }
+
+    private CartLineChangeDto.CartLineChangeDtoBuilder change(CartItem item, CartLineChangeType type) {
+        return CartLineChangeDto.builder()
+                .cartItemId(item.getCartItemId())
+                .productId(item.getProductId())
+                .type(type);
+    }
+}
@@ -2,15 +2,25 @@ package com.pm.cartservice.service;
 
 import com.pm.cartservice.dto.CartDto;
 import com.pm.cartservice.dto.AddToCartRequest;
+import com.pm.cartservice.dto.BulkCartMutationRequest;
 import com.pm.cartservice.dto.response.collection.CollectionResponse;
 
+import java.util.UUID;
+
 public interface CartService {
     CartDto findCartByUserId(Integer userId);
+    CartDto revalidateCartByUserId(Integer userId);
     CartDto addToCart(AddToCartRequest request);
+    CartDto applyBulkMutations(BulkCartMutationRequest request);
+    CartDto mergeGuestCart(UUID guestToken, Integer userId);
     CartDto updateCartItemQuantity(Integer cartItemId, Integer quantity);
+    CartDto updateCartItemQuantityByProduct(Integer userId, UUID productId, Integer quantity);
     void removeFromCart(Integer cartId, Integer cartItemId);
+    void removeProductFromCart(Integer userId, UUID productId);
     void clearCart(Integer cartId);
     void convertCartToOrder(Integer cartId);
-    CollectionResponse<CartDto> findAllCarts();
+    CollectionResponse<CartDto> findAllCarts(int page, int size);
     CartDto findCartById(Integer cartId);
+    Integer findUserIdByCartId(Integer cartId);
+    Integer findUserIdByCartItemId(Integer cartItemId);
 } 
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.pm.cartservice.service;
+
+import com.pm.cartservice.model.CartStatus;
+import com.pm.cartservice.repository.CartRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Cart totals are maintained incrementally, so this job periodically recomputes them from the
+ * cart lines and repairs any cart whose stored totals drifted. It walks the carts in id windows
+ * so each query and update stays small.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CartTotalsVerifier {
+
+    private final CartRepository cartRepository;
+
+    @Value("${cart.totals-verifier.window-size:1000}")
+    private int windowSize;
+
+    /**
+     * Verify active cart totals every night
+     */
+    @Scheduled(cron = "${cart.totals-verifier.cron:0 30 3 * * ?}") // Daily at 3:30 AM
+    public void verifyActiveCartTotals() {
+        log.info("Starting verification of active cart totals");
+
+        try {
+            Integer maxCartId = cartRepository.findMaxCartId();
+            if (maxCartId == null) {
+                log.debug("No carts found to verify");
+                return;
+            }
+
+            int repaired = 0;
+            for (int fromCartId = 0; fromCartId < maxCartId; fromCartId += windowSize) {
+                List<Integer> driftedCartIds = cartRepository.findCartIdsWithDriftedTotals(
+                        CartStatus.ACTIVE.name(), fromCartId, fromCartId + windowSize);
+                if (!driftedCartIds.isEmpty()) {
+                    log.warn("Repairing drifted totals for carts: {}", driftedCartIds);
+                    repaired += cartRepository.recomputeTotals(driftedCartIds);
+                }
+            }
+
+            if (repaired > 0) {
+                log.info("Repaired totals of {} carts", repaired);
+            } else {
+                log.debug("No drifted cart totals found");
+            }
+        } catch (Exception e) {
+            log.error("Error during cart totals verification: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.pm.cartservice.service;
+
+import com.pm.cartservice.dto.AddToGuestCartRequest;
+import com.pm.cartservice.dto.CartDto;
+
+import java.util.UUID;
+
+public interface GuestCartService {
+    CartDto createGuestCart();
+    CartDto findGuestCart(UUID guestToken);
+    CartDto addToGuestCart(UUID guestToken, AddToGuestCartRequest request);
+    CartDto updateGuestCartItemQuantity(UUID guestToken, UUID productId, Integer quantity);
+    void removeFromGuestCart(UUID guestToken, UUID productId);
+}
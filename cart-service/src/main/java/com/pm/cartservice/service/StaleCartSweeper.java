@@ -0,0 +1,139 @@
+package com.pm.cartservice.service;
+
+import com.pm.cartservice.model.CartStatus;
+import com.pm.cartservice.repository.CartItemRepository;
+import com.pm.cartservice.repository.CartRepository;
+import com.pm.cartservice.repository.CartSweepCandidate;
+import com.pm.cartservice.store.HotCartSnapshot;
+import com.pm.cartservice.store.HotCartStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Ages carts out in three steps: ACTIVE carts idle for {@code abandon-after} become ABANDONED,
+ * ABANDONED carts older than {@code expire-after} lose their lines and become EXPIRED, and EXPIRED
+ * carts older than {@code retain-expired-for} are deleted. Each step walks the carts in keyset
+ * chunks over (updated_at, cart_id) and applies one set-based statement per chunk, so no
+ * transaction holds locks on more than a chunk of rows.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StaleCartSweeper {
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final ObjectProvider<HotCartStore> hotCartStoreProvider;
+
+    @Value("${cart.sweeper.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${cart.sweeper.abandon-after:P30D}")
+    private Duration abandonAfter;
+
+    @Value("${cart.sweeper.expire-after:P30D}")
+    private Duration expireAfter;
+
+    @Value("${cart.sweeper.retain-expired-for:P60D}")
+    private Duration retainExpiredFor;
+
+    /**
+     * Sweep stale carts every night
+     */
+    @Scheduled(cron = "${cart.sweeper.cron:0 0 4 * * ?}") // Daily at 4 AM
+    public void sweepStaleCarts() {
+        log.info("Starting stale cart sweep");
+
+        try {
+            Instant now = Instant.now();
+            int abandoned = abandonIdleCarts(now.minus(abandonAfter));
+            int expired = expireAbandonedCarts(now.minus(expireAfter));
+            int deleted = deleteExpiredCarts(now.minus(retainExpiredFor));
+            log.info("Stale cart sweep finished: {} abandoned, {} expired, {} deleted", abandoned, expired, deleted);
+        } catch (Exception e) {
+            log.error("Error during stale cart sweep: {}", e.getMessage(), e);
+        }
+    }
+
+    private int abandonIdleCarts(Instant cutoff) {
+        int abandoned = 0;
+        List<CartSweepCandidate> chunk = firstChunk(CartStatus.ACTIVE, cutoff);
+        while (!chunk.isEmpty()) {
+            List<Integer> cartIds = withoutHotCarts(chunk);
+            if (!cartIds.isEmpty()) {
+                abandoned += cartRepository.transitionStaleCarts(cartIds,
+                        CartStatus.ACTIVE.name(), CartStatus.ABANDONED.name(), cutoff);
+            }
+            chunk = nextChunk(CartStatus.ACTIVE, cutoff, chunk);
+        }
+        return abandoned;
+    }
+
+    private int expireAbandonedCarts(Instant cutoff) {
+        int expired = 0;
+        List<CartSweepCandidate> chunk = firstChunk(CartStatus.ABANDONED, cutoff);
+        while (!chunk.isEmpty()) {
+            List<Integer> cartIds = cartIds(chunk);
+            // Lines go first: if marking the carts fails they are still ABANDONED and retried next run
+            cartItemRepository.deleteByCartIds(cartIds);
+            expired += cartRepository.transitionStaleCarts(cartIds,
+                    CartStatus.ABANDONED.name(), CartStatus.EXPIRED.name(), cutoff);
+            chunk = nextChunk(CartStatus.ABANDONED, cutoff, chunk);
+        }
+        return expired;
+    }
+
+    private int deleteExpiredCarts(Instant cutoff) {
+        int deleted = 0;
+        List<CartSweepCandidate> chunk = firstChunk(CartStatus.EXPIRED, cutoff);
+        while (!chunk.isEmpty()) {
+            deleted += cartRepository.deleteStaleCarts(cartIds(chunk), CartStatus.EXPIRED.name(), cutoff);
+            chunk = nextChunk(CartStatus.EXPIRED, cutoff, chunk);
+        }
+        return deleted;
+    }
+
+    private List<CartSweepCandidate> firstChunk(CartStatus status, Instant cutoff) {
+        return cartRepository.findSweepCandidates(status, cutoff, Instant.EPOCH, 0, PageRequest.of(0, chunkSize));
+    }
+
+    private List<CartSweepCandidate> nextChunk(CartStatus status, Instant cutoff, List<CartSweepCandidate> previous) {
+        if (previous.size() < chunkSize) {
+            return List.of();
+        }
+        CartSweepCandidate last = previous.get(previous.size() - 1);
+        return cartRepository.findSweepCandidates(status, cutoff, last.updatedAt(), last.cartId(),
+                PageRequest.of(0, chunkSize));
+    }
+
+    // Users still holding a hot cart are active in Redis; the store's TTL ages those out instead
+    private List<Integer> withoutHotCarts(List<CartSweepCandidate> chunk) {
+        HotCartStore hotCartStore = hotCartStoreProvider.getIfAvailable();
+        if (hotCartStore == null) {
+            return cartIds(chunk);
+        }
+        Set<Integer> hotUserIds = hotCartStore.findAll(chunk.stream().map(CartSweepCandidate::userId).toList())
+                .stream()
+                .map(HotCartSnapshot::getUserId)
+                .collect(Collectors.toSet());
+        return chunk.stream()
+                .filter(candidate -> !hotUserIds.contains(candidate.userId()))
+                .map(CartSweepCandidate::cartId)
+                .toList();
+    }
+
+    private List<Integer> cartIds(List<CartSweepCandidate> chunk) {
+        return chunk.stream().map(CartSweepCandidate::cartId).toList();
+    }
+}
@@ -1,24 +1,49 @@
 package com.pm.cartservice.service.impl;
 
+import com.pm.cartservice.analytics.CartEventRecorder;
 import com.pm.cartservice.dto.CartDto;
 import com.pm.cartservice.dto.CartItemDto;
 import com.pm.cartservice.dto.AddToCartRequest;
+import com.pm.cartservice.dto.BulkCartMutationRequest;
+import com.pm.cartservice.dto.CartLineOperation;
+import com.pm.cartservice.dto.CartLineOperationType;
+import com.pm.cartservice.dto.CartRevalidationDto;
 import com.pm.cartservice.dto.response.collection.CollectionResponse;
+import com.pm.cartservice.exception.CartRevalidationException;
+import com.pm.cartservice.exception.HotCartMissingException;
 import com.pm.cartservice.mapper.CartMapper;
 import com.pm.cartservice.mapper.CartItemMapper;
 import com.pm.cartservice.model.Cart;
 import com.pm.cartservice.model.CartItem;
 import com.pm.cartservice.model.CartStatus;
+import com.pm.cartservice.model.Money;
 import com.pm.cartservice.repository.CartRepository;
 import com.pm.cartservice.repository.CartItemRepository;
+import com.pm.cartservice.service.CartRevalidator;
 import com.pm.cartservice.service.CartService;
+import com.pm.cartservice.store.CartWriteBehindFlusher;
+import com.pm.cartservice.store.HotCartLine;
+import com.pm.cartservice.store.HotCartSnapshot;
+import com.pm.cartservice.store.HotCartStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
@@ -30,18 +55,65 @@ public class CartServiceImpl implements CartService {
     private final CartItemRepository cartItemRepository;
     private final CartMapper cartMapper;
     private final CartItemMapper cartItemMapper;
+    private final CartRevalidator cartRevalidator;
+    private final CartEventRecorder cartEventRecorder;
+    private final ObjectProvider<HotCartStore> hotCartStoreProvider;
+    private final ObjectProvider<CartWriteBehindFlusher> cartWriteBehindFlusherProvider;
+
+    @Value("${cart.store.fence-timeout:PT30S}")
+    private Duration fenceTimeout;
 
     @Override
     @Transactional(readOnly = true)
     public CartDto findCartByUserId(Integer userId) {
         log.info("Finding cart for user ID: {}", userId);
-        Optional<Cart> cart = cartRepository.findActiveCartByUserId(userId);
+        HotCartStore hotCartStore = hotCartStoreProvider.getIfAvailable();
+        if (hotCartStore != null) {
+            return findHotCart(hotCartStore, userId)
+                    .map(cartMapper::fromSnapshot)
+                    .orElse(null);
+        }
+
+        Optional<Cart> cart = cartRepository.findActiveCartWithItemsByUserId(userId);
         return cart.map(cartMapper::toDTO).orElse(null);
     }
 
+    @Override
+    public CartDto revalidateCartByUserId(Integer userId) {
+        log.info("Revalidating cart for user ID: {}", userId);
+        // Revalidation updates the persisted lines; bring them up to date with the hot cart first
+        HotCartStore hotCartStore = hotCartStoreProvider.getIfAvailable();
+        if (hotCartStore != null) {
+            takeOverHotCart(hotCartStore, userId);
+        }
+
+        Optional<Cart> cart = cartRepository.findActiveCartWithItemsByUserId(userId);
+        if (cart.isEmpty()) {
+            return null;
+        }
+        CartRevalidationDto revalidation = cartRevalidator.revalidate(cart.get());
+        CartDto cartDto = cartMapper.toDTO(cart.get());
+        cartDto.setRevalidation(revalidation);
+        return cartDto;
+    }
+
     @Override
     public CartDto addToCart(AddToCartRequest request) {
         log.info("Adding item to cart for user ID: {}", request.getUserId());
+
+        HotCartStore hotCartStore = hotCartStoreProvider.getIfAvailable();
+        if (hotCartStore != null) {
+            HotCartLine line = HotCartLine.builder()
+                    .productId(request.getProductId())
+                    .productName(request.getProductName())
+                    .productSku(request.getProductSku())
+                    .unitPriceCents(Money.of(request.getUnitPrice()).minorUnits())
+                    .quantity(request.getQuantity())
+                    .productImageUrl(request.getProductImageUrl())
+                    .build();
+            return cartMapper.fromSnapshot(mutateHotCart(hotCartStore, request.getUserId(),
+                    () -> hotCartStore.addItem(request.getUserId(), line)));
+        }
         
         // Find or create active cart for user
         Cart cart = cartRepository.findActiveCartByUserId(request.getUserId())
@@ -54,48 +126,105 @@ public class CartServiceImpl implements CartService {
         if (existingItem.isPresent()) {
             // Update quantity of existing item
             CartItem item = existingItem.get();
+            Money previousTotal = item.getTotalPrice();
+            int previousQuantity = item.getQuantity();
             item.setQuantity(item.getQuantity() + request.getQuantity());
-            item.setTotalPrice(item.getUnitPrice() * item.getQuantity());
+            item.setTotalPrice(item.getUnitPrice().times(item.getQuantity()));
             cartItemRepository.save(item);
+            cartEventRecorder.recordLineChange(cart, item.getProductId(), item.getUnitPrice(), previousQuantity, item.getQuantity());
+            applyTotalsDelta(cart, item.getTotalPrice().minus(previousTotal), request.getQuantity());
         } else {
             // Add new item to cart
+            Money unitPrice = Money.of(request.getUnitPrice());
             CartItem newItem = CartItem.builder()
                     .cart(cart)
                     .productId(request.getProductId())
                     .productName(request.getProductName())
                     .productSku(request.getProductSku())
-                    .unitPrice(request.getUnitPrice())
+                    .unitPrice(unitPrice)
                     .quantity(request.getQuantity())
-                    .totalPrice(request.getUnitPrice() * request.getQuantity())
+                    .totalPrice(unitPrice.times(request.getQuantity()))
                     .productImageUrl(request.getProductImageUrl())
                     .build();
-            cartItemRepository.save(newItem);
+            // A concurrent add of the same product from another instance merges into its line; that
+            // request also bumped the cart version, so this transaction then fails on the cart save
+            cartItemRepository.upsertItem(newItem);
+            cartEventRecorder.recordLineChange(cart, newItem.getProductId(), unitPrice, 0, newItem.getQuantity());
+            applyTotalsDelta(cart, newItem.getTotalPrice(), newItem.getQuantity());
         }
         
-        // Update cart totals
-        updateCartTotals(cart);
         Cart savedCart = cartRepository.save(cart);
         
         return cartMapper.toDTO(savedCart);
     }
 
+    @Override
+    public CartDto applyBulkMutations(BulkCartMutationRequest request) {
+        log.info("Applying {} cart operations for user ID: {}", request.getOperations().size(), request.getUserId());
+
+        // Bulk mutations run against the database; bring it up to date with the hot cart first
+        HotCartStore hotCartStore = hotCartStoreProvider.getIfAvailable();
+        if (hotCartStore != null) {
+            takeOverHotCart(hotCartStore, request.getUserId());
+        }
+
+        return applyOperations(request.getUserId(), request.getOperations());
+    }
+
+    @Override
+    public CartDto mergeGuestCart(UUID guestToken, Integer userId) {
+        log.info("Merging guest cart into cart of user ID: {}", userId);
+
+        HotCartStore hotCartStore = hotCartStoreProvider.getIfAvailable();
+        if (hotCartStore == null) {
+            throw new RuntimeException("Guest carts require the hot cart store (cart.store.mode=redis)");
+        }
+        HotCartSnapshot guestCart = hotCartStore.findGuest(guestToken)
+                .orElseThrow(() -> new RuntimeException("Guest cart not found"));
+
+        // The guest lines are applied to the database as one bulk mutation; both hot carts are
+        // dropped once it commits
+        takeOverHotCart(hotCartStore, userId);
+        afterCommit(() -> hotCartStore.evictGuest(guestToken));
+
+        List<CartLineOperation> operations = guestCart.getLines().stream()
+                .map(line -> CartLineOperation.builder()
+                        .type(CartLineOperationType.ADD)
+                        .productId(line.getProductId())
+                        .productName(line.getProductName())
+                        .productSku(line.getProductSku())
+                        .unitPrice(Money.ofMinor(line.getUnitPriceCents()).toBigDecimal())
+                        .quantity(line.getQuantity())
+                        .productImageUrl(line.getProductImageUrl())
+                        .build())
+                .toList();
+        return applyOperations(userId, operations);
+    }
+
     @Override
     public CartDto updateCartItemQuantity(Integer cartItemId, Integer quantity) {
         log.info("Updating cart item quantity: {} to {}", cartItemId, quantity);
         
         CartItem cartItem = cartItemRepository.findById(cartItemId)
                 .orElseThrow(() -> new RuntimeException("Cart item not found"));
-        
-        cartItem.setQuantity(quantity);
-        cartItem.setTotalPrice(cartItem.getUnitPrice() * quantity);
-        cartItemRepository.save(cartItem);
-        
-        // Update cart totals
-        Cart cart = cartItem.getCart();
-        updateCartTotals(cart);
-        Cart savedCart = cartRepository.save(cart);
-        
-        return cartMapper.toDTO(savedCart);
+
+        HotCartStore hotCartStore = hotCartStoreProvider.getIfAvailable();
+        if (hotCartStore != null) {
+            return updateHotQuantity(hotCartStore, cartItem.getCart().getUserId(), cartItem.getProductId(), quantity);
+        }
+        return updateQuantity(cartItem, quantity);
+    }
+
+    @Override
+    public CartDto updateCartItemQuantityByProduct(Integer userId, UUID productId, Integer quantity) {
+        log.info("Updating quantity of product {} in cart of user ID: {} to {}", productId, userId, quantity);
+
+        // Hot cart lines only get an id once they are flushed, so they are addressed by product
+        HotCartStore hotCartStore = hotCartStoreProvider.getIfAvailable();
+        if (hotCartStore != null) {
+            return updateHotQuantity(hotCartStore, userId, productId, quantity);
+        }
+        return updateQuantity(findActiveCartItem(userId, productId), quantity);
     }
 
     @Override
@@ -108,13 +237,25 @@ public class CartServiceImpl implements CartService {
         if (!cartItem.getCart().getCartId().equals(cartId)) {
             throw new RuntimeException("Cart item does not belong to the specified cart");
         }
-        
-        cartItemRepository.delete(cartItem);
-        
-        // Update cart totals
-        Cart cart = cartItem.getCart();
-        updateCartTotals(cart);
-        cartRepository.save(cart);
+
+        HotCartStore hotCartStore = hotCartStoreProvider.getIfAvailable();
+        if (hotCartStore != null) {
+            removeHotItem(hotCartStore, cartItem.getCart().getUserId(), cartItem.getProductId());
+            return;
+        }
+        removeItem(cartItem);
+    }
+
+    @Override
+    public void removeProductFromCart(Integer userId, UUID productId) {
+        log.info("Removing product {} from cart of user ID: {}", productId, userId);
+
+        HotCartStore hotCartStore = hotCartStoreProvider.getIfAvailable();
+        if (hotCartStore != null) {
+            removeHotItem(hotCartStore, userId, productId);
+            return;
+        }
+        removeItem(findActiveCartItem(userId, productId));
     }
 
     @Override
@@ -123,35 +264,70 @@ public class CartServiceImpl implements CartService {
         
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new RuntimeException("Cart not found"));
+
+        HotCartStore hotCartStore = hotCartStoreProvider.getIfAvailable();
+        if (hotCartStore != null && cart.getStatus() == CartStatus.ACTIVE) {
+            mutateHotCart(hotCartStore, cart.getUserId(), () -> {
+                hotCartStore.clear(cart.getUserId());
+                return null;
+            });
+            return;
+        }
         
         cartItemRepository.deleteByCartCartId(cartId);
+        if (cart.getItemCount() > 0) {
+            cartEventRecorder.recordCleared(cart);
+        }
         
-        cart.setTotalAmount(0.0);
+        cart.setTotalAmount(Money.ZERO);
         cart.setItemCount(0);
         cartRepository.save(cart);
     }
 
     @Override
+    @Transactional(noRollbackFor = CartRevalidationException.class)
     public void convertCartToOrder(Integer cartId) {
         log.info("Converting cart to order: {}", cartId);
         
         Cart cart = cartRepository.findById(cartId)
                 .orElseThrow(() -> new RuntimeException("Cart not found"));
+
+        // Persist the latest hot state before the cart leaves the ACTIVE status
+        HotCartStore hotCartStore = hotCartStoreProvider.getIfAvailable();
+        if (hotCartStore != null && cart.getStatus() == CartStatus.ACTIVE) {
+            takeOverHotCart(hotCartStore, cart.getUserId());
+        }
+
+        // Stale prices and missing stock are caught here rather than by the order; the refreshed
+        // lines are kept so the customer reviews the current cart
+        if (cart.getStatus() == CartStatus.ACTIVE) {
+            CartRevalidationDto revalidation = cartRevalidator.revalidate(cart);
+            if (cartRevalidator.requiresReview(revalidation)) {
+                throw new CartRevalidationException(revalidation);
+            }
+        }
         
         cart.setStatus(CartStatus.CONVERTED_TO_ORDER);
         cartRepository.save(cart);
+        cartEventRecorder.recordConverted(cart);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public CollectionResponse<CartDto> findAllCarts() {
-        log.info("Fetching all carts");
-        List<CartDto> carts = cartRepository.findAll().stream()
-                .map(cartMapper::toDTO)
-                .toList();
+    public CollectionResponse<CartDto> findAllCarts(int page, int size) {
+        log.info("Fetching carts page {} of size {}", page, size);
+        Sort sort = Sort.by("cartId");
+        Page<Integer> cartIds = cartRepository.findCartIds(PageRequest.of(page, size, sort));
+        List<CartDto> carts = cartIds.isEmpty()
+                ? List.of()
+                : cartRepository.findByCartIdIn(cartIds.getContent(), sort).stream()
+                        .map(cartMapper::toDTO)
+                        .toList();
         return CollectionResponse.<CartDto>builder()
                 .data(carts)
-                .totalElements(carts.size())
+                .totalElements((int) cartIds.getTotalElements())
+                .page(page)
+                .size(size)
                 .build();
     }
 
@@ -159,33 +335,265 @@ public class CartServiceImpl implements CartService {
     @Transactional(readOnly = true)
     public CartDto findCartById(Integer cartId) {
         log.info("Finding cart by ID: {}", cartId);
-        Cart cart = cartRepository.findById(cartId)
+        Cart cart = cartRepository.findWithItemsByCartId(cartId)
                 .orElseThrow(() -> new RuntimeException("Cart not found"));
         return cartMapper.toDTO(cart);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Integer findUserIdByCartId(Integer cartId) {
+        return cartRepository.findUserIdByCartId(cartId)
+                .orElseThrow(() -> new RuntimeException("Cart not found"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Integer findUserIdByCartItemId(Integer cartItemId) {
+        return cartItemRepository.findUserIdByCartItemId(cartItemId)
+                .orElseThrow(() -> new RuntimeException("Cart item not found"));
+    }
+
+    private CartItem findActiveCartItem(Integer userId, UUID productId) {
+        Cart cart = cartRepository.findActiveCartByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Cart not found"));
+        return cartItemRepository.findCartItemByCartIdAndProductId(cart.getCartId(), productId)
+                .orElseThrow(() -> new RuntimeException("Cart item not found"));
+    }
+
+    private CartDto updateHotQuantity(HotCartStore hotCartStore, Integer userId, UUID productId, int quantity) {
+        return mutateHotCart(hotCartStore, userId, () -> hotCartStore.updateQuantity(userId, productId, quantity))
+                .map(cartMapper::fromSnapshot)
+                .orElseThrow(() -> new RuntimeException("Cart item not found"));
+    }
+
+    private void removeHotItem(HotCartStore hotCartStore, Integer userId, UUID productId) {
+        if (!mutateHotCart(hotCartStore, userId, () -> hotCartStore.removeItem(userId, productId))) {
+            throw new RuntimeException("Cart item not found");
+        }
+    }
+
+    private CartDto updateQuantity(CartItem cartItem, int quantity) {
+        Money previousTotal = cartItem.getTotalPrice();
+        int previousQuantity = cartItem.getQuantity();
+        int quantityDelta = quantity - previousQuantity;
+        cartItem.setQuantity(quantity);
+        cartItem.setTotalPrice(cartItem.getUnitPrice().times(quantity));
+        cartItemRepository.save(cartItem);
+        
+        Cart cart = cartItem.getCart();
+        cartEventRecorder.recordLineChange(cart, cartItem.getProductId(), cartItem.getUnitPrice(), previousQuantity, quantity);
+        applyTotalsDelta(cart, cartItem.getTotalPrice().minus(previousTotal), quantityDelta);
+        Cart savedCart = cartRepository.save(cart);
+        
+        return cartMapper.toDTO(savedCart);
+    }
+
+    private void removeItem(CartItem cartItem) {
+        cartItemRepository.delete(cartItem);
+        
+        Cart cart = cartItem.getCart();
+        cartEventRecorder.recordLineChange(cart, cartItem.getProductId(), cartItem.getUnitPrice(), cartItem.getQuantity(), 0);
+        applyTotalsDelta(cart, cartItem.getTotalPrice().negate(), -cartItem.getQuantity());
+        cartRepository.save(cart);
+    }
+
     private Cart createNewCart(Integer userId) {
         Cart newCart = Cart.builder()
                 .userId(userId)
                 .status(CartStatus.ACTIVE)
-                .totalAmount(0.0)
+                .totalAmount(Money.ZERO)
                 .itemCount(0)
                 .build();
         return cartRepository.save(newCart);
     }
 
-    private void updateCartTotals(Cart cart) {
-        List<CartItem> items = cartItemRepository.findByCartCartId(cart.getCartId());
-        
-        double totalAmount = items.stream()
-                .mapToDouble(CartItem::getTotalPrice)
-                .sum();
-        
-        int itemCount = items.stream()
-                .mapToInt(CartItem::getQuantity)
-                .sum();
-        
-        cart.setTotalAmount(totalAmount);
-        cart.setItemCount(itemCount);
+    private CartDto applyOperations(Integer userId, List<CartLineOperation> operations) {
+        Cart cart = cartRepository.findActiveCartByUserId(userId)
+                .orElseGet(() -> createNewCart(userId));
+
+        Map<UUID, CartItem> items = new LinkedHashMap<>();
+        cartItemRepository.findByCartCartId(cart.getCartId())
+                .forEach(item -> items.put(item.getProductId(), item));
+        Map<UUID, CartEventRecorder.LineState> previousLines = CartEventRecorder.lineStates(items.values());
+        Map<UUID, CartItem> removedItems = new LinkedHashMap<>();
+
+        for (CartLineOperation operation : operations) {
+            applyLineOperation(cart, items, removedItems, operation);
+        }
+
+        // Deleted first so no insert can collide with a row that is still on the cart's unique key
+        cartItemRepository.deleteAllInBatch(removedItems.values());
+        cartItemRepository.saveAll(items.values());
+        cartEventRecorder.recordLineChanges(cart, previousLines, items.values());
+
+        // Totals are recomputed once for the whole batch
+        cart.setTotalAmount(Money.sum(items.values(), item -> item.getTotalPrice().minorUnits()));
+        cart.setItemCount(items.values().stream().mapToInt(CartItem::getQuantity).sum());
+        Cart savedCart = cartRepository.save(cart);
+
+        return cartMapper.toDTO(savedCart);
+    }
+
+    private void applyLineOperation(Cart cart, Map<UUID, CartItem> items, Map<UUID, CartItem> removedItems,
+                                    CartLineOperation operation) {
+        CartItem item = items.get(operation.getProductId());
+        switch (operation.getType()) {
+            case ADD:
+                if (operation.getQuantity() == null) {
+                    throw new RuntimeException("Quantity is required to add product " + operation.getProductId());
+                }
+                if (item == null) {
+                    if (operation.getUnitPrice() == null || operation.getProductName() == null || operation.getProductSku() == null) {
+                        throw new RuntimeException("Product name, SKU and unit price are required to add product " + operation.getProductId());
+                    }
+                    Money unitPrice = Money.of(operation.getUnitPrice());
+                    // A product removed earlier in the batch keeps its row rather than being deleted and re-inserted
+                    item = removedItems.remove(operation.getProductId());
+                    if (item == null) {
+                        item = CartItem.builder()
+                                .cart(cart)
+                                .productId(operation.getProductId())
+                                .build();
+                    }
+                    item.setProductName(operation.getProductName());
+                    item.setProductSku(operation.getProductSku());
+                    item.setUnitPrice(unitPrice);
+                    item.setQuantity(operation.getQuantity());
+                    item.setTotalPrice(unitPrice.times(operation.getQuantity()));
+                    item.setProductImageUrl(operation.getProductImageUrl());
+                    items.put(operation.getProductId(), item);
+                } else {
+                    item.setQuantity(item.getQuantity() + operation.getQuantity());
+                    item.setTotalPrice(item.getUnitPrice().times(item.getQuantity()));
+                }
+                break;
+            case SET_QUANTITY:
+                if (item == null) {
+                    throw new RuntimeException("Cart item not found for product " + operation.getProductId());
+                }
+                if (operation.getQuantity() == null) {
+                    throw new RuntimeException("Quantity is required to update product " + operation.getProductId());
+                }
+                item.setQuantity(operation.getQuantity());
+                item.setTotalPrice(item.getUnitPrice().times(operation.getQuantity()));
+                break;
+            case REMOVE:
+                if (item != null) {
+                    items.remove(operation.getProductId());
+                    if (item.getCartItemId() != null) {
+                        removedItems.put(operation.getProductId(), item);
+                    }
+                }
+                break;
+        }
+    }
+
+    /**
+     * Moves the hot cart of a user into the current transaction. The cart is fenced before it is
+     * flushed, so a mutation from another instance is refused rather than applied to a copy that
+     * is about to be dropped. Once the transaction commits the hot cart is evicted and the next
+     * read hydrates from the new persisted state; on rollback the fence is lifted.
+     */
+    private void takeOverHotCart(HotCartStore hotCartStore, Integer userId) {
+        if (hotCartStore.freeze(userId, fenceTimeout)) {
+            cartWriteBehindFlusherProvider.getObject().flushUser(userId);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    hotCartStore.evict(userId);
+                } else {
+                    hotCartStore.unfreeze(userId);
+                }
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Optional<HotCartSnapshot> findHotCart(HotCartStore hotCartStore, Integer userId) {
+        Optional<HotCartSnapshot> snapshot = hotCartStore.find(userId);
+        if (snapshot.isPresent()) {
+            return snapshot;
+        }
+
+        Optional<Cart> cart = cartRepository.findActiveCartByUserId(userId);
+        if (cart.isEmpty()) {
+            return Optional.empty();
+        }
+        hotCartStore.hydrate(toSnapshot(userId, cart.get()));
+        return hotCartStore.find(userId);
+    }
+
+    /**
+     * Applies a mutation to the hot cart of a user, hydrating it first. The cart can expire or be
+     * evicted between the hydration and the mutation; it is then hydrated again and the mutation
+     * retried once, so the mutation never starts an empty cart in place of the persisted one.
+     */
+    private <T> T mutateHotCart(HotCartStore hotCartStore, Integer userId, Supplier<T> mutation) {
+        if (!hotCartStore.contains(userId)) {
+            hydrate(hotCartStore, userId);
+        }
+        try {
+            return mutation.get();
+        } catch (HotCartMissingException e) {
+            log.info("Hot cart of user ID: {} left the store, hydrating it again", userId);
+            hydrate(hotCartStore, userId);
+            return mutation.get();
+        }
+    }
+
+    private void hydrate(HotCartStore hotCartStore, Integer userId) {
+        HotCartSnapshot snapshot = cartRepository.findActiveCartByUserId(userId)
+                .map(cart -> toSnapshot(userId, cart))
+                .orElseGet(() -> HotCartSnapshot.builder()
+                        .userId(userId)
+                        .lines(List.of())
+                        .build());
+        hotCartStore.hydrate(snapshot);
+    }
+
+    private HotCartSnapshot toSnapshot(Integer userId, Cart cart) {
+        List<HotCartLine> lines = cartItemRepository.findByCartCartId(cart.getCartId()).stream()
+                .map(item -> HotCartLine.builder()
+                        .cartItemId(item.getCartItemId())
+                        .productId(item.getProductId())
+                        .productName(item.getProductName())
+                        .productSku(item.getProductSku())
+                        .unitPriceCents(item.getUnitPrice().minorUnits())
+                        .quantity(item.getQuantity())
+                        .productImageUrl(item.getProductImageUrl())
+                        .build())
+                .toList();
+
+        return HotCartSnapshot.builder()
+                .userId(userId)
+                .cartId(cart.getCartId())
+                .totalCents(Money.sum(lines, HotCartLine::getTotalCents).minorUnits())
+                .itemCount(lines.stream().mapToInt(HotCartLine::getQuantity).sum())
+                .lines(lines)
+                .build();
+    }
+
+    /**
+     * Adjusts the running totals by the change of a single line instead of re-reading every item.
+     * The cart version guards against two concurrent mutations applying deltas to the same totals.
+     */
+    private void applyTotalsDelta(Cart cart, Money amountDelta, int quantityDelta) {
+        cart.setTotalAmount(cart.getTotalAmount().plus(amountDelta));
+        cart.setItemCount(cart.getItemCount() + quantityDelta);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
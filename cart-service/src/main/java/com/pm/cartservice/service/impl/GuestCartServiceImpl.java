@@ -0,0 +1,88 @@
+package com.pm.cartservice.service.impl;
+
+import com.pm.cartservice.dto.AddToGuestCartRequest;
+import com.pm.cartservice.dto.CartDto;
+import com.pm.cartservice.mapper.CartMapper;
+import com.pm.cartservice.model.Money;
+import com.pm.cartservice.service.GuestCartService;
+import com.pm.cartservice.store.HotCartLine;
+import com.pm.cartservice.store.HotCartSnapshot;
+import com.pm.cartservice.store.HotCartStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class GuestCartServiceImpl implements GuestCartService {
+
+    private final CartMapper cartMapper;
+    private final ObjectProvider<HotCartStore> hotCartStoreProvider;
+
+    @Override
+    public CartDto createGuestCart() {
+        UUID guestToken = UUID.randomUUID();
+        log.info("Creating guest cart");
+        return toDto(guestToken, hotCartStore().createGuest(guestToken));
+    }
+
+    @Override
+    public CartDto findGuestCart(UUID guestToken) {
+        log.info("Finding guest cart");
+        return hotCartStore().findGuest(guestToken)
+                .map(snapshot -> toDto(guestToken, snapshot))
+                .orElse(null);
+    }
+
+    @Override
+    public CartDto addToGuestCart(UUID guestToken, AddToGuestCartRequest request) {
+        log.info("Adding item to guest cart");
+        HotCartStore hotCartStore = hotCartStore();
+        if (hotCartStore.findGuest(guestToken).isEmpty()) {
+            throw new RuntimeException("Guest cart not found");
+        }
+        HotCartLine line = HotCartLine.builder()
+                .productId(request.getProductId())
+                .productName(request.getProductName())
+                .productSku(request.getProductSku())
+                .unitPriceCents(Money.of(request.getUnitPrice()).minorUnits())
+                .quantity(request.getQuantity())
+                .productImageUrl(request.getProductImageUrl())
+                .build();
+        return toDto(guestToken, hotCartStore.addGuestItem(guestToken, line));
+    }
+
+    @Override
+    public CartDto updateGuestCartItemQuantity(UUID guestToken, UUID productId, Integer quantity) {
+        log.info("Updating guest cart item quantity: {} to {}", productId, quantity);
+        return hotCartStore().updateGuestQuantity(guestToken, productId, quantity)
+                .map(snapshot -> toDto(guestToken, snapshot))
+                .orElseThrow(() -> new RuntimeException("Cart item not found"));
+    }
+
+    @Override
+    public void removeFromGuestCart(UUID guestToken, UUID productId) {
+        log.info("Removing item {} from guest cart", productId);
+        if (!hotCartStore().removeGuestItem(guestToken, productId)) {
+            throw new RuntimeException("Cart item not found");
+        }
+    }
+
+    private HotCartStore hotCartStore() {
+        HotCartStore hotCartStore = hotCartStoreProvider.getIfAvailable();
+        if (hotCartStore == null) {
+            throw new RuntimeException("Guest carts require the hot cart store (cart.store.mode=redis)");
+        }
+        return hotCartStore;
+    }
+
+    private CartDto toDto(UUID guestToken, HotCartSnapshot snapshot) {
+        CartDto cartDto = cartMapper.fromSnapshot(snapshot);
+        cartDto.setGuestToken(guestToken);
+        return cartDto;
+    }
+}
@@ -0,0 +1,162 @@
+package com.pm.cartservice.store;
+
+import com.pm.cartservice.analytics.CartEventRecorder;
+import com.pm.cartservice.model.Cart;
+import com.pm.cartservice.model.CartItem;
+import com.pm.cartservice.model.CartStatus;
+import com.pm.cartservice.model.Money;
+import com.pm.cartservice.repository.CartItemRepository;
+import com.pm.cartservice.repository.CartRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes hot cart snapshots to {@code carts}/{@code cart_items}. A whole batch of users is loaded
+ * with two queries and written back with batched inserts, updates and deletes.
+ * <p>
+ * The users' ACTIVE carts are locked before their hot copies are read. A request that takes a cart
+ * over fences it and then flushes it through the same lock, so a periodic flush either completes
+ * before the takeover writes the cart or reads the hot copy after the fence went up and drops it.
+ */
+@Component
+@ConditionalOnProperty(value = "cart.store.mode", havingValue = "redis")
+@RequiredArgsConstructor
+@Slf4j
+public class CartSnapshotPersister {
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final CartEventRecorder cartEventRecorder;
+    private final HotCartStore hotCartStore;
+
+    /**
+     * Persists the current hot carts of the given users.
+     *
+     * @param includeFrozen false for the periodic flush, which leaves fenced carts to their owner
+     *                      and drops carts that are no longer ACTIVE in the database
+     * @return the identifiers of the carts that were written, by user
+     */
+    @Transactional
+    public Map<Integer, PersistedCart> persist(Collection<Integer> userIds, boolean includeFrozen) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        // Locking also covers users without a cart yet: a takeover creating it waits for this flush
+        Map<Integer, Cart> cartsByUserId = cartRepository.lockByUserIdInAndStatus(userIds, CartStatus.ACTIVE).stream()
+                .collect(Collectors.toMap(Cart::getUserId, Function.identity(), (first, second) -> first));
+        List<HotCartSnapshot> snapshots = hotCartStore.findAll(userIds);
+        if (!includeFrozen) {
+            snapshots = withoutTakenOver(snapshots, cartsByUserId);
+        }
+        if (snapshots.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Cart> newCarts = new ArrayList<>();
+        for (HotCartSnapshot snapshot : snapshots) {
+            if (!cartsByUserId.containsKey(snapshot.getUserId())) {
+                Cart cart = Cart.builder()
+                        .userId(snapshot.getUserId())
+                        .status(CartStatus.ACTIVE)
+                        .totalAmount(Money.ZERO)
+                        .itemCount(0)
+                        .build();
+                newCarts.add(cart);
+                cartsByUserId.put(snapshot.getUserId(), cart);
+            }
+        }
+        cartRepository.saveAll(newCarts);
+
+        List<Integer> cartIds = cartsByUserId.values().stream().map(Cart::getCartId).toList();
+        Map<Integer, Map<UUID, CartItem>> itemsByCartId = cartItemRepository.findByCartCartIdIn(cartIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getCart().getCartId(),
+                        Collectors.toMap(CartItem::getProductId, Function.identity(), (first, second) -> first)));
+
+        List<CartItem> itemsToSave = new ArrayList<>();
+        List<CartItem> itemsToDelete = new ArrayList<>();
+        Map<Integer, List<CartItem>> writtenItemsByUserId = new HashMap<>();
+
+        for (HotCartSnapshot snapshot : snapshots) {
+            Cart cart = cartsByUserId.get(snapshot.getUserId());
+            Map<UUID, CartItem> existingItems = new HashMap<>(itemsByCartId.getOrDefault(cart.getCartId(), Map.of()));
+            // Hot carts are persisted after the fact, so their events are the net change since the last flush
+            Map<UUID, CartEventRecorder.LineState> previousLines = CartEventRecorder.lineStates(existingItems.values());
+            List<CartItem> writtenItems = new ArrayList<>();
+
+            for (HotCartLine line : snapshot.getLines()) {
+                CartItem item = existingItems.remove(line.getProductId());
+                if (item == null) {
+                    item = CartItem.builder()
+                            .cart(cart)
+                            .productId(line.getProductId())
+                            .build();
+                }
+                item.setProductName(line.getProductName());
+                item.setProductSku(line.getProductSku());
+                item.setProductImageUrl(line.getProductImageUrl());
+                item.setUnitPrice(Money.ofMinor(line.getUnitPriceCents()));
+                item.setQuantity(line.getQuantity());
+                item.setTotalPrice(Money.ofMinor(line.getTotalCents()));
+                itemsToSave.add(item);
+                writtenItems.add(item);
+            }
+            itemsToDelete.addAll(existingItems.values());
+            cartEventRecorder.recordLineChanges(cart, previousLines, writtenItems);
+
+            cart.setTotalAmount(Money.ofMinor(snapshot.getTotalCents()));
+            cart.setItemCount(snapshot.getItemCount());
+            writtenItemsByUserId.put(snapshot.getUserId(), writtenItems);
+        }
+
+        cartItemRepository.saveAll(itemsToSave);
+        cartItemRepository.deleteAllInBatch(itemsToDelete);
+        cartRepository.saveAll(cartsByUserId.values());
+        log.info("Persisted {} hot carts ({} lines written, {} lines deleted)",
+                snapshots.size(), itemsToSave.size(), itemsToDelete.size());
+
+        Map<Integer, PersistedCart> persisted = new HashMap<>();
+        writtenItemsByUserId.forEach((userId, items) -> persisted.put(userId, new PersistedCart(
+                cartsByUserId.get(userId).getCartId(),
+                items.stream().collect(Collectors.toMap(CartItem::getProductId, CartItem::getCartItemId)))));
+        return persisted;
+    }
+
+    private List<HotCartSnapshot> withoutTakenOver(List<HotCartSnapshot> snapshots, Map<Integer, Cart> cartsByUserId) {
+        List<HotCartSnapshot> writable = new ArrayList<>();
+        List<Integer> frozen = new ArrayList<>();
+        for (HotCartSnapshot snapshot : snapshots) {
+            Cart cart = cartsByUserId.get(snapshot.getUserId());
+            if (snapshot.isFrozen()) {
+                // The owner flushes this cart itself; it stays dirty in case the fence is lifted
+                // without an eviction
+                frozen.add(snapshot.getUserId());
+            } else if (snapshot.getCartId() != null
+                    && (cart == null || !cart.getCartId().equals(snapshot.getCartId()))) {
+                // The cart was converted or expired after this copy was hydrated; writing it back
+                // would recreate an ACTIVE cart with its old lines
+                log.warn("Dropping hot cart of user {}: cart {} is no longer active",
+                        snapshot.getUserId(), snapshot.getCartId());
+                hotCartStore.evict(snapshot.getUserId());
+            } else {
+                writable.add(snapshot);
+            }
+        }
+        if (!frozen.isEmpty()) {
+            hotCartStore.markDirty(frozen);
+        }
+        return writable;
+    }
+}
@@ -0,0 +1,58 @@
+package com.pm.cartservice.store;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Periodically drains the dirty set of the hot store and persists the affected carts in batches.
+ * Carts are also flushed synchronously, under a fence, when a request moves them to the database;
+ * the periodic flush leaves fenced carts alone, checking the fence while it holds the carts' rows.
+ */
+@Component
+@ConditionalOnProperty(value = "cart.store.mode", havingValue = "redis")
+@RequiredArgsConstructor
+@Slf4j
+public class CartWriteBehindFlusher {
+
+    private final HotCartStore hotCartStore;
+    private final CartSnapshotPersister cartSnapshotPersister;
+
+    @Value("${cart.store.flush-batch-size:200}")
+    private int flushBatchSize;
+
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval-ms:2000}")
+    public void flushDirtyCarts() {
+        Set<Integer> userIds = hotCartStore.pollDirty(flushBatchSize);
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        try {
+            int flushed = flush(userIds, false);
+            log.debug("Flushed {} hot carts to the database", flushed);
+        } catch (Exception e) {
+            log.error("Error flushing hot carts, re-queueing {} users: {}", userIds.size(), e.getMessage(), e);
+            hotCartStore.markDirty(userIds);
+        }
+    }
+
+    public void flushUser(Integer userId) {
+        log.info("Flushing hot cart for user ID: {}", userId);
+        flush(List.of(userId), true);
+    }
+
+    private int flush(Collection<Integer> userIds, boolean includeFrozen) {
+        Map<Integer, PersistedCart> persisted = cartSnapshotPersister.persist(userIds, includeFrozen);
+        persisted.forEach(hotCartStore::assignIds);
+        return persisted.size();
+    }
+}
@@ -0,0 +1,38 @@
+package com.pm.cartservice.store;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class HotCartLine implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Integer cartItemId;
+
+    private UUID productId;
+
+    private String productName;
+
+    private String productSku;
+
+    private long unitPriceCents;
+
+    private int quantity;
+
+    private String productImageUrl;
+
+    @JsonIgnore
+    public long getTotalCents() {
+        return unitPriceCents * quantity;
+    }
+}
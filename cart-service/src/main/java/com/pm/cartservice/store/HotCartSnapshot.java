@@ -0,0 +1,39 @@
+package com.pm.cartservice.store;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class HotCartSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Integer userId;
+
+    private Integer cartId;
+
+    private long totalCents;
+
+    private int itemCount;
+
+    private List<HotCartLine> lines;
+
+    /**
+     * Epoch millis until which the cart is fenced by {@link HotCartStore#freeze}, or null.
+     */
+    private Long frozenUntil;
+
+    @JsonIgnore
+    public boolean isFrozen() {
+        return frozenUntil != null && frozenUntil > System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,88 @@
+package com.pm.cartservice.store;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Hot storage for ACTIVE carts. Mutations are applied atomically in the store and the
+ * affected users are marked dirty so the write-behind flusher can persist them later. Mutations of
+ * a fenced cart fail with {@link com.pm.cartservice.exception.CartBusyException}; mutations of a
+ * cart that is no longer in the store fail with
+ * {@link com.pm.cartservice.exception.HotCartMissingException} and must be retried after
+ * {@link #hydrate}.
+ */
+public interface HotCartStore {
+
+    Optional<HotCartSnapshot> find(Integer userId);
+
+    List<HotCartSnapshot> findAll(Collection<Integer> userIds);
+
+    boolean contains(Integer userId);
+
+    /**
+     * Seeds the store with the persisted cart of a user. Does nothing if the user already has a hot
+     * cart or is fenced.
+     */
+    void hydrate(HotCartSnapshot snapshot);
+
+    HotCartSnapshot addItem(Integer userId, HotCartLine line);
+
+    /**
+     * @return the updated cart, or empty if the product is not in the user's hot cart
+     */
+    Optional<HotCartSnapshot> updateQuantity(Integer userId, UUID productId, int quantity);
+
+    /**
+     * @return true if the line existed and was removed
+     */
+    boolean removeItem(Integer userId, UUID productId);
+
+    void clear(Integer userId);
+
+    void evict(Integer userId);
+
+    /**
+     * Fences the user's hot cart so that its mutations fail with
+     * {@link com.pm.cartservice.exception.CartBusyException} until {@link #unfreeze} or
+     * {@link #evict} is called, or the timeout passes. Users without a hot cart are fenced too, so
+     * their cart is not hydrated meanwhile.
+     *
+     * @return true if the user has a hot cart that must be flushed
+     * @throws com.pm.cartservice.exception.CartBusyException if the cart is already fenced
+     */
+    boolean freeze(Integer userId, Duration timeout);
+
+    void unfreeze(Integer userId);
+
+    Set<Integer> pollDirty(int max);
+
+    void markDirty(Collection<Integer> userIds);
+
+    void assignIds(Integer userId, PersistedCart persistedCart);
+
+    /**
+     * Creates an empty guest cart. Guest carts live only in the store, expire after their own TTL
+     * and are never marked dirty.
+     */
+    HotCartSnapshot createGuest(UUID guestToken);
+
+    Optional<HotCartSnapshot> findGuest(UUID guestToken);
+
+    HotCartSnapshot addGuestItem(UUID guestToken, HotCartLine line);
+
+    /**
+     * @return the updated guest cart, or empty if the product is not in it
+     */
+    Optional<HotCartSnapshot> updateGuestQuantity(UUID guestToken, UUID productId, int quantity);
+
+    /**
+     * @return true if the line existed and was removed
+     */
+    boolean removeGuestItem(UUID guestToken, UUID productId);
+
+    void evictGuest(UUID guestToken);
+}
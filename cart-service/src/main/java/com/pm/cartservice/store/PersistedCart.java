@@ -0,0 +1,10 @@
+package com.pm.cartservice.store;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Database identifiers assigned to a hot cart and its lines when it was flushed.
+ */
+public record PersistedCart(Integer cartId, Map<UUID, Integer> cartItemIds) {
+}
@@ -0,0 +1,339 @@
+package com.pm.cartservice.store;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.cartservice.exception.CartBusyException;
+import com.pm.cartservice.exception.HotCartMissingException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps each ACTIVE cart in a Redis hash ({@code cart:user:<userId>}) holding one JSON field per
+ * line plus the running totals. Every mutation is a Lua script so the line and the totals change
+ * together, and the user is added to the {@code cart:dirty} set for the write-behind flusher.
+ * Guest carts use the same layout under {@code cart:guest:<token>}, with their own TTL and
+ * without dirty tracking. A {@code frozenUntil} field fences a cart while it is moved to the
+ * database; the mutation scripts refuse to touch it until then. They also refuse to touch a hash
+ * without totals, which is what is left once a cart expired or was evicted, instead of growing an
+ * empty cart out of it that the flusher would persist over the user's lines.
+ */
+@Component
+@ConditionalOnProperty(value = "cart.store.mode", havingValue = "redis")
+@RequiredArgsConstructor
+@Slf4j
+public class RedisHotCartStore implements HotCartStore {
+
+    private static final String CART_KEY_PREFIX = "cart:user:";
+    private static final String GUEST_CART_KEY_PREFIX = "cart:guest:";
+    private static final String DIRTY_SET_KEY = "cart:dirty";
+    private static final String LINE_FIELD_PREFIX = "line:";
+    private static final String CART_ID_FIELD = "cartId";
+    private static final String TOTAL_CENTS_FIELD = "totalCents";
+    private static final String ITEM_COUNT_FIELD = "itemCount";
+    private static final String FROZEN_UNTIL_FIELD = "frozenUntil";
+    private static final long FENCED = -2L;
+    private static final long MISSING = -3L;
+
+    private static final RedisScript<Long> HYDRATE_SCRIPT = script("scripts/cart-hydrate.lua");
+    private static final RedisScript<Long> ADD_ITEM_SCRIPT = script("scripts/cart-add-item.lua");
+    private static final RedisScript<Long> SET_QUANTITY_SCRIPT = script("scripts/cart-set-quantity.lua");
+    private static final RedisScript<Long> REMOVE_ITEM_SCRIPT = script("scripts/cart-remove-item.lua");
+    private static final RedisScript<Long> CLEAR_SCRIPT = script("scripts/cart-clear.lua");
+    private static final RedisScript<Long> ASSIGN_IDS_SCRIPT = script("scripts/cart-assign-ids.lua");
+    private static final RedisScript<Long> FREEZE_SCRIPT = script("scripts/cart-freeze.lua");
+    private static final RedisScript<Long> UNFREEZE_SCRIPT = script("scripts/cart-unfreeze.lua");
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${cart.store.ttl:P7D}")
+    private Duration ttl;
+
+    @Value("${cart.guest.ttl:P3D}")
+    private Duration guestTtl;
+
+    @Override
+    public Optional<HotCartSnapshot> find(Integer userId) {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(cartKey(userId));
+        return toSnapshot(userId, entries);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<HotCartSnapshot> findAll(Collection<Integer> userIds) {
+        List<Integer> orderedUserIds = new ArrayList<>(userIds);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Integer userId : orderedUserIds) {
+                hashEntries(connection, cartKey(userId));
+            }
+            return null;
+        });
+
+        List<HotCartSnapshot> snapshots = new ArrayList<>(orderedUserIds.size());
+        for (int i = 0; i < orderedUserIds.size(); i++) {
+            toSnapshot(orderedUserIds.get(i), (Map<Object, Object>) results.get(i)).ifPresent(snapshots::add);
+        }
+        return snapshots;
+    }
+
+    @Override
+    public boolean contains(Integer userId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(cartKey(userId)));
+    }
+
+    @Override
+    public void hydrate(HotCartSnapshot snapshot) {
+        List<String> args = new ArrayList<>();
+        args.add(ttlSeconds());
+        if (snapshot.getCartId() != null) {
+            args.add(CART_ID_FIELD);
+            args.add(snapshot.getCartId().toString());
+        }
+        args.add(TOTAL_CENTS_FIELD);
+        args.add(Long.toString(snapshot.getTotalCents()));
+        args.add(ITEM_COUNT_FIELD);
+        args.add(Integer.toString(snapshot.getItemCount()));
+        for (HotCartLine line : snapshot.getLines()) {
+            args.add(lineField(line.getProductId()));
+            args.add(writeLine(line));
+        }
+
+        Long hydrated = redisTemplate.execute(HYDRATE_SCRIPT, List.of(cartKey(snapshot.getUserId())), args.toArray());
+        log.debug("Hydrated hot cart for user ID: {} (seeded: {})", snapshot.getUserId(), Long.valueOf(1L).equals(hydrated));
+    }
+
+    @Override
+    public HotCartSnapshot addItem(Integer userId, HotCartLine line) {
+        Long result = redisTemplate.execute(ADD_ITEM_SCRIPT, mutationKeys(userId),
+                lineField(line.getProductId()), writeLine(line), Integer.toString(line.getQuantity()),
+                userId.toString(), ttlSeconds());
+        rejectIfFenced(userId, result);
+        rejectIfMissing(userId, result);
+        return find(userId).orElseThrow(() -> new IllegalStateException("Hot cart disappeared for user " + userId));
+    }
+
+    @Override
+    public Optional<HotCartSnapshot> updateQuantity(Integer userId, UUID productId, int quantity) {
+        Long result = redisTemplate.execute(SET_QUANTITY_SCRIPT, mutationKeys(userId),
+                lineField(productId), Integer.toString(quantity), userId.toString(), ttlSeconds());
+        rejectIfFenced(userId, result);
+        rejectIfMissing(userId, result);
+        if (result == null || result < 0) {
+            return Optional.empty();
+        }
+        return find(userId);
+    }
+
+    @Override
+    public boolean removeItem(Integer userId, UUID productId) {
+        Long result = redisTemplate.execute(REMOVE_ITEM_SCRIPT, mutationKeys(userId),
+                lineField(productId), userId.toString(), ttlSeconds());
+        rejectIfFenced(userId, result);
+        rejectIfMissing(userId, result);
+        return result != null && result > 0;
+    }
+
+    @Override
+    public void clear(Integer userId) {
+        Long result = redisTemplate.execute(CLEAR_SCRIPT, mutationKeys(userId), userId.toString(), ttlSeconds());
+        rejectIfFenced(userId, result);
+        rejectIfMissing(userId, result);
+    }
+
+    @Override
+    public void evict(Integer userId) {
+        redisTemplate.delete(cartKey(userId));
+    }
+
+    @Override
+    public boolean freeze(Integer userId, Duration timeout) {
+        Long result = redisTemplate.execute(FREEZE_SCRIPT, List.of(cartKey(userId)), Long.toString(timeout.toMillis()));
+        rejectIfFenced(userId, result);
+        return Long.valueOf(1L).equals(result);
+    }
+
+    @Override
+    public void unfreeze(Integer userId) {
+        redisTemplate.execute(UNFREEZE_SCRIPT, List.of(cartKey(userId)));
+    }
+
+    @Override
+    public Set<Integer> pollDirty(int max) {
+        List<String> members = redisTemplate.opsForSet().pop(DIRTY_SET_KEY, max);
+        Set<Integer> userIds = new LinkedHashSet<>();
+        if (members != null) {
+            members.forEach(member -> userIds.add(Integer.valueOf(member)));
+        }
+        return userIds;
+    }
+
+    @Override
+    public void markDirty(Collection<Integer> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        redisTemplate.opsForSet().add(DIRTY_SET_KEY, userIds.stream().map(String::valueOf).toArray(String[]::new));
+    }
+
+    @Override
+    public void assignIds(Integer userId, PersistedCart persistedCart) {
+        List<String> args = new ArrayList<>();
+        args.add(persistedCart.cartId().toString());
+        persistedCart.cartItemIds().forEach((productId, cartItemId) -> {
+            args.add(lineField(productId));
+            args.add(cartItemId.toString());
+        });
+        redisTemplate.execute(ASSIGN_IDS_SCRIPT, List.of(cartKey(userId)), args.toArray());
+    }
+
+    @Override
+    public HotCartSnapshot createGuest(UUID guestToken) {
+        redisTemplate.execute(HYDRATE_SCRIPT, List.of(guestCartKey(guestToken)),
+                guestTtlSeconds(), TOTAL_CENTS_FIELD, "0", ITEM_COUNT_FIELD, "0");
+        return findGuest(guestToken).orElseThrow(() -> new IllegalStateException("Guest cart disappeared: " + guestToken));
+    }
+
+    @Override
+    public Optional<HotCartSnapshot> findGuest(UUID guestToken) {
+        return toSnapshot(null, redisTemplate.opsForHash().entries(guestCartKey(guestToken)));
+    }
+
+    @Override
+    public HotCartSnapshot addGuestItem(UUID guestToken, HotCartLine line) {
+        Long result = redisTemplate.execute(ADD_ITEM_SCRIPT, List.of(guestCartKey(guestToken)),
+                lineField(line.getProductId()), writeLine(line), Integer.toString(line.getQuantity()),
+                "", guestTtlSeconds());
+        if (result != null && result == MISSING) {
+            throw new IllegalStateException("Guest cart not found: " + guestToken);
+        }
+        return findGuest(guestToken).orElseThrow(() -> new IllegalStateException("Guest cart disappeared: " + guestToken));
+    }
+
+    @Override
+    public Optional<HotCartSnapshot> updateGuestQuantity(UUID guestToken, UUID productId, int quantity) {
+        Long result = redisTemplate.execute(SET_QUANTITY_SCRIPT, List.of(guestCartKey(guestToken)),
+                lineField(productId), Integer.toString(quantity), "", guestTtlSeconds());
+        if (result == null || result < 0) {
+            return Optional.empty();
+        }
+        return findGuest(guestToken);
+    }
+
+    @Override
+    public boolean removeGuestItem(UUID guestToken, UUID productId) {
+        Long result = redisTemplate.execute(REMOVE_ITEM_SCRIPT, List.of(guestCartKey(guestToken)),
+                lineField(productId), "", guestTtlSeconds());
+        return result != null && result > 0;
+    }
+
+    @Override
+    public void evictGuest(UUID guestToken) {
+        redisTemplate.delete(guestCartKey(guestToken));
+    }
+
+    private Optional<HotCartSnapshot> toSnapshot(Integer userId, Map<Object, Object> entries) {
+        // A hash without totals is only the fence of a user who has no hot cart
+        if (entries == null || !entries.containsKey(ITEM_COUNT_FIELD)) {
+            return Optional.empty();
+        }
+
+        List<HotCartLine> lines = new ArrayList<>();
+        entries.forEach((field, value) -> {
+            if (field.toString().startsWith(LINE_FIELD_PREFIX)) {
+                lines.add(readLine(value.toString()));
+            }
+        });
+        lines.sort(Comparator.comparing(HotCartLine::getProductName, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        Object cartId = entries.get(CART_ID_FIELD);
+        Object frozenUntil = entries.get(FROZEN_UNTIL_FIELD);
+        return Optional.of(HotCartSnapshot.builder()
+                .userId(userId)
+                .cartId(cartId != null ? Integer.valueOf(cartId.toString()) : null)
+                .totalCents(Long.parseLong(entries.getOrDefault(TOTAL_CENTS_FIELD, "0").toString()))
+                .itemCount(Integer.parseInt(entries.getOrDefault(ITEM_COUNT_FIELD, "0").toString()))
+                .lines(lines)
+                .frozenUntil(frozenUntil != null ? Long.valueOf(frozenUntil.toString()) : null)
+                .build());
+    }
+
+    private void rejectIfFenced(Integer userId, Long result) {
+        if (result != null && result == FENCED) {
+            throw new CartBusyException(userId);
+        }
+    }
+
+    private void rejectIfMissing(Integer userId, Long result) {
+        if (result != null && result == MISSING) {
+            throw new HotCartMissingException(userId);
+        }
+    }
+
+    private void hashEntries(RedisConnection connection, String key) {
+        connection.hashCommands().hGetAll(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String writeLine(HotCartLine line) {
+        try {
+            return objectMapper.writeValueAsString(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize cart line for product " + line.getProductId(), e);
+        }
+    }
+
+    private HotCartLine readLine(String json) {
+        try {
+            return objectMapper.readValue(json, HotCartLine.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read hot cart line: " + json, e);
+        }
+    }
+
+    private List<String> mutationKeys(Integer userId) {
+        return List.of(cartKey(userId), DIRTY_SET_KEY);
+    }
+
+    private String cartKey(Integer userId) {
+        return CART_KEY_PREFIX + userId;
+    }
+
+    private String guestCartKey(UUID guestToken) {
+        return GUEST_CART_KEY_PREFIX + guestToken;
+    }
+
+    private String lineField(UUID productId) {
+        return LINE_FIELD_PREFIX + productId;
+    }
+
+    private String ttlSeconds() {
+        return Long.toString(ttl.toSeconds());
+    }
+
+    private String guestTtlSeconds() {
+        return Long.toString(guestTtl.toSeconds());
+    }
+
+    private static RedisScript<Long> script(String path) {
+        return RedisScript.of(new ClassPathResource(path), Long.class);
+    }
+}
@@ -0,0 +1,3 @@
+-- Optimistic locking for carts: totals are now maintained by deltas, so concurrent
+-- writers must not overwrite each other's running totals.
+ALTER TABLE carts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
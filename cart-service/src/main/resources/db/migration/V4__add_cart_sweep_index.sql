@@ -0,0 +1,6 @@
+-- Carts written through JPA had no auditing listener, so updated_at could be NULL.
+-- Backfill it so the stale cart sweeper can order and age every cart.
+UPDATE carts SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP) WHERE updated_at IS NULL;
+
+-- Keyset scans of the sweeper: WHERE status = ? AND updated_at < ? ORDER BY updated_at, cart_id
+CREATE INDEX idx_status_updated_at ON carts (status, updated_at, cart_id);
@@ -0,0 +1,23 @@
+-- Concurrent adds could insert the same product twice into a cart. Fold duplicate lines into the
+-- oldest one, then let a unique key guarantee one line per product.
+UPDATE cart_items ci
+JOIN (SELECT cart_id, product_id, MIN(cart_item_id) AS keep_id, SUM(quantity) AS quantity
+      FROM cart_items
+      GROUP BY cart_id, product_id
+      HAVING COUNT(*) > 1) dup ON ci.cart_item_id = dup.keep_id
+SET ci.quantity = dup.quantity,
+    ci.total_price = ci.unit_price * dup.quantity;
+
+DELETE ci FROM cart_items ci
+JOIN cart_items keep ON keep.cart_id = ci.cart_id
+                    AND keep.product_id = ci.product_id
+                    AND keep.cart_item_id < ci.cart_item_id;
+
+UPDATE carts c SET
+    c.total_amount = (SELECT COALESCE(SUM(ci.total_price), 0) FROM cart_items ci WHERE ci.cart_id = c.cart_id),
+    c.item_count = (SELECT COALESCE(SUM(ci.quantity), 0) FROM cart_items ci WHERE ci.cart_id = c.cart_id)
+WHERE c.status = 'ACTIVE';
+
+ALTER TABLE cart_items
+    DROP INDEX idx_cart_product,
+    ADD CONSTRAINT uk_cart_items_cart_product UNIQUE (cart_id, product_id);
@@ -0,0 +1,12 @@
+-- Outbox of compact cart events, written in the same transaction as the cart change and drained
+-- by the relay into time-partitioned segment files for analytics.
+CREATE TABLE cart_events (
+    event_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(30) NOT NULL,
+    cart_id INT NOT NULL,
+    user_id INT NOT NULL,
+    product_id BINARY(16),
+    quantity_delta INT NOT NULL DEFAULT 0,
+    amount_delta DECIMAL(10,2) NOT NULL DEFAULT 0.00,
+    occurred_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
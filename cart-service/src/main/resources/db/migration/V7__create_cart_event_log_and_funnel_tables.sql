@@ -0,0 +1,32 @@
+-- Cart events drained from the cart_events outbox by the relay. Every instance relays into this
+-- table, so reporting sees all events no matter which instance recorded them. Event ids are kept
+-- from the outbox.
+CREATE TABLE cart_event_log (
+    event_id BIGINT PRIMARY KEY,
+    event_type VARCHAR(30) NOT NULL,
+    cart_id INT NOT NULL,
+    user_id INT NOT NULL,
+    product_id BINARY(16),
+    quantity_delta INT NOT NULL DEFAULT 0,
+    amount_delta DECIMAL(10,2) NOT NULL DEFAULT 0.00,
+    occurred_at TIMESTAMP(3) NOT NULL,
+    INDEX idx_cart_event_log_occurred_at (occurred_at)
+);
+
+-- Hourly funnel metrics. The relay bumps revision whenever events of the hour arrive, including
+-- late ones; the aggregator recomputes every closed hour whose revision is ahead of the one it
+-- last aggregated.
+CREATE TABLE cart_funnel_hourly (
+    hour_start TIMESTAMP(3) PRIMARY KEY,
+    revision INT NOT NULL DEFAULT 0,
+    aggregated_revision INT NOT NULL DEFAULT 0,
+    events BIGINT NOT NULL DEFAULT 0,
+    carts_with_additions BIGINT NOT NULL DEFAULT 0,
+    carts_converted BIGINT NOT NULL DEFAULT 0,
+    units_added BIGINT NOT NULL DEFAULT 0,
+    units_removed BIGINT NOT NULL DEFAULT 0,
+    amount_added DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+    amount_converted DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+    conversion_rate DOUBLE NOT NULL DEFAULT 0,
+    aggregated_at TIMESTAMP(3) NULL
+);
@@ -0,0 +1,33 @@
+-- Adds a quantity of a product to the hot cart, creating the line if needed.
+-- KEYS[1] = cart hash, KEYS[2] = dirty set (omitted for guest carts, which are never flushed)
+-- ARGV[1] = line field, ARGV[2] = line json for a new line, ARGV[3] = quantity,
+-- ARGV[4] = dirty member, ARGV[5] = ttl seconds
+-- Refused with -2 while the cart is fenced by cart-freeze.lua, and with -3 when the hash holds no
+-- cart (it expired or was evicted) so the caller hydrates it instead of starting an empty one
+local fence = redis.call('HGET', KEYS[1], 'frozenUntil')
+if fence then
+    local time = redis.call('TIME')
+    if tonumber(fence) > tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) then
+        return -2
+    end
+end
+if redis.call('HEXISTS', KEYS[1], 'itemCount') == 0 then
+    return -3
+end
+local quantity = tonumber(ARGV[3])
+local existing = redis.call('HGET', KEYS[1], ARGV[1])
+local line
+if existing then
+    line = cjson.decode(existing)
+    line['quantity'] = line['quantity'] + quantity
+else
+    line = cjson.decode(ARGV[2])
+end
+redis.call('HSET', KEYS[1], ARGV[1], cjson.encode(line))
+redis.call('HINCRBY', KEYS[1], 'totalCents', quantity * line['unitPriceCents'])
+redis.call('HINCRBY', KEYS[1], 'itemCount', quantity)
+redis.call('EXPIRE', KEYS[1], ARGV[5])
+if KEYS[2] then
+    redis.call('SADD', KEYS[2], ARGV[4])
+end
+return line['quantity']
@@ -0,0 +1,16 @@
+-- Records the database identifiers assigned by the write-behind flusher on the hot cart.
+-- KEYS[1] = cart hash
+-- ARGV[1] = cart id, ARGV[2..n] = line field/cart item id pairs
+if redis.call('HEXISTS', KEYS[1], 'itemCount') == 0 then
+    return 0
+end
+redis.call('HSET', KEYS[1], 'cartId', ARGV[1])
+for i = 2, #ARGV, 2 do
+    local existing = redis.call('HGET', KEYS[1], ARGV[i])
+    if existing then
+        local line = cjson.decode(existing)
+        line['cartItemId'] = tonumber(ARGV[i + 1])
+        redis.call('HSET', KEYS[1], ARGV[i], cjson.encode(line))
+    end
+end
+return 1
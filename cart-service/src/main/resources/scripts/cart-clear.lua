@@ -0,0 +1,25 @@
+-- Drops every line of the hot cart and resets the running totals.
+-- KEYS[1] = cart hash, KEYS[2] = dirty set
+-- ARGV[1] = dirty member, ARGV[2] = ttl seconds
+-- Refused with -2 while the cart is fenced by cart-freeze.lua, and with -3 when the hash holds no
+-- cart (it expired or was evicted) so the caller hydrates it instead of starting an empty one
+local fence = redis.call('HGET', KEYS[1], 'frozenUntil')
+if fence then
+    local time = redis.call('TIME')
+    if tonumber(fence) > tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) then
+        return -2
+    end
+end
+if redis.call('HEXISTS', KEYS[1], 'itemCount') == 0 then
+    return -3
+end
+local fields = redis.call('HKEYS', KEYS[1])
+for _, field in ipairs(fields) do
+    if string.sub(field, 1, 5) == 'line:' then
+        redis.call('HDEL', KEYS[1], field)
+    end
+end
+redis.call('HSET', KEYS[1], 'totalCents', 0, 'itemCount', 0)
+redis.call('EXPIRE', KEYS[1], ARGV[2])
+redis.call('SADD', KEYS[2], ARGV[1])
+return 1
@@ -0,0 +1,17 @@
+-- Fences a hot cart while its state is moved to the database: mutations are refused until the
+-- fence is lifted or runs out. A user without a hot cart gets a fence-only hash that expires with
+-- the fence, so no other instance can hydrate a stale cart in the meantime.
+-- KEYS[1] = cart hash, ARGV[1] = fence timeout millis
+-- Returns 1 if a hot cart was fenced, 0 if only the fence was created, -2 if already fenced
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local fence = redis.call('HGET', KEYS[1], 'frozenUntil')
+if fence and tonumber(fence) > now then
+    return -2
+end
+local existed = redis.call('HEXISTS', KEYS[1], 'itemCount')
+redis.call('HSET', KEYS[1], 'frozenUntil', now + tonumber(ARGV[1]))
+if existed == 0 then
+    redis.call('PEXPIRE', KEYS[1], ARGV[1])
+end
+return existed
@@ -0,0 +1,17 @@
+-- Seeds a hot cart from its persisted state unless another request already did. A user fenced by
+-- cart-freeze.lua is left alone; a fence that has run out is dropped along with its hash.
+-- KEYS[1] = cart hash, ARGV[1] = ttl seconds, ARGV[2..n] = field/value pairs
+if redis.call('HEXISTS', KEYS[1], 'itemCount') == 1 then
+    return 0
+end
+local fence = redis.call('HGET', KEYS[1], 'frozenUntil')
+if fence then
+    local time = redis.call('TIME')
+    if tonumber(fence) > tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) then
+        return 0
+    end
+    redis.call('DEL', KEYS[1])
+end
+redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+redis.call('EXPIRE', KEYS[1], ARGV[1])
+return 1
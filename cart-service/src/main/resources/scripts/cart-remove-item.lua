@@ -0,0 +1,28 @@
+-- Removes a line from the hot cart and subtracts it from the running totals.
+-- KEYS[1] = cart hash, KEYS[2] = dirty set (omitted for guest carts, which are never flushed)
+-- ARGV[1] = line field, ARGV[2] = dirty member, ARGV[3] = ttl seconds
+-- Refused with -2 while the cart is fenced by cart-freeze.lua, and with -3 when the hash holds no
+-- cart (it expired or was evicted) so the caller hydrates it instead of starting an empty one
+local fence = redis.call('HGET', KEYS[1], 'frozenUntil')
+if fence then
+    local time = redis.call('TIME')
+    if tonumber(fence) > tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) then
+        return -2
+    end
+end
+if redis.call('HEXISTS', KEYS[1], 'itemCount') == 0 then
+    return -3
+end
+local existing = redis.call('HGET', KEYS[1], ARGV[1])
+if not existing then
+    return -1
+end
+local line = cjson.decode(existing)
+redis.call('HDEL', KEYS[1], ARGV[1])
+redis.call('HINCRBY', KEYS[1], 'totalCents', -line['quantity'] * line['unitPriceCents'])
+redis.call('HINCRBY', KEYS[1], 'itemCount', -line['quantity'])
+redis.call('EXPIRE', KEYS[1], ARGV[3])
+if KEYS[2] then
+    redis.call('SADD', KEYS[2], ARGV[2])
+end
+return 1
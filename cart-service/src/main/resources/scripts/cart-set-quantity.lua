@@ -0,0 +1,31 @@
+-- Replaces the quantity of an existing hot cart line and adjusts the running totals.
+-- KEYS[1] = cart hash, KEYS[2] = dirty set (omitted for guest carts, which are never flushed)
+-- ARGV[1] = line field, ARGV[2] = new quantity, ARGV[3] = dirty member, ARGV[4] = ttl seconds
+-- Refused with -2 while the cart is fenced by cart-freeze.lua, and with -3 when the hash holds no
+-- cart (it expired or was evicted) so the caller hydrates it instead of starting an empty one
+local fence = redis.call('HGET', KEYS[1], 'frozenUntil')
+if fence then
+    local time = redis.call('TIME')
+    if tonumber(fence) > tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) then
+        return -2
+    end
+end
+if redis.call('HEXISTS', KEYS[1], 'itemCount') == 0 then
+    return -3
+end
+local existing = redis.call('HGET', KEYS[1], ARGV[1])
+if not existing then
+    return -1
+end
+local line = cjson.decode(existing)
+local quantity = tonumber(ARGV[2])
+local delta = quantity - line['quantity']
+line['quantity'] = quantity
+redis.call('HSET', KEYS[1], ARGV[1], cjson.encode(line))
+redis.call('HINCRBY', KEYS[1], 'totalCents', delta * line['unitPriceCents'])
+redis.call('HINCRBY', KEYS[1], 'itemCount', delta)
+redis.call('EXPIRE', KEYS[1], ARGV[4])
+if KEYS[2] then
+    redis.call('SADD', KEYS[2], ARGV[3])
+end
+return quantity
@@ -0,0 +1,8 @@
+-- Lifts the fence set by cart-freeze.lua; a hash that only held the fence is removed.
+-- KEYS[1] = cart hash
+if redis.call('HEXISTS', KEYS[1], 'itemCount') == 0 then
+    redis.call('DEL', KEYS[1])
+    return 0
+end
+redis.call('HDEL', KEYS[1], 'frozenUntil')
+return 1
@@ -0,0 +1,100 @@
+package com.pm.cartservice.benchmark;
+
+import com.pm.cartservice.model.CartItem;
+import com.pm.cartservice.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares computing a cart total from its lines with boxed {@code Double} amounts (the former
+ * representation), {@code BigDecimal} amounts (order-service) and {@link Money} minor units.
+ *
+ * <p>Run with:
+ * {@code mvn test-compile exec:java}, using the exec-maven-plugin configured in the pom
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartTotalBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int lineCount;
+
+    private List<DoubleLine> doubleLines;
+    private List<DecimalLine> decimalLines;
+    private List<CartItem> moneyLines;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        doubleLines = new ArrayList<>(lineCount);
+        decimalLines = new ArrayList<>(lineCount);
+        moneyLines = new ArrayList<>(lineCount);
+
+        for (int i = 0; i < lineCount; i++) {
+            long unitPriceCents = 100 + random.nextInt(1_000_000);
+            int quantity = 1 + random.nextInt(10);
+            BigDecimal unitPrice = BigDecimal.valueOf(unitPriceCents, 2);
+
+            doubleLines.add(new DoubleLine(unitPrice.doubleValue() * quantity, quantity));
+            decimalLines.add(new DecimalLine(unitPrice.multiply(BigDecimal.valueOf(quantity)), quantity));
+            moneyLines.add(CartItem.builder()
+                    .unitPrice(Money.ofMinor(unitPriceCents))
+                    .quantity(quantity)
+                    .totalPrice(Money.ofMinor(unitPriceCents).times(quantity))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public double boxedDouble() {
+        return doubleLines.stream()
+                .mapToDouble(DoubleLine::totalPrice)
+                .sum();
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        return decimalLines.stream()
+                .map(DecimalLine::totalPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public Money longMinorUnits() {
+        return Money.sum(moneyLines, item -> item.getTotalPrice().minorUnits());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CartTotalBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private record DoubleLine(Double totalPrice, Integer quantity) {
+    }
+
+    private record DecimalLine(BigDecimal totalPrice, Integer quantity) {
+    }
+}
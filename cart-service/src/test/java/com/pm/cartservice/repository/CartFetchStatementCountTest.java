@@ -0,0 +1,107 @@
+package com.pm.cartservice.repository;
+
+import com.pm.cartservice.analytics.CartEventRecorder;
+import com.pm.cartservice.dto.CartDto;
+import com.pm.cartservice.dto.response.collection.CollectionResponse;
+import com.pm.cartservice.mapper.CartItemMapperImpl;
+import com.pm.cartservice.mapper.CartMapperImpl;
+import com.pm.cartservice.mapper.MoneyMapperImpl;
+import com.pm.cartservice.model.Cart;
+import com.pm.cartservice.model.CartItem;
+import com.pm.cartservice.model.CartStatus;
+import com.pm.cartservice.model.Money;
+import com.pm.cartservice.service.CartRevalidator;
+import com.pm.cartservice.service.CartService;
+import com.pm.cartservice.service.impl.CartServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Listing carts maps every cart's items, so the number of SQL statements must not grow with the
+ * number of carts on the page.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.type.preferred_uuid_jdbc_type=BINARY"
+})
+@Import({CartServiceImpl.class, CartMapperImpl.class, CartItemMapperImpl.class, MoneyMapperImpl.class})
+class CartFetchStatementCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CartService cartService;
+
+    @MockBean
+    private CartRevalidator cartRevalidator;
+
+    @MockBean
+    private CartEventRecorder cartEventRecorder;
+
+    private int nextUserId = 1;
+
+    @Test
+    void listingCartsUsesConstantNumberOfStatements() {
+        persistCarts(10);
+        long statementsForTenCarts = countStatements(10);
+
+        persistCarts(90);
+        long statementsForHundredCarts = countStatements(100);
+
+        assertEquals(statementsForTenCarts, statementsForHundredCarts);
+        assertTrue(statementsForHundredCarts <= 3, "Expected id page, count and fetch queries only");
+    }
+
+    private long countStatements(int pageSize) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CollectionResponse<CartDto> carts = cartService.findAllCarts(0, pageSize);
+
+        assertEquals(pageSize, carts.getData().size());
+        carts.getData().forEach(cart -> assertEquals(2, cart.getCartItems().size()));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void persistCarts(int count) {
+        for (int i = 0; i < count; i++) {
+            Cart cart = entityManager.persist(Cart.builder()
+                    .userId(nextUserId++)
+                    .status(CartStatus.ACTIVE)
+                    .totalAmount(Money.ofMinor(3_000))
+                    .itemCount(2)
+                    .build());
+            for (int line = 0; line < 2; line++) {
+                entityManager.persist(CartItem.builder()
+                        .cart(cart)
+                        .productId(UUID.randomUUID())
+                        .productName("Product " + line)
+                        .productSku("SKU-" + line)
+                        .unitPrice(Money.ofMinor(1_500))
+                        .quantity(1)
+                        .totalPrice(Money.ofMinor(1_500))
+                        .build());
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.pm.orderservice.analytics;
+
+import com.pm.orderservice.service.OrderAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Periodically rebuilds the most recent days of rollups from the orders table. This corrects
+ * anything status events do not carry, such as item edits that change an order's total.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderRollupBackfillJob {
+
+    private final OrderAnalyticsService orderAnalyticsService;
+
+    @Value("${order.rollup.backfill-days:2}")
+    private int backfillDays;
+
+    @Scheduled(cron = "${order.rollup.backfill-cron:0 15 2 * * ?}") // Daily at 2:15 AM
+    public void rebuildRecentDays() {
+        try {
+            LocalDate tomorrow = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+            orderAnalyticsService.backfill(tomorrow.minusDays(backfillDays), tomorrow);
+        } catch (Exception e) {
+            log.error("Error rebuilding order rollups: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.pm.orderservice.archive;
+
+import com.pm.orderservice.model.OrderStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Which orders are moved to the archive tables. An order placed before {@link #horizon()} may have
+ * been archived if its status is one of {@link #ARCHIVABLE}; anything newer is always in the live
+ * tables, so reads only need to look at the archive when they reach back past the horizon.
+ */
+@Component
+public class OrderArchivePolicy {
+
+    // DELIVERED orders this old are past any refund window, so no further transition can reach them
+    public static final Set<OrderStatus> ARCHIVABLE =
+            EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED, OrderStatus.REFUNDED);
+
+    @Value("${order.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.archive.after-months:12}")
+    private int afterMonths;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start of the UTC day {@code after-months} ago; orders placed before it may be archived.
+     */
+    public Instant horizon() {
+        return LocalDate.now(ZoneOffset.UTC).minusMonths(afterMonths).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    /**
+     * Whether orders placed at or after {@code from} may include archived ones.
+     */
+    public boolean reachesArchive(Instant from) {
+        return from.isBefore(horizon());
+    }
+}
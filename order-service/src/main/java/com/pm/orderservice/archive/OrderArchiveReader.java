@@ -0,0 +1,288 @@
+package com.pm.orderservice.archive;
+
+import com.pm.orderservice.dto.OrderDto;
+import com.pm.orderservice.dto.OrderItemDto;
+import com.pm.orderservice.model.OrderStatus;
+import com.pm.orderservice.repository.OrderExportRow;
+import com.pm.orderservice.repository.OrderItemExportRow;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads archived orders straight into response DTOs and export rows. Archived rows are never mapped
+ * onto the live entities, whose persistence context would resolve them against instances it already
+ * holds, flush them to the live tables or load their items from {@code order_items}.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderArchiveReader {
+
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    // Columns behind OrderDto and OrderItemDto; the archive tables share them with the live ones
+    private static final List<Scalar> ORDER_COLUMNS = List.of(
+            new Scalar("order_id", Long.class), new Scalar("order_number", String.class),
+            new Scalar("user_id", Integer.class), new Scalar("user_email", String.class),
+            new Scalar("user_phone", String.class), new Scalar("shipping_address", String.class),
+            new Scalar("shipping_city", String.class), new Scalar("shipping_postal_code", String.class),
+            new Scalar("shipping_country", String.class), new Scalar("billing_address", String.class),
+            new Scalar("billing_city", String.class), new Scalar("billing_postal_code", String.class),
+            new Scalar("billing_country", String.class), new Scalar("status", String.class),
+            new Scalar("subtotal", BigDecimal.class), new Scalar("tax_amount", BigDecimal.class),
+            new Scalar("shipping_fee", BigDecimal.class), new Scalar("discount_amount", BigDecimal.class),
+            new Scalar("total_amount", BigDecimal.class), new Scalar("discount_code", String.class),
+            new Scalar("discount_type", String.class), new Scalar("payment_method", String.class),
+            new Scalar("payment_status", String.class), new Scalar("payment_id", String.class),
+            new Scalar("transaction_id", String.class), new Scalar("payment_reference", String.class),
+            new Scalar("payment_gateway", String.class), new Scalar("payment_gateway_transaction_id", String.class),
+            new Scalar("payment_initiated_at", Instant.class), new Scalar("payment_completed_at", Instant.class),
+            new Scalar("payment_failed_at", Instant.class), new Scalar("shipping_method", String.class),
+            new Scalar("tracking_number", String.class), new Scalar("estimated_delivery_date", Instant.class),
+            new Scalar("actual_delivery_date", Instant.class), new Scalar("order_date", Instant.class),
+            new Scalar("confirmed_date", Instant.class), new Scalar("shipped_date", Instant.class),
+            new Scalar("delivered_date", Instant.class), new Scalar("cancelled_date", Instant.class),
+            new Scalar("notes", String.class), new Scalar("admin_notes", String.class),
+            new Scalar("cancellation_reason", String.class), new Scalar("is_gift", Boolean.class),
+            new Scalar("gift_message", String.class), new Scalar("created_at", Instant.class),
+            new Scalar("updated_at", Instant.class));
+
+    private static final List<Scalar> ITEM_COLUMNS = List.of(
+            new Scalar("order_id", Long.class), new Scalar("order_item_id", Long.class),
+            new Scalar("product_id", UUID.class), new Scalar("product_name", String.class),
+            new Scalar("product_sku", String.class), new Scalar("product_description", String.class),
+            new Scalar("product_category", String.class), new Scalar("product_brand", String.class),
+            new Scalar("unit_price", BigDecimal.class), new Scalar("quantity", Integer.class),
+            new Scalar("total_price", BigDecimal.class), new Scalar("discount_amount", BigDecimal.class),
+            new Scalar("tax_amount", BigDecimal.class), new Scalar("product_image_url", String.class),
+            new Scalar("product_weight", BigDecimal.class), new Scalar("product_dimensions", String.class),
+            new Scalar("is_digital_product", Boolean.class), new Scalar("notes", String.class),
+            new Scalar("created_at", Instant.class), new Scalar("updated_at", Instant.class));
+
+    private static final String ARCHIVED_ORDERS_BY_ID = "SELECT " + select(ORDER_COLUMNS)
+            + " FROM orders_archive WHERE order_id IN (:orderIds)";
+
+    private static final String ARCHIVED_ORDER_BY_NUMBER = "SELECT " + select(ORDER_COLUMNS)
+            + " FROM orders_archive WHERE order_number = :orderNumber";
+
+    private static final String ARCHIVED_ITEMS_BY_ORDER_ID = "SELECT " + select(ITEM_COLUMNS)
+            + " FROM order_items_archive WHERE order_id IN (:orderIds) ORDER BY order_id, order_item_id";
+
+    // Same columns, range and order as the live export queries, so the export can merge both sources
+    private static final String ARCHIVED_EXPORT_ROWS = "SELECT order_id, order_number, order_date, user_id, "
+            + "user_email, status, payment_method, payment_status, shipping_method, tracking_number, "
+            + "shipping_country, discount_code, subtotal, tax_amount, shipping_fee, discount_amount, total_amount "
+            + "FROM orders_archive WHERE order_date >= :from AND order_date < :to ORDER BY order_date, order_id";
+
+    private static final String ARCHIVED_ITEM_EXPORT_ROWS = "SELECT i.order_id, i.order_item_id, i.product_id, "
+            + "i.product_sku, i.product_name, i.quantity, i.unit_price, i.discount_amount, i.tax_amount, i.total_price "
+            + "FROM order_items_archive i JOIN orders_archive o ON o.order_id = i.order_id "
+            + "WHERE o.order_date >= :from AND o.order_date < :to "
+            + "ORDER BY o.order_date, o.order_id, i.order_item_id";
+
+    private final EntityManager entityManager;
+
+    public Optional<OrderDto> findById(Long orderId) {
+        return findByOrderIdIn(List.of(orderId)).stream().findFirst();
+    }
+
+    public Optional<OrderDto> findByOrderNumber(String orderNumber) {
+        return withItems(rows(ARCHIVED_ORDER_BY_NUMBER, ORDER_COLUMNS, OrderArchiveReader::toOrderDto)
+                .setParameter("orderNumber", orderNumber)
+                .getResultList()).stream().findFirst();
+    }
+
+    public List<OrderDto> findByOrderIdIn(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        return withItems(rows(ARCHIVED_ORDERS_BY_ID, ORDER_COLUMNS, OrderArchiveReader::toOrderDto)
+                .setParameter("orderIds", orderIds)
+                .getResultList());
+    }
+
+    /**
+     * Archived orders placed in {@code [from, to)} in (orderDate, orderId) order, read through a
+     * forward-only cursor straight into rows, so no entity or proxy is created per order.
+     */
+    public Stream<OrderExportRow> streamExportRows(Instant from, Instant to) {
+        NativeQuery<?> query = entityManager.createNativeQuery(ARCHIVED_EXPORT_ROWS).unwrap(NativeQuery.class);
+        query.addScalar("order_id", Long.class)
+                .addScalar("order_number", String.class)
+                .addScalar("order_date", Instant.class)
+                .addScalar("user_id", Integer.class)
+                .addScalar("user_email", String.class)
+                .addScalar("status", String.class)
+                .addScalar("payment_method", String.class)
+                .addScalar("payment_status", String.class)
+                .addScalar("shipping_method", String.class)
+                .addScalar("tracking_number", String.class)
+                .addScalar("shipping_country", String.class)
+                .addScalar("discount_code", String.class)
+                .addScalar("subtotal", BigDecimal.class)
+                .addScalar("tax_amount", BigDecimal.class)
+                .addScalar("shipping_fee", BigDecimal.class)
+                .addScalar("discount_amount", BigDecimal.class)
+                .addScalar("total_amount", BigDecimal.class);
+        return stream(query.setTupleTransformer((row, aliases) -> new OrderExportRow((Long) row[0], (String) row[1],
+                (Instant) row[2], (Integer) row[3], (String) row[4], OrderStatus.valueOf((String) row[5]),
+                (String) row[6], (String) row[7], (String) row[8], (String) row[9], (String) row[10],
+                (String) row[11], (BigDecimal) row[12], (BigDecimal) row[13], (BigDecimal) row[14],
+                (BigDecimal) row[15], (BigDecimal) row[16])), from, to);
+    }
+
+    /**
+     * Items of the orders returned by {@link #streamExportRows}, in the same order.
+     */
+    public Stream<OrderItemExportRow> streamItemExportRows(Instant from, Instant to) {
+        NativeQuery<?> query = entityManager.createNativeQuery(ARCHIVED_ITEM_EXPORT_ROWS).unwrap(NativeQuery.class);
+        query.addScalar("order_id", Long.class)
+                .addScalar("order_item_id", Long.class)
+                .addScalar("product_id", UUID.class)
+                .addScalar("product_sku", String.class)
+                .addScalar("product_name", String.class)
+                .addScalar("quantity", Integer.class)
+                .addScalar("unit_price", BigDecimal.class)
+                .addScalar("discount_amount", BigDecimal.class)
+                .addScalar("tax_amount", BigDecimal.class)
+                .addScalar("total_price", BigDecimal.class);
+        return stream(query.setTupleTransformer((row, aliases) -> new OrderItemExportRow((Long) row[0],
+                (Long) row[1], (UUID) row[2], (String) row[3], (String) row[4], (Integer) row[5],
+                (BigDecimal) row[6], (BigDecimal) row[7], (BigDecimal) row[8], (BigDecimal) row[9])), from, to);
+    }
+
+    private static <T> Stream<T> stream(NativeQuery<T> query, Instant from, Instant to) {
+        return query.setParameter("from", from)
+                .setParameter("to", to)
+                .setFetchSize(EXPORT_FETCH_SIZE)
+                .getResultStream();
+    }
+
+    private List<OrderDto> withItems(List<OrderDto> orders) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        Map<Long, Set<OrderItemDto>> itemsByOrderId = rows(ARCHIVED_ITEMS_BY_ORDER_ID, ITEM_COLUMNS,
+                        row -> Map.entry((Long) row.get("order_id"), toOrderItemDto(row)))
+                .setParameter("orderIds", orders.stream().map(OrderDto::getOrderId).toList())
+                .getResultList().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getKey,
+                        Collectors.mapping(Map.Entry::getValue, Collectors.toCollection(LinkedHashSet::new))));
+        orders.forEach(order -> order.setOrderItems(itemsByOrderId.getOrDefault(order.getOrderId(),
+                new LinkedHashSet<>())));
+        return orders;
+    }
+
+    /**
+     * A native query over {@code columns} whose rows are handed to {@code mapper} by column name.
+     */
+    private <T> NativeQuery<T> rows(String sql, List<Scalar> columns, Function<Map<String, Object>, T> mapper) {
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        columns.forEach(column -> query.addScalar(column.name(), column.type()));
+        return query.setTupleTransformer((row, aliases) -> {
+            Map<String, Object> values = new HashMap<>();
+            for (int i = 0; i < aliases.length; i++) {
+                values.put(aliases[i], row[i]);
+            }
+            return mapper.apply(values);
+        });
+    }
+
+    private static OrderDto toOrderDto(Map<String, Object> row) {
+        return OrderDto.builder()
+                .orderId((Long) row.get("order_id"))
+                .orderNumber((String) row.get("order_number"))
+                .userId((Integer) row.get("user_id"))
+                .userEmail((String) row.get("user_email"))
+                .userPhone((String) row.get("user_phone"))
+                .shippingAddress((String) row.get("shipping_address"))
+                .shippingCity((String) row.get("shipping_city"))
+                .shippingPostalCode((String) row.get("shipping_postal_code"))
+                .shippingCountry((String) row.get("shipping_country"))
+                .billingAddress((String) row.get("billing_address"))
+                .billingCity((String) row.get("billing_city"))
+                .billingPostalCode((String) row.get("billing_postal_code"))
+                .billingCountry((String) row.get("billing_country"))
+                .status(OrderStatus.valueOf((String) row.get("status")))
+                .subtotal((BigDecimal) row.get("subtotal"))
+                .taxAmount((BigDecimal) row.get("tax_amount"))
+                .shippingFee((BigDecimal) row.get("shipping_fee"))
+                .discountAmount((BigDecimal) row.get("discount_amount"))
+                .totalAmount((BigDecimal) row.get("total_amount"))
+                .discountCode((String) row.get("discount_code"))
+                .discountType((String) row.get("discount_type"))
+                .paymentMethod((String) row.get("payment_method"))
+                .paymentStatus((String) row.get("payment_status"))
+                .paymentId((String) row.get("payment_id"))
+                .transactionId((String) row.get("transaction_id"))
+                .paymentReference((String) row.get("payment_reference"))
+                .paymentGateway((String) row.get("payment_gateway"))
+                .paymentGatewayTransactionId((String) row.get("payment_gateway_transaction_id"))
+                .paymentInitiatedAt((Instant) row.get("payment_initiated_at"))
+                .paymentCompletedAt((Instant) row.get("payment_completed_at"))
+                .paymentFailedAt((Instant) row.get("payment_failed_at"))
+                .shippingMethod((String) row.get("shipping_method"))
+                .trackingNumber((String) row.get("tracking_number"))
+                .estimatedDeliveryDate((Instant) row.get("estimated_delivery_date"))
+                .actualDeliveryDate((Instant) row.get("actual_delivery_date"))
+                .orderDate((Instant) row.get("order_date"))
+                .confirmedDate((Instant) row.get("confirmed_date"))
+                .shippedDate((Instant) row.get("shipped_date"))
+                .deliveredDate((Instant) row.get("delivered_date"))
+                .cancelledDate((Instant) row.get("cancelled_date"))
+                .notes((String) row.get("notes"))
+                .adminNotes((String) row.get("admin_notes"))
+                .cancellationReason((String) row.get("cancellation_reason"))
+                .isGift((Boolean) row.get("is_gift"))
+                .giftMessage((String) row.get("gift_message"))
+                .createdAt((Instant) row.get("created_at"))
+                .updatedAt((Instant) row.get("updated_at"))
+                .build();
+    }
+
+    private static OrderItemDto toOrderItemDto(Map<String, Object> row) {
+        return OrderItemDto.builder()
+                .orderItemId((Long) row.get("order_item_id"))
+                .productId((UUID) row.get("product_id"))
+                .productName((String) row.get("product_name"))
+                .productSku((String) row.get("product_sku"))
+                .productDescription((String) row.get("product_description"))
+                .productCategory((String) row.get("product_category"))
+                .productBrand((String) row.get("product_brand"))
+                .unitPrice((BigDecimal) row.get("unit_price"))
+                .quantity((Integer) row.get("quantity"))
+                .totalPrice((BigDecimal) row.get("total_price"))
+                .discountAmount((BigDecimal) row.get("discount_amount"))
+                .taxAmount((BigDecimal) row.get("tax_amount"))
+                .productImageUrl((String) row.get("product_image_url"))
+                .productWeight((BigDecimal) row.get("product_weight"))
+                .productDimensions((String) row.get("product_dimensions"))
+                .isDigitalProduct((Boolean) row.get("is_digital_product"))
+                .notes((String) row.get("notes"))
+                .createdAt((Instant) row.get("created_at"))
+                .updatedAt((Instant) row.get("updated_at"))
+                .build();
+    }
+
+    private static String select(List<Scalar> columns) {
+        return columns.stream().map(Scalar::name).collect(Collectors.joining(", "));
+    }
+
+    private record Scalar(String name, Class<?> type) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.pm.orderservice.archive;
+
+import com.pm.orderservice.repository.OrderArchiveRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Moves orders in a final state that were placed before the {@link OrderArchivePolicy#horizon()}
+ * to the archive tables. Each batch is copied and deleted in its own short transaction, and the job
+ * pauses between batches and stops after {@code max-batches-per-run}, so archiving a large backlog
+ * never holds long locks or saturates the database.
+ */
+@Slf4j
+@Component
+public class OrderArchiver {
+
+    private static final List<String> ARCHIVABLE_STATUSES =
+            OrderArchivePolicy.ARCHIVABLE.stream().map(Enum::name).toList();
+
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final OrderArchivePolicy orderArchivePolicy;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${order.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${order.archive.pause-between-batches:200ms}")
+    private Duration pauseBetweenBatches;
+
+    @Value("${order.archive.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    public OrderArchiver(OrderArchiveRepository orderArchiveRepository,
+                         OrderArchivePolicy orderArchivePolicy,
+                         PlatformTransactionManager transactionManager) {
+        this.orderArchiveRepository = orderArchiveRepository;
+        this.orderArchivePolicy = orderArchivePolicy;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${order.archive.cron:0 0 4 * * ?}") // Daily at 4:00 AM
+    public void archiveOrders() {
+        if (!orderArchivePolicy.isEnabled()) {
+            return;
+        }
+        Instant cutoff = orderArchivePolicy.horizon();
+        int archived = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+                archived += moved;
+                if (moved < batchSize) {
+                    break;
+                }
+                Thread.sleep(pauseBetweenBatches.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Error archiving orders: {}", e.getMessage(), e);
+        }
+        log.info("Archived {} orders placed before {}", archived, cutoff);
+    }
+
+    private int archiveBatch(Instant cutoff) {
+        List<Long> orderIds = orderArchiveRepository.lockArchivableOrderIds(ARCHIVABLE_STATUSES, cutoff, batchSize);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        orderArchiveRepository.copyOrders(orderIds);
+        orderArchiveRepository.copyItems(orderIds);
+        orderArchiveRepository.deleteItems(orderIds);
+        orderArchiveRepository.deleteOrders(orderIds);
+        orderArchiveRepository.deleteRollupStates(orderIds);
+        return orderIds.size();
+    }
+}
@@ -0,0 +1,29 @@
+package com.pm.orderservice.client;
+
+import com.pm.orderservice.dto.cart.CartDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class CartServiceClient {
+
+    private final ServiceEndpoint cartService;
+
+    public CartServiceClient(ServiceEndpointFactory serviceEndpointFactory) {
+        this.cartService = serviceEndpointFactory.endpoint("cart");
+    }
+
+    public CartDto getCartByUserId(Integer userId) {
+        try {
+            log.info("Fetching cart for user ID: {}", userId);
+            return cartService.call("/api/carts/user/{userId}", restTemplate ->
+                    restTemplate.getForObject("/api/carts/user/{userId}", CartDto.class, userId));
+        } catch (ServiceUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to fetch cart for user ID: {}", userId, e);
+            throw new RuntimeException("Failed to fetch cart: " + e.getMessage());
+        }
+    }
+}
@@ -2,29 +2,44 @@ package com.pm.orderservice.client;
 
 import com.pm.orderservice.dto.payment.CreatePaymentRequest;
 import com.pm.orderservice.dto.payment.PaymentDto;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class PaymentServiceClient {
 
-    private final RestTemplate restTemplate;
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 
-    @Value("${services.payment.url:http://payment-service:8800/payment-service}")
-    private String paymentServiceUrl;
+    private final ServiceEndpoint paymentService;
+
+    public PaymentServiceClient(ServiceEndpointFactory serviceEndpointFactory) {
+        this.paymentService = serviceEndpointFactory.endpoint("payment");
+    }
 
     public PaymentDto createPayment(CreatePaymentRequest request) {
+        return createPayment(request, null);
+    }
+
+    /**
+     * Creates a payment; repeating the call with the same idempotency key returns the original payment.
+     */
+    public PaymentDto createPayment(CreatePaymentRequest request, String idempotencyKey) {
         try {
             log.info("Creating payment for order ID: {}", request.getOrderId());
-            String url = paymentServiceUrl + "/api/payments";
-            PaymentDto response = restTemplate.postForObject(url, request, PaymentDto.class);
+            HttpHeaders headers = new HttpHeaders();
+            if (idempotencyKey != null) {
+                headers.set(IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+            }
+            PaymentDto response = paymentService.call("/api/payments", restTemplate ->
+                    restTemplate.postForObject("/api/payments", new HttpEntity<>(request, headers), PaymentDto.class));
             log.info("Payment created successfully with ID: {}", response.getPaymentId());
             return response;
+        } catch (ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to create payment for order ID: {}", request.getOrderId(), e);
             throw new RuntimeException("Failed to create payment: " + e.getMessage());
@@ -34,10 +49,12 @@ public class PaymentServiceClient {
     public PaymentDto getPaymentById(Long paymentId) {
         try {
             log.info("Fetching payment with ID: {}", paymentId);
-            String url = paymentServiceUrl + "/api/payments/" + paymentId;
-            PaymentDto response = restTemplate.getForObject(url, PaymentDto.class);
+            PaymentDto response = paymentService.call("/api/payments/{paymentId}", restTemplate ->
+                    restTemplate.getForObject("/api/payments/{paymentId}", PaymentDto.class, paymentId));
             log.info("Payment fetched successfully: {}", paymentId);
             return response;
+        } catch (ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to fetch payment with ID: {}", paymentId, e);
             throw new RuntimeException("Failed to fetch payment: " + e.getMessage());
@@ -47,10 +64,13 @@ public class PaymentServiceClient {
     public PaymentDto getPaymentByReference(String paymentReference) {
         try {
             log.info("Fetching payment with reference: {}", paymentReference);
-            String url = paymentServiceUrl + "/api/payments/reference/" + paymentReference;
-            PaymentDto response = restTemplate.getForObject(url, PaymentDto.class);
+            PaymentDto response = paymentService.call("/api/payments/reference/{paymentReference}", restTemplate ->
+                    restTemplate.getForObject("/api/payments/reference/{paymentReference}", PaymentDto.class,
+                            paymentReference));
             log.info("Payment fetched successfully: {}", paymentReference);
             return response;
+        } catch (ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to fetch payment with reference: {}", paymentReference, e);
             throw new RuntimeException("Failed to fetch payment: " + e.getMessage());
@@ -60,10 +80,14 @@ public class PaymentServiceClient {
     public PaymentDto confirmPayment(Long paymentId, String gatewayTransactionId) {
         try {
             log.info("Confirming payment ID: {} with gateway transaction ID: {}", paymentId, gatewayTransactionId);
-            String url = paymentServiceUrl + "/api/payments/" + paymentId + "/confirm?gatewayTransactionId=" + gatewayTransactionId;
-            PaymentDto response = restTemplate.exchange(url, org.springframework.http.HttpMethod.PUT, null, PaymentDto.class).getBody();
+            String route = "/api/payments/{paymentId}/confirm";
+            PaymentDto response = paymentService.call(route, restTemplate ->
+                    restTemplate.exchange(route + "?gatewayTransactionId={gatewayTransactionId}", HttpMethod.PUT,
+                            null, PaymentDto.class, paymentId, gatewayTransactionId).getBody());
             log.info("Payment confirmed successfully: {}", paymentId);
             return response;
+        } catch (ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to confirm payment ID: {}", paymentId, e);
             throw new RuntimeException("Failed to confirm payment: " + e.getMessage());
@@ -73,13 +97,15 @@ public class PaymentServiceClient {
     public PaymentDto failPayment(Long paymentId, String reason, String errorCode) {
         try {
             log.info("Failing payment ID: {} with reason: {}", paymentId, reason);
-            String url = paymentServiceUrl + "/api/payments/" + paymentId + "/fail?reason=" + reason;
-            if (errorCode != null) {
-                url += "&errorCode=" + errorCode;
-            }
-            PaymentDto response = restTemplate.exchange(url, org.springframework.http.HttpMethod.PUT, null, PaymentDto.class).getBody();
+            String route = "/api/payments/{paymentId}/fail";
+            String uri = route + "?reason={reason}" + (errorCode != null ? "&errorCode={errorCode}" : "");
+            PaymentDto response = paymentService.call(route, restTemplate ->
+                    restTemplate.exchange(uri, HttpMethod.PUT, null, PaymentDto.class, paymentId, reason, errorCode)
+                            .getBody());
             log.info("Payment failed successfully: {}", paymentId);
             return response;
+        } catch (ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to fail payment ID: {}", paymentId, e);
             throw new RuntimeException("Failed to fail payment: " + e.getMessage());
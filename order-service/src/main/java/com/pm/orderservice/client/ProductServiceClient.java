@@ -0,0 +1,80 @@
+package com.pm.orderservice.client;
+
+import com.pm.orderservice.dto.product.ProductAvailabilityDto;
+import com.pm.orderservice.dto.product.StockReservationLine;
+import com.pm.orderservice.dto.product.StockReservationRequest;
+import com.pm.orderservice.exception.CheckoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@Slf4j
+public class ProductServiceClient {
+
+    private static final ParameterizedTypeReference<List<ProductAvailabilityDto>> AVAILABILITY_LIST =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final ServiceEndpoint productService;
+
+    public ProductServiceClient(ServiceEndpointFactory serviceEndpointFactory) {
+        this.productService = serviceEndpointFactory.endpoint("product");
+    }
+
+    public List<ProductAvailabilityDto> getAvailability(Collection<UUID> productIds) {
+        try {
+            log.info("Fetching availability of {} products", productIds.size());
+            List<ProductAvailabilityDto> response = productService.call("/api/products/availability", restTemplate ->
+                    restTemplate.exchange("/api/products/availability", HttpMethod.POST,
+                            new HttpEntity<>(List.copyOf(productIds)), AVAILABILITY_LIST).getBody());
+            return response != null ? response : List.of();
+        } catch (ServiceUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to fetch availability of {} products", productIds.size(), e);
+            throw new RuntimeException("Failed to fetch product availability: " + e.getMessage());
+        }
+    }
+
+    public void reserveStock(String reference, List<StockReservationLine> lines) {
+        try {
+            log.info("Reserving stock for {} lines under {}", lines.size(), reference);
+            StockReservationRequest request = StockReservationRequest.builder()
+                    .reference(reference)
+                    .lines(lines)
+                    .build();
+            productService.call("/api/products/reservations", restTemplate ->
+                    restTemplate.postForObject("/api/products/reservations", request, Void.class));
+        } catch (HttpClientErrorException.Conflict e) {
+            throw new CheckoutException("Insufficient stock for the requested items");
+        } catch (ServiceUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to reserve stock under {}", reference, e);
+            throw new RuntimeException("Failed to reserve stock: " + e.getMessage());
+        }
+    }
+
+    public void releaseStock(String reference) {
+        try {
+            log.info("Releasing stock reservation {}", reference);
+            productService.call("/api/products/reservations/{reference}", restTemplate -> {
+                restTemplate.delete("/api/products/reservations/{reference}", reference);
+                return null;
+            });
+        } catch (ServiceUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to release stock reservation {}", reference, e);
+            throw new RuntimeException("Failed to release stock reservation: " + e.getMessage());
+        }
+    }
+}
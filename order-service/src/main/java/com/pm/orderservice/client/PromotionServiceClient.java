@@ -0,0 +1,32 @@
+package com.pm.orderservice.client;
+
+import com.pm.orderservice.dto.promotion.PromotionValidationDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+@Component
+@Slf4j
+public class PromotionServiceClient {
+
+    private final ServiceEndpoint promotionService;
+
+    public PromotionServiceClient(ServiceEndpointFactory serviceEndpointFactory) {
+        this.promotionService = serviceEndpointFactory.endpoint("promotion");
+    }
+
+    public PromotionValidationDto validatePromotion(String code, Integer userId, BigDecimal orderAmount) {
+        try {
+            log.info("Validating promotion code: {} for user ID: {} with amount: {}", code, userId, orderAmount);
+            return promotionService.call("/api/promotions/validate", restTemplate ->
+                    restTemplate.postForObject("/api/promotions/validate?code={code}&userId={userId}&orderAmount={orderAmount}",
+                            null, PromotionValidationDto.class, code, userId, orderAmount));
+        } catch (ServiceUnavailableException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to validate promotion code: {}", code, e);
+            throw new RuntimeException("Failed to validate promotion: " + e.getMessage());
+        }
+    }
+}
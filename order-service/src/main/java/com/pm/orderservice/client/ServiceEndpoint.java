@@ -0,0 +1,66 @@
+package com.pm.orderservice.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.function.Function;
+
+/**
+ * One downstream service as seen from order-service: a {@link RestTemplate} over that service's own
+ * connection pool, guarded by a bulkhead and a circuit breaker. A call that finds the bulkhead full
+ * or the breaker open is rejected immediately instead of parking a request thread on a slow peer.
+ */
+public class ServiceEndpoint {
+
+    static final String CALLS_METRIC = "order.client.calls";
+
+    private final String target;
+    private final RestTemplate restTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final MeterRegistry meterRegistry;
+
+    ServiceEndpoint(String target, RestTemplate restTemplate, CircuitBreaker circuitBreaker,
+                    Bulkhead bulkhead, MeterRegistry meterRegistry) {
+        this.target = target;
+        this.restTemplate = restTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs one call against this service. {@code route} is the URI template relative to the service
+     * root (e.g. {@code /api/payments/{paymentId}}) and is used as the latency metric tag.
+     */
+    public <T> T call(String route, Function<RestTemplate, T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return Bulkhead.decorateSupplier(bulkhead,
+                    CircuitBreaker.decorateSupplier(circuitBreaker, () -> call.apply(restTemplate))).get();
+        } catch (BulkheadFullException | CallNotPermittedException e) {
+            outcome = "rejected";
+            throw new ServiceUnavailableException(target + " is unavailable: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(CALLS_METRIC)
+                    .tag("target", target)
+                    .tag("route", route)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    public String getTarget() {
+        return target;
+    }
+}
@@ -0,0 +1,147 @@
+package com.pm.orderservice.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds one {@link ServiceEndpoint} per downstream service from {@code services.<target>.*}.
+ * Each target gets its own keep-alive connection pool, so a slow service can only exhaust its own
+ * connections, and its own bulkhead and circuit breaker.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ServiceEndpointFactory implements DisposableBean {
+
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, ServiceEndpoint> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, CloseableHttpClient> httpClients = new ConcurrentHashMap<>();
+
+    public ServiceEndpoint endpoint(String target) {
+        return endpoints.computeIfAbsent(target, this::createEndpoint);
+    }
+
+    @Override
+    public void destroy() {
+        httpClients.forEach((target, httpClient) -> {
+            try {
+                httpClient.close();
+            } catch (IOException e) {
+                log.warn("Failed to close HTTP client for {}", target, e);
+            }
+        });
+    }
+
+    private ServiceEndpoint createEndpoint(String target) {
+        String url = environment.getRequiredProperty(property(target, "url"));
+        Duration connectTimeout = setting(target, "connect-timeout", Duration.class, Duration.ofSeconds(1));
+        Duration readTimeout = setting(target, "read-timeout", Duration.class, Duration.ofSeconds(5));
+        Duration acquireTimeout = setting(target, "connection-acquire-timeout", Duration.class, Duration.ofMillis(500));
+        int maxConnections = setting(target, "max-connections", Integer.class, 50);
+        int maxConcurrentCalls = setting(target, "max-concurrent-calls", Integer.class, maxConnections);
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(acquireTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+        httpClients.put(target, httpClient);
+
+        RestTemplate restTemplate = restTemplateBuilder
+                .rootUri(url)
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+
+        // 4xx answers mean the peer is healthy, so they never count towards opening the breaker
+        CircuitBreaker circuitBreaker = CircuitBreaker.of(target, CircuitBreakerConfig.custom()
+                .slidingWindowSize(setting(target, "circuit-breaker.sliding-window-size", Integer.class, 50))
+                .minimumNumberOfCalls(setting(target, "circuit-breaker.minimum-calls", Integer.class, 20))
+                .failureRateThreshold(setting(target, "circuit-breaker.failure-rate-threshold", Float.class, 50f))
+                .slowCallDurationThreshold(readTimeout)
+                .slowCallRateThreshold(setting(target, "circuit-breaker.slow-call-rate-threshold", Float.class, 80f))
+                .waitDurationInOpenState(setting(target, "circuit-breaker.wait-in-open-state", Duration.class,
+                        Duration.ofSeconds(30)))
+                .permittedNumberOfCallsInHalfOpenState(5)
+                .ignoreExceptions(HttpClientErrorException.class)
+                .build());
+        Bulkhead bulkhead = Bulkhead.of(target, BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(setting(target, "bulkhead-max-wait", Duration.class, Duration.ZERO))
+                .build());
+
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Circuit breaker for {} moved {}", target, event.getStateTransition()));
+        registerGauges(target, connectionManager, circuitBreaker, bulkhead);
+
+        log.info("Configured {} client for {} (pool {}, concurrent calls {}, connect {}, read {})",
+                target, url, maxConnections, maxConcurrentCalls, connectTimeout, readTimeout);
+        return new ServiceEndpoint(target, restTemplate, circuitBreaker, bulkhead, meterRegistry);
+    }
+
+    private void registerGauges(String target, PoolingHttpClientConnectionManager connectionManager,
+                                CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        Gauge.builder("order.client.pool.leased", connectionManager, pool -> pool.getTotalStats().getLeased())
+                .tag("target", target)
+                .register(meterRegistry);
+        Gauge.builder("order.client.pool.pending", connectionManager, pool -> pool.getTotalStats().getPending())
+                .tag("target", target)
+                .register(meterRegistry);
+        Gauge.builder("order.client.bulkhead.available", bulkhead,
+                        b -> b.getMetrics().getAvailableConcurrentCalls())
+                .tag("target", target)
+                .register(meterRegistry);
+        Gauge.builder("order.client.breaker.state", circuitBreaker, cb -> cb.getState().getOrder())
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private <T> T setting(String target, String key, Class<T> type, T defaultValue) {
+        return environment.getProperty(property(target, key), type, defaultValue);
+    }
+
+    private String property(String target, String key) {
+        return "services." + target + "." + key;
+    }
+}
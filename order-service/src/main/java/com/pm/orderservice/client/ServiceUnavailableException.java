@@ -0,0 +1,13 @@
+package com.pm.orderservice.client;
+
+/**
+ * Thrown when a call to another service is refused locally because its bulkhead is full or its
+ * circuit breaker is open. The clients pass it through unwrapped so the API can answer 503 rather
+ * than 500.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,44 @@
+package com.pm.orderservice.controller;
+
+import com.pm.orderservice.dto.analytics.OrderAnalyticsDto;
+import com.pm.orderservice.service.OrderAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/orders/analytics")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Order Analytics", description = "Order totals served from pre-aggregated rollups")
+public class OrderAnalyticsController {
+    private final OrderAnalyticsService orderAnalyticsService;
+
+    @GetMapping("/totals")
+    @Operation(summary = "Order count and revenue by status, payment and shipping method for a date range")
+    public ResponseEntity<OrderAnalyticsDto> getOrderTotals(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        log.info("Fetching order totals between {} and {}", from, to);
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        return ResponseEntity.ok(orderAnalyticsService.getOrderTotals(from, to));
+    }
+
+    @PostMapping("/rollups/backfill")
+    @Operation(summary = "Rebuild the rollups of the UTC days [fromDay, toDay) from the live and archived orders")
+    public ResponseEntity<Integer> backfill(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDay,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDay) {
+        log.info("Backfilling order rollups from {} to {}", fromDay, toDay);
+        return ResponseEntity.ok(orderAnalyticsService.backfill(fromDay, toDay));
+    }
+}
@@ -61,12 +61,13 @@ public class OrderController {
     }
 
     @GetMapping("/user/{userId}")
-    @Operation(summary = "Get all orders for a user")
+    @Operation(summary = "Get all orders for a user; archived orders are included on request")
     public ResponseEntity<CollectionResponse<OrderDto>> getOrdersByUserId(
             @PathVariable @NotNull Integer userId,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
             @PageableDefault(size = 20, sort = "orderDate", direction = Sort.Direction.DESC) Pageable pageable) {
         log.info("Fetching orders for user ID: {} with pagination: {}", userId, pageable);
-        return ResponseEntity.ok(orderService.getOrdersByUserId(userId, pageable));
+        return ResponseEntity.ok(orderService.getOrdersByUserId(userId, includeArchived, pageable));
     }
 
     @GetMapping("/user/{userId}/summaries")
@@ -160,10 +161,11 @@ public class OrderController {
     }
 
     @GetMapping("/count/user/{userId}")
-    @Operation(summary = "Count orders by user")
-    public ResponseEntity<Long> countOrdersByUserId(@PathVariable @NotNull Integer userId) {
+    @Operation(summary = "Count orders by user; archived orders are included on request")
+    public ResponseEntity<Long> countOrdersByUserId(@PathVariable @NotNull Integer userId,
+                                                    @RequestParam(defaultValue = "false") boolean includeArchived) {
         log.info("Counting orders for user ID: {}", userId);
-        return ResponseEntity.ok(orderService.countOrdersByUserId(userId));
+        return ResponseEntity.ok(orderService.countOrdersByUserId(userId, includeArchived));
     }
 
     // ==================== Order Validation ====================
@@ -0,0 +1,58 @@
+package com.pm.orderservice.controller;
+
+import com.pm.orderservice.export.ExportFormat;
+import com.pm.orderservice.service.OrderExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/orders/export")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Order Export", description = "Streaming order exports for accounting")
+public class OrderExportController {
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final OrderExportService orderExportService;
+
+    @GetMapping
+    @Operation(summary = "Stream the orders placed in [from, to) with their items as NDJSON or CSV")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        log.info("Exporting orders between {} and {} as {}{}", from, to, format, gzip ? " (gzip)" : "");
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+
+        String filename = "orders-" + from + "-" + to + "." + format.extension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                orderExportService.exportOrders(from, to, format, compressed);
+                compressed.finish();
+            } else {
+                orderExportService.exportOrders(from, to, format, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename.replace(':', '-')).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,36 @@
+package com.pm.orderservice.controller;
+
+import com.pm.orderservice.dto.fulfilment.BulkDeliverRequest;
+import com.pm.orderservice.dto.fulfilment.BulkShipRequest;
+import com.pm.orderservice.dto.fulfilment.BulkStatusResponse;
+import com.pm.orderservice.service.OrderFulfilmentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/orders/bulk")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Order Fulfilment", description = "Bulk status changes for warehouse batches")
+public class OrderFulfilmentController {
+    private final OrderFulfilmentService orderFulfilmentService;
+
+    @PostMapping("/ship")
+    @Operation(summary = "Mark many orders as shipped, each with its tracking number")
+    public ResponseEntity<BulkStatusResponse> shipOrders(@Valid @RequestBody BulkShipRequest request) {
+        log.info("Bulk shipping {} orders", request.getShipments().size());
+        return ResponseEntity.ok(orderFulfilmentService.shipOrders(request));
+    }
+
+    @PostMapping("/deliver")
+    @Operation(summary = "Mark many orders as delivered")
+    public ResponseEntity<BulkStatusResponse> deliverOrders(@Valid @RequestBody BulkDeliverRequest request) {
+        log.info("Bulk delivering {} orders", request.getOrderIds().size());
+        return ResponseEntity.ok(orderFulfilmentService.deliverOrders(request));
+    }
+}
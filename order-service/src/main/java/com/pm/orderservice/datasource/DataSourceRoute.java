@@ -0,0 +1,6 @@
+package com.pm.orderservice.datasource;
+
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,97 @@
+package com.pm.orderservice.datasource;
+
+import com.pm.orderservice.service.OrderChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which orders and users were written in the last {@code read-your-writes-window}. A
+ * read-only transaction that reads one of them is pinned to the primary, so a user who has just
+ * placed or changed an order never reads a replica that has not caught up with it yet.
+ * Writes are tracked per instance.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final String PIN = ReadYourWrites.class.getName() + ".PIN";
+
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public ReadYourWrites(@Value("${order.datasource.read-your-writes-window:10s}") Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    static boolean isPinnedToPrimary() {
+        return TransactionSynchronizationManager.hasResource(PIN);
+    }
+
+    /**
+     * Starts the window for the order and its user once the change has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        long until = System.nanoTime() + windowNanos;
+        recentWrites.put(orderKey(event.orderId()), until);
+        if (event.orderNumber() != null) {
+            recentWrites.put(orderNumberKey(event.orderNumber()), until);
+        }
+        if (event.userId() != null) {
+            recentWrites.put(userKey(event.userId()), until);
+        }
+    }
+
+    public void readingOrder(Long orderId) {
+        pinIfRecent(orderKey(orderId));
+    }
+
+    public void readingOrderNumber(String orderNumber) {
+        pinIfRecent(orderNumberKey(orderNumber));
+    }
+
+    public void readingUser(Integer userId) {
+        pinIfRecent(userKey(userId));
+    }
+
+    @Scheduled(fixedDelayString = "${order.datasource.read-your-writes-purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        recentWrites.values().removeIf(until -> until - now < 0);
+    }
+
+    // Must run before the transaction's first statement, which is when the connection is routed
+    private void pinIfRecent(String key) {
+        Long until = recentWrites.get(key);
+        if (until == null || until - System.nanoTime() < 0
+                || !TransactionSynchronizationManager.isSynchronizationActive() || isPinnedToPrimary()) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(PIN, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PIN);
+            }
+        });
+    }
+
+    private static String orderKey(Long orderId) {
+        return "order:" + orderId;
+    }
+
+    private static String orderNumberKey(String orderNumber) {
+        return "number:" + orderNumber;
+    }
+
+    private static String userKey(Integer userId) {
+        return "user:" + userId;
+    }
+}
@@ -0,0 +1,74 @@
+package com.pm.orderservice.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Measures replica lag with a heartbeat: each check stamps {@code replication_heartbeat} on the
+ * primary and reads it back from the replica. The lag is the age of the stamp the replica sees, so
+ * it reads up to one check interval high. The replica is usable while the lag is within
+ * {@code max-lag} and the last successful check is no older than {@code max-lag} either, so a
+ * stalled monitor cannot keep routing reads to a replica that has fallen behind.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+
+    private volatile boolean lagWithinBounds;
+    private volatile Instant lastCheckedAt = Instant.EPOCH;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+        Gauge.builder("order.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Age of the newest heartbeat visible on the replica, in seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return lagWithinBounds && Duration.between(lastCheckedAt, Instant.now()).compareTo(maxLag) <= 0;
+    }
+
+    @Scheduled(fixedDelayString = "${order.datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        Instant now = Instant.now();
+        try {
+            primary.update("UPDATE replication_heartbeat SET beat_at = ? WHERE heartbeat_id = 1", Timestamp.from(now));
+        } catch (Exception e) {
+            // The replica can still be judged by the last heartbeat that reached it
+            log.warn("Failed to write replication heartbeat: {}", e.getMessage());
+        }
+        try {
+            Timestamp beat = replica.queryForObject(
+                    "SELECT beat_at FROM replication_heartbeat WHERE heartbeat_id = 1", Timestamp.class);
+            Duration lag = Duration.between(beat.toInstant(), now);
+            boolean withinBounds = lag.compareTo(maxLag) <= 0;
+            if (withinBounds != lagWithinBounds) {
+                log.warn("Replica lag is {} ms; read-only transactions now use the {}",
+                        lag.toMillis(), withinBounds ? "replica" : "primary");
+            }
+            lagSeconds = lag.toMillis() / 1000.0;
+            lagWithinBounds = withinBounds;
+            lastCheckedAt = now;
+        } catch (Exception e) {
+            if (lagWithinBounds) {
+                log.warn("Replica is unreachable; read-only transactions now use the primary: {}", e.getMessage());
+            }
+            lagSeconds = Double.NaN;
+            lagWithinBounds = false;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.pm.orderservice.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary. A read-only
+ * transaction still uses the primary while the replica is lagging or unreachable, or when
+ * {@link ReadYourWrites} has pinned it because it reads something written moments ago.
+ * <p>
+ * The route is chosen when the physical connection is fetched, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: transaction managers
+ * take their connection before the transaction is marked read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final Map<DataSourceRoute, Counter> routes = new EnumMap<>(DataSourceRoute.class);
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor replicaLagMonitor, MeterRegistry meterRegistry) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        for (DataSourceRoute route : DataSourceRoute.values()) {
+            routes.put(route, meterRegistry.counter("order.datasource.routes", "route", route.name()));
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        DataSourceRoute route = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReadYourWrites.isPinnedToPrimary()
+                && replicaLagMonitor.isReplicaUsable()
+                ? DataSourceRoute.REPLICA : DataSourceRoute.PRIMARY;
+        routes.get(route).increment();
+        return route;
+    }
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 
 import java.io.Serializable;
@@ -48,7 +49,7 @@ public class CreateOrderRequest implements Serializable {
     private String shippingMethod; // STANDARD, EXPRESS, OVERNIGHT
 
     // Order Items (will be fetched from cart or provided directly)
-    private List<OrderItemDto> orderItems;
+    private List<@Valid OrderItemDto> orderItems;
 
     // Additional Information
     private String notes;
@@ -0,0 +1,28 @@
+package com.pm.orderservice.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Order totals for {@code [from, to)}; the bounds are widened to whole UTC hours.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderAnalyticsDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Instant from;
+    private Instant to;
+    private long orderCount;
+    private BigDecimal revenue;
+    private List<OrderRollupBreakdownDto> breakdown;
+}
@@ -0,0 +1,24 @@
+package com.pm.orderservice.dto.analytics;
+
+import com.pm.orderservice.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderRollupBreakdownDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private OrderStatus status;
+    private String paymentMethod;
+    private String shippingMethod;
+    private long orderCount;
+    private BigDecimal revenue;
+}
@@ -0,0 +1,25 @@
+package com.pm.orderservice.dto.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Set;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CartDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Integer cartId;
+    private Integer userId;
+    private String status;
+    private BigDecimal totalAmount;
+    private Integer itemCount;
+    private Set<CartItemDto> cartItems;
+}
@@ -0,0 +1,27 @@
+package com.pm.orderservice.dto.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class CartItemDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Integer cartItemId;
+    private UUID productId;
+    private String productName;
+    private String productSku;
+    private BigDecimal unitPrice;
+    private Integer quantity;
+    private BigDecimal totalPrice;
+    private String productImageUrl;
+}
@@ -0,0 +1,23 @@
+package com.pm.orderservice.dto.event;
+
+import com.pm.orderservice.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Payload of an {@code ORDER_STATUS_CHANGED} outbox event; {@code previousStatus} is null when the
+ * order was just placed, and equal to {@code status} when only the amount changed. The order date,
+ * amount and methods are a snapshot taken with the change.
+ */
+public record OrderStatusChangedEvent(Long orderId,
+                                      Integer userId,
+                                      OrderStatus previousStatus,
+                                      OrderStatus status,
+                                      String reservationReference,
+                                      Instant occurredAt,
+                                      Instant orderDate,
+                                      BigDecimal totalAmount,
+                                      String paymentMethod,
+                                      String shippingMethod) {
+}
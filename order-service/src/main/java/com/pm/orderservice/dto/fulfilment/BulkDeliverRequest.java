@@ -0,0 +1,24 @@
+package com.pm.orderservice.dto.fulfilment;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class BulkDeliverRequest implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @NotEmpty(message = "At least one order ID is required")
+    private List<@NotNull Long> orderIds;
+
+    private String note;
+}
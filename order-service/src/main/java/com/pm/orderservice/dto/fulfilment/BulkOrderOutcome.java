@@ -0,0 +1,23 @@
+package com.pm.orderservice.dto.fulfilment;
+
+import com.pm.orderservice.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class BulkOrderOutcome implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Long orderId;
+    private BulkOutcome outcome;
+    private OrderStatus status;
+    private Long version;
+    private String message;
+}
@@ -0,0 +1,10 @@
+package com.pm.orderservice.dto.fulfilment;
+
+public enum BulkOutcome {
+    UPDATED,
+    // Already in the requested status, e.g. a retried batch
+    UNCHANGED,
+    REJECTED,
+    NOT_FOUND,
+    FAILED
+}
@@ -0,0 +1,25 @@
+package com.pm.orderservice.dto.fulfilment;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class BulkShipRequest implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @NotEmpty(message = "At least one shipment is required")
+    private List<@Valid ShipmentLine> shipments;
+
+    private String shippingMethod;
+    private String note;
+}
@@ -0,0 +1,27 @@
+package com.pm.orderservice.dto.fulfilment;
+
+import com.pm.orderservice.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a bulk status change: one outcome per requested order, in request order.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class BulkStatusResponse implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private OrderStatus targetStatus;
+    private int requested;
+    private Map<BulkOutcome, Integer> counts;
+    private List<BulkOrderOutcome> outcomes;
+}
@@ -0,0 +1,27 @@
+package com.pm.orderservice.dto.fulfilment;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ShipmentLine implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @NotNull(message = "Order ID is required")
+    private Long orderId;
+
+    @NotBlank(message = "Tracking number is required")
+    private String trackingNumber;
+
+    // Overrides the batch's shipping method for this order
+    private String shippingMethod;
+}
@@ -0,0 +1,34 @@
+package com.pm.orderservice.dto.payment;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class PaymentWebhookRequest implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    // Unique per gateway event; retries of the same event must repeat it
+    @Size(max = 100, message = "Event ID must not exceed 100 characters")
+    private String eventId;
+
+    @NotNull(message = "Order ID is required")
+    private Long orderId;
+
+    @Size(max = 20, message = "Payment status must not exceed 20 characters")
+    private String paymentStatus;
+
+    @Size(max = 255, message = "Gateway transaction ID must not exceed 255 characters")
+    private String gatewayTransactionId;
+
+    @Size(max = 500, message = "Reason must not exceed 500 characters")
+    private String reason;
+}
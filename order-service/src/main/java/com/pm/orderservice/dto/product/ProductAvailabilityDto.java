@@ -0,0 +1,27 @@
+package com.pm.orderservice.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ProductAvailabilityDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public static final String STATUS_ACTIVE = "active";
+
+    private UUID productId;
+    private String name;
+    private String sku;
+    private BigDecimal price;
+    private String status;
+    private Integer availableQuantity;
+}
@@ -0,0 +1,20 @@
+package com.pm.orderservice.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class StockReservationLine implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private UUID productId;
+    private Integer quantity;
+}
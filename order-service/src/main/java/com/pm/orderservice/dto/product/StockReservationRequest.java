@@ -0,0 +1,20 @@
+package com.pm.orderservice.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class StockReservationRequest implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String reference;
+    private List<StockReservationLine> lines;
+}
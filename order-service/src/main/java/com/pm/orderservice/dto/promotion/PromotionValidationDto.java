@@ -0,0 +1,26 @@
+package com.pm.orderservice.dto.promotion;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class PromotionValidationDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private boolean success;
+    private String message;
+    private String promotionCode;
+    private String promotionType;
+    private BigDecimal originalAmount;
+    private BigDecimal discountAmount;
+    private BigDecimal finalAmount;
+    private String errorCode;
+}
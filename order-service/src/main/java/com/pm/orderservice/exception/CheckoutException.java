@@ -0,0 +1,16 @@
+package com.pm.orderservice.exception;
+
+/**
+ * The order cannot be placed as requested (empty cart, unavailable products, insufficient stock
+ * or a rejected promotion code).
+ */
+public class CheckoutException extends RuntimeException {
+
+    public CheckoutException(String message) {
+        super(message);
+    }
+
+    public CheckoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
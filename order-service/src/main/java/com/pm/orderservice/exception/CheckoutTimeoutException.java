@@ -0,0 +1,12 @@
+package com.pm.orderservice.exception;
+
+/**
+ * The services checkout depends on did not answer within the checkout deadline. Unlike a
+ * {@link CheckoutException} this says nothing about the order itself, so the client may retry.
+ */
+public class CheckoutTimeoutException extends RuntimeException {
+
+    public CheckoutTimeoutException(String message) {
+        super(message);
+    }
+}
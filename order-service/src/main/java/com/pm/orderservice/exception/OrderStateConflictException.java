@@ -0,0 +1,12 @@
+package com.pm.orderservice.exception;
+
+/**
+ * Thrown when a status transition is not allowed from the order's current status, or when the order
+ * changed since it was read.
+ */
+public class OrderStateConflictException extends RuntimeException {
+
+    public OrderStateConflictException(String message) {
+        super(message);
+    }
+}
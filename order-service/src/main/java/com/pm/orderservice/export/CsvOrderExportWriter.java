@@ -0,0 +1,99 @@
+package com.pm.orderservice.export;
+
+import com.pm.orderservice.repository.OrderExportRow;
+import com.pm.orderservice.repository.OrderItemExportRow;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * One row per order item, with the order's columns repeated; an order without items gets one row
+ * with empty item columns.
+ */
+class CsvOrderExportWriter implements OrderExportWriter {
+
+    private static final String HEADER = "order_id,order_number,order_date,user_id,user_email,status,"
+            + "payment_method,payment_status,shipping_method,tracking_number,shipping_country,discount_code,"
+            + "subtotal,tax_amount,shipping_fee,discount_amount,total_amount,"
+            + "order_item_id,product_id,product_sku,product_name,quantity,unit_price,item_discount_amount,"
+            + "item_tax_amount,item_total_price";
+
+    private final Writer writer;
+    private boolean firstColumn;
+
+    CsvOrderExportWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(HEADER);
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void write(OrderExportRow order, List<OrderItemExportRow> items) throws IOException {
+        if (items.isEmpty()) {
+            writeRow(order, null);
+        }
+        for (OrderItemExportRow item : items) {
+            writeRow(order, item);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeRow(OrderExportRow order, OrderItemExportRow item) throws IOException {
+        firstColumn = true;
+        value(order.orderId()).text(order.orderNumber()).value(order.orderDate()).value(order.userId())
+                .text(order.userEmail()).value(order.status()).text(order.paymentMethod())
+                .text(order.paymentStatus()).text(order.shippingMethod()).text(order.trackingNumber())
+                .text(order.shippingCountry()).text(order.discountCode()).value(order.subtotal())
+                .value(order.taxAmount()).value(order.shippingFee()).value(order.discountAmount())
+                .value(order.totalAmount());
+        if (item == null) {
+            writer.write(",,,,,,,,,");
+        } else {
+            value(item.orderItemId()).value(item.productId()).text(item.productSku()).text(item.productName())
+                    .value(item.quantity()).value(item.unitPrice()).value(item.discountAmount())
+                    .value(item.taxAmount()).value(item.totalPrice());
+        }
+        writer.write("\r\n");
+    }
+
+    private CsvOrderExportWriter value(Object value) throws IOException {
+        separator();
+        if (value != null) {
+            writer.write(value.toString());
+        }
+        return this;
+    }
+
+    private CsvOrderExportWriter text(String value) throws IOException {
+        separator();
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        // Free text could otherwise be read as a formula by spreadsheet applications
+        String safe = "=+-@".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        if (safe.indexOf(',') >= 0 || safe.indexOf('"') >= 0 || safe.indexOf('\n') >= 0 || safe.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(safe.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(safe);
+        }
+        return this;
+    }
+
+    private void separator() throws IOException {
+        if (!firstColumn) {
+            writer.write(',');
+        }
+        firstColumn = false;
+    }
+}
@@ -0,0 +1,42 @@
+package com.pm.orderservice.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pm.orderservice.repository.OrderExportRow;
+import com.pm.orderservice.repository.OrderItemExportRow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * One JSON document per line: {@code {"order": {...}, "items": [...]}}.
+ */
+class NdjsonOrderExportWriter implements OrderExportWriter {
+
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+
+    NdjsonOrderExportWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Leave flushing to the generator's buffer instead of flushing the response after every order
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    public void write(OrderExportRow order, List<OrderItemExportRow> items) throws IOException {
+        writer.writeValue(generator, new Line(order, items));
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+
+    private record Line(OrderExportRow order, List<OrderItemExportRow> items) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.pm.orderservice.export;
+
+import com.pm.orderservice.repository.OrderExportRow;
+import com.pm.orderservice.repository.OrderItemExportRow;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes one order at a time to an export stream; nothing is retained between orders.
+ */
+public interface OrderExportWriter {
+
+    void write(OrderExportRow order, List<OrderItemExportRow> items) throws IOException;
+
+    /**
+     * Flushes buffered output. The underlying stream is left open.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,133 @@
+package com.pm.orderservice.history;
+
+import com.pm.orderservice.service.OrderChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the first {@code max-pages} pages of each user's order history, and their order count, in a
+ * bounded in-memory LRU of {@code max-users} users. A user's entries are dropped as soon as one of
+ * their orders changes and otherwise live for {@code ttl}, which bounds how long changes made
+ * through another instance stay invisible here. Misses are loaded in a read-only transaction, so a
+ * hit never takes a database connection. Cached values are shared and must not be modified.
+ */
+@Component
+public class OrderHistoryCache {
+
+    private static final String COUNT = "count";
+    // Distinct page sizes and sorts a single user may hold; more are loaded but not kept
+    private static final int MAX_ENTRIES_PER_USER = 16;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final int maxPages;
+    private final int maxPageSize;
+    private final long ttlNanos;
+    private final Map<Integer, UserHistory> users;
+    private final Counter hits;
+    private final Counter misses;
+
+    public OrderHistoryCache(PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${order.history-cache.enabled:true}") boolean enabled,
+                             @Value("${order.history-cache.max-users:10000}") int maxUsers,
+                             @Value("${order.history-cache.max-pages:3}") int maxPages,
+                             @Value("${order.history-cache.max-page-size:50}") int maxPageSize,
+                             @Value("${order.history-cache.ttl:30s}") Duration ttl) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.maxPages = maxPages;
+        this.maxPageSize = maxPageSize;
+        this.ttlNanos = ttl.toNanos();
+        this.users = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, UserHistory> eldest) {
+                return size() > maxUsers;
+            }
+        });
+        this.hits = meterRegistry.counter("order.history.cache.gets", "result", "hit");
+        this.misses = meterRegistry.counter("order.history.cache.gets", "result", "miss");
+        Gauge.builder("order.history.cache.hit.ratio", this, OrderHistoryCache::hitRatio)
+                .description("Share of cacheable order history reads answered from memory")
+                .register(meterRegistry);
+        Gauge.builder("order.history.cache.users", users, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Returns one page of a user's history, loading it only if it is not cached. Pages past
+     * {@code max-pages} or larger than {@code max-page-size} are always loaded.
+     */
+    public <T> T page(Integer userId, String view, Pageable pageable, Supplier<T> loader) {
+        if (pageable.getPageNumber() >= maxPages || pageable.getPageSize() > maxPageSize) {
+            return readOnlyTransaction.execute(status -> loader.get());
+        }
+        return lookup(userId, view + ":" + pageable.getPageNumber() + ":" + pageable.getPageSize()
+                + ":" + pageable.getSort(), loader);
+    }
+
+    public <T> T count(Integer userId, String view, Supplier<T> loader) {
+        return lookup(userId, view + ":" + COUNT, loader);
+    }
+
+    // A load that overlaps an invalidation stores into the entry it started with, which is no longer reachable
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.userId() != null) {
+            users.remove(event.userId());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T lookup(Integer userId, String key, Supplier<T> loader) {
+        if (!enabled || userId == null) {
+            return readOnlyTransaction.execute(status -> loader.get());
+        }
+        UserHistory history = current(userId);
+        Object cached = history.values().get(key);
+        if (cached != null) {
+            hits.increment();
+            return (T) cached;
+        }
+        misses.increment();
+        T loaded = readOnlyTransaction.execute(status -> loader.get());
+        if (loaded != null && history.values().size() < MAX_ENTRIES_PER_USER) {
+            history.values().put(key, loaded);
+        }
+        return loaded;
+    }
+
+    private UserHistory current(Integer userId) {
+        long now = System.nanoTime();
+        synchronized (users) {
+            UserHistory history = users.get(userId);
+            if (history == null || history.expiresAt() - now < 0) {
+                history = new UserHistory(new ConcurrentHashMap<>(), now + ttlNanos);
+                users.put(userId, history);
+            }
+            return history;
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? Double.NaN : hits.count() / total;
+    }
+
+    private record UserHistory(Map<String, Object> values, long expiresAt) {
+    }
+}
@@ -16,6 +16,11 @@ public interface OrderMapper {
     @Mapping(target = "orderId", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "reservationReference", ignore = true)
+    @Mapping(target = "emailSearchKey", ignore = true)
+    @Mapping(target = "phoneSearchKey", ignore = true)
+    @Mapping(target = "trackingSearchKey", ignore = true)
     Order toEntity(OrderDto orderDto);
 
     List<OrderDto> toDTOList(List<Order> orders);
@@ -27,5 +32,10 @@ public interface OrderMapper {
     @Mapping(target = "orderItems", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "reservationReference", ignore = true)
+    @Mapping(target = "emailSearchKey", ignore = true)
+    @Mapping(target = "phoneSearchKey", ignore = true)
+    @Mapping(target = "trackingSearchKey", ignore = true)
     void updateEntityFromDTO(OrderDto orderDto, @MappingTarget Order order);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.pm.orderservice.model;
 
+import com.pm.orderservice.search.OrderSearchKeys;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
@@ -35,6 +36,13 @@ public class Order extends AbstractMappedEntity {
     @Column(name = "user_phone", length = 20)
     private String userPhone;
 
+    // Normalized search keys, maintained from the fields above (see OrderSearchKeys)
+    @Column(name = "email_search_key", length = 255)
+    private String emailSearchKey;
+
+    @Column(name = "phone_search_key", length = 20)
+    private String phoneSearchKey;
+
     // Shipping Address Details
     @Column(name = "shipping_address", nullable = false, length = 500)
     private String shippingAddress;
@@ -120,6 +128,10 @@ public class Order extends AbstractMappedEntity {
     @Column(name = "payment_failed_at")
     private Instant paymentFailedAt;
 
+    // Stock reserved in product-service at checkout
+    @Column(name = "reservation_reference", length = 64)
+    private String reservationReference;
+
     // Shipping Information
     @Column(name = "shipping_method", length = 50)
     private String shippingMethod; // STANDARD, EXPRESS, OVERNIGHT
@@ -127,6 +139,9 @@ public class Order extends AbstractMappedEntity {
     @Column(name = "tracking_number", length = 100)
     private String trackingNumber;
 
+    @Column(name = "tracking_search_key", length = 100)
+    private String trackingSearchKey;
+
     @Column(name = "estimated_delivery_date")
     private Instant estimatedDeliveryDate;
 
@@ -166,6 +181,10 @@ public class Order extends AbstractMappedEntity {
     @Column(name = "gift_message", columnDefinition = "TEXT")
     private String giftMessage;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "order", fetch = FetchType.LAZY, orphanRemoval = true)
     private Set<OrderItem> orderItems;
 
@@ -174,13 +193,18 @@ public class Order extends AbstractMappedEntity {
         if (orderDate == null) {
             orderDate = Instant.now();
         }
-        if (orderNumber == null) {
-            orderNumber = generateOrderNumber();
-        }
+        updateSearchKeys();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updateSearchKeys();
     }
 
-    private String generateOrderNumber() {
-        return "ORD-" + System.currentTimeMillis();
+    private void updateSearchKeys() {
+        emailSearchKey = OrderSearchKeys.email(userEmail);
+        phoneSearchKey = OrderSearchKeys.reversedPhone(userPhone);
+        trackingSearchKey = OrderSearchKeys.trackingNumber(trackingNumber);
     }
 
     // Helper methods
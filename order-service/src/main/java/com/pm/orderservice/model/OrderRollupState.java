@@ -0,0 +1,45 @@
+package com.pm.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * The bucket an order is currently counted in; see {@code order_rollup_state}.
+ */
+@Entity
+@Table(name = "order_rollup_state")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderRollupState implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "order_id", nullable = false, updatable = false)
+    private Long orderId;
+
+    @Column(name = "bucket_hour", nullable = false)
+    private Instant bucketHour;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(name = "payment_method", nullable = false, length = 50)
+    private String paymentMethod;
+
+    @Column(name = "shipping_method", nullable = false, length = 50)
+    private String shippingMethod;
+
+    @Column(name = "revenue", nullable = false, precision = 12, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+}
@@ -0,0 +1,44 @@
+package com.pm.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Entity
+@Table(name = "order_status_history")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OrderStatusHistory implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "history_id", unique = true, nullable = false, updatable = false)
+    private Long historyId;
+
+    @Column(name = "order_id", nullable = false, updatable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", length = 20, updatable = false)
+    private OrderStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false, length = 20, updatable = false)
+    private OrderStatus toStatus;
+
+    // Order version produced by the transition; unique per order, so each version has one author
+    @Column(name = "order_version", nullable = false, updatable = false)
+    private Long orderVersion;
+
+    @Column(name = "note", length = 500, updatable = false)
+    private String note;
+
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    private Instant changedAt;
+}
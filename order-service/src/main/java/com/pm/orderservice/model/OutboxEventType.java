@@ -0,0 +1,6 @@
+package com.pm.orderservice.model;
+
+public enum OutboxEventType {
+    PAYMENT_REQUESTED,
+    ORDER_STATUS_CHANGED
+}
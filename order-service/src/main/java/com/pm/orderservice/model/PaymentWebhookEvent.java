@@ -0,0 +1,61 @@
+package com.pm.orderservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Entity
+@Table(name = "payment_webhook_events")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class PaymentWebhookEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "webhook_event_id", unique = true, nullable = false, updatable = false)
+    private Long webhookEventId;
+
+    @Column(name = "event_id", unique = true, nullable = false, length = 100, updatable = false)
+    private String eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30, updatable = false)
+    private PaymentWebhookType eventType;
+
+    @Column(name = "order_id", nullable = false, updatable = false)
+    private Long orderId;
+
+    @Column(name = "payment_status", length = 20, updatable = false)
+    private String paymentStatus;
+
+    @Column(name = "gateway_transaction_id", length = 255, updatable = false)
+    private String gatewayTransactionId;
+
+    @Column(name = "reason", length = 500, updatable = false)
+    private String reason;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private WebhookEventStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "received_at", nullable = false, updatable = false)
+    private Instant receivedAt;
+
+    @Column(name = "applied_at")
+    private Instant appliedAt;
+}
@@ -0,0 +1,7 @@
+package com.pm.orderservice.model;
+
+public enum PaymentWebhookType {
+    PAYMENT_STATUS,
+    PAYMENT_CONFIRMED,
+    PAYMENT_FAILED
+}
@@ -0,0 +1,22 @@
+package com.pm.orderservice.model;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGranularity {
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Start of the UTC bucket containing the instant.
+     */
+    public Instant bucketOf(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+}
@@ -0,0 +1,7 @@
+package com.pm.orderservice.model;
+
+public enum WebhookEventStatus {
+    RECEIVED,
+    APPLIED,
+    FAILED
+}
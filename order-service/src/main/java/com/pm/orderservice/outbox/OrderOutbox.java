@@ -0,0 +1,79 @@
+package com.pm.orderservice.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.orderservice.dto.event.OrderStatusChangedEvent;
+import com.pm.orderservice.dto.payment.CreatePaymentRequest;
+import com.pm.orderservice.model.Order;
+import com.pm.orderservice.model.OrderStatus;
+import com.pm.orderservice.model.OutboxEvent;
+import com.pm.orderservice.model.OutboxEventType;
+import com.pm.orderservice.model.OutboxStatus;
+import com.pm.orderservice.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Appends outgoing calls to the {@code order_outbox}. Callers must be inside the transaction that
+ * changes the order, so a call is owed exactly when its change was committed.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class OrderOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public void requestPayment(Order order, CreatePaymentRequest request) {
+        // One payment per order: the key is stable so payment-service can de-duplicate retries
+        append(OutboxEventType.PAYMENT_REQUESTED, order.getOrderId(), "order-" + order.getOrderId() + "-payment", request);
+    }
+
+    public void recordStatusChange(Order order, OrderStatus previousStatus) {
+        OrderStatusChangedEvent event = new OrderStatusChangedEvent(order.getOrderId(), order.getUserId(),
+                previousStatus, order.getStatus(), order.getReservationReference(), Instant.now(),
+                order.getOrderDate(), order.getTotalAmount(), order.getPaymentMethod(), order.getShippingMethod());
+        append(OutboxEventType.ORDER_STATUS_CHANGED, order.getOrderId(),
+                "order-" + order.getOrderId() + "-status-" + UUID.randomUUID(), event);
+    }
+
+    /**
+     * Records a change of the order's amount without a status change, such as an item edit, so the
+     * rollups pick up the new revenue. The event repeats the current status as the previous one.
+     */
+    public void recordAmountChange(Order order) {
+        OrderStatusChangedEvent event = new OrderStatusChangedEvent(order.getOrderId(), order.getUserId(),
+                order.getStatus(), order.getStatus(), order.getReservationReference(), Instant.now(),
+                order.getOrderDate(), order.getTotalAmount(), order.getPaymentMethod(), order.getShippingMethod());
+        append(OutboxEventType.ORDER_STATUS_CHANGED, order.getOrderId(),
+                "order-" + order.getOrderId() + "-amount-" + UUID.randomUUID(), event);
+    }
+
+    private void append(OutboxEventType type, Long orderId, String idempotencyKey, Object payload) {
+        Instant now = Instant.now();
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(type)
+                .orderId(orderId)
+                .idempotencyKey(idempotencyKey)
+                .payload(write(payload))
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+    }
+
+    private String write(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize outbox payload " + payload.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.pm.orderservice.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.orderservice.analytics.OrderRollupWriter;
+import com.pm.orderservice.dto.event.OrderStatusChangedEvent;
+import com.pm.orderservice.model.OutboxEvent;
+import com.pm.orderservice.model.OutboxEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds status changes into the analytics rollups, keyed by the outbox id so repeats are no-ops.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderRollupHandler implements OutboxEventHandler {
+
+    private final OrderRollupWriter orderRollupWriter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public OutboxEventType eventType() {
+        return OutboxEventType.ORDER_STATUS_CHANGED;
+    }
+
+    @Override
+    public void deliver(OutboxEvent event) throws Exception {
+        orderRollupWriter.apply(event.getOutboxId(),
+                objectMapper.readValue(event.getPayload(), OrderStatusChangedEvent.class));
+    }
+}
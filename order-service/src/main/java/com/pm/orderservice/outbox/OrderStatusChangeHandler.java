@@ -0,0 +1,35 @@
+package com.pm.orderservice.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.orderservice.client.ProductServiceClient;
+import com.pm.orderservice.dto.event.OrderStatusChangedEvent;
+import com.pm.orderservice.model.OrderStatus;
+import com.pm.orderservice.model.OutboxEvent;
+import com.pm.orderservice.model.OutboxEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives the stock of cancelled orders back to product-service. Releasing is keyed by the
+ * reservation reference, so a repeated delivery is a no-op.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStatusChangeHandler implements OutboxEventHandler {
+
+    private final ProductServiceClient productServiceClient;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public OutboxEventType eventType() {
+        return OutboxEventType.ORDER_STATUS_CHANGED;
+    }
+
+    @Override
+    public void deliver(OutboxEvent event) throws Exception {
+        OrderStatusChangedEvent change = objectMapper.readValue(event.getPayload(), OrderStatusChangedEvent.class);
+        if (change.status() == OrderStatus.CANCELLED && change.reservationReference() != null) {
+            productServiceClient.releaseStock(change.reservationReference());
+        }
+    }
+}
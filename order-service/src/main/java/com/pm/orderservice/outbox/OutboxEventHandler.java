@@ -0,0 +1,16 @@
+package com.pm.orderservice.outbox;
+
+import com.pm.orderservice.model.OutboxEvent;
+import com.pm.orderservice.model.OutboxEventType;
+
+/**
+ * Delivers one type of outbox event. Called outside any transaction and possibly more than once
+ * for the same event, so implementations pass {@link OutboxEvent#getIdempotencyKey()} on. Several
+ * handlers may share an event type; a failure in any of them retries the event for all.
+ */
+public interface OutboxEventHandler {
+
+    OutboxEventType eventType();
+
+    void deliver(OutboxEvent event) throws Exception;
+}
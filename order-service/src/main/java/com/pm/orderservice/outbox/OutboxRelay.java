@@ -0,0 +1,200 @@
+package com.pm.orderservice.outbox;
+
+import com.pm.orderservice.model.OutboxEvent;
+import com.pm.orderservice.model.OutboxEventType;
+import com.pm.orderservice.model.OutboxStatus;
+import com.pm.orderservice.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delivers the {@code order_outbox} in batches. A batch is claimed in one short transaction and
+ * delivered with no transaction or connection held; each outcome is written back as soon as it is
+ * known. Events still unattempted after half the lease are handed back rather than risk being
+ * delivered twice. Failed deliveries are retried with jittered exponential backoff until
+ * {@code max-attempts}, after which the event is parked as FAILED.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final int PURGE_CHUNK_SIZE = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final Map<OutboxEventType, List<OutboxEventHandler>> handlers = new EnumMap<>(OutboxEventType.class);
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${order.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${order.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${order.outbox.initial-backoff:1s}")
+    private Duration initialBackoff;
+
+    @Value("${order.outbox.max-backoff:10m}")
+    private Duration maxBackoff;
+
+    @Value("${order.outbox.lease:1m}")
+    private Duration lease;
+
+    @Value("${order.outbox.retain-delivered-for:P7D}")
+    private Duration retainDeliveredFor;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       List<OutboxEventHandler> handlers,
+                       PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        handlers.forEach(handler ->
+                this.handlers.computeIfAbsent(handler.eventType(), type -> new ArrayList<>()).add(handler));
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.relay-interval-ms:1000}")
+    public void relayEvents() {
+        try {
+            int delivered = 0;
+            boolean leaseRanOut = false;
+            List<OutboxEvent> batch;
+            do {
+                batch = transactionTemplate.execute(status -> claimBatch());
+                if (batch.isEmpty()) {
+                    break;
+                }
+                // Stop well before the lease expires, so no claimed row is still in flight when
+                // another relay may claim it again
+                Instant stopAt = Instant.now().plus(lease.dividedBy(2));
+                for (int i = 0; i < batch.size(); i++) {
+                    if (Instant.now().isAfter(stopAt)) {
+                        release(batch.subList(i, batch.size()));
+                        leaseRanOut = true;
+                        break;
+                    }
+                    OutboxEvent event = batch.get(i);
+                    delivered += deliver(event) ? 1 : 0;
+                    transactionTemplate.executeWithoutResult(status -> outboxEventRepository.save(event));
+                }
+            } while (!leaseRanOut && batch.size() == batchSize);
+
+            if (delivered > 0) {
+                log.debug("Delivered {} outbox events", delivered);
+            }
+        } catch (Exception e) {
+            log.error("Error relaying outbox events: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Purge delivered events every night
+     */
+    @Scheduled(cron = "${order.outbox.cleanup-cron:0 30 3 * * ?}") // Daily at 3:30 AM
+    public void purgeDeliveredEvents() {
+        try {
+            Instant cutoff = Instant.now().minus(retainDeliveredFor);
+            int purged = 0;
+            int chunk;
+            do {
+                chunk = transactionTemplate.execute(status ->
+                        outboxEventRepository.deleteDelivered(cutoff, PURGE_CHUNK_SIZE));
+                purged += chunk;
+            } while (chunk == PURGE_CHUNK_SIZE);
+            log.info("Purged {} delivered outbox events", purged);
+        } catch (Exception e) {
+            log.error("Error purging outbox events: {}", e.getMessage(), e);
+        }
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        Instant now = Instant.now();
+        List<OutboxEvent> batch = outboxEventRepository.lockDueBatch(now, batchSize);
+        // Moving next_attempt_at past the lease hides claimed rows from other relays while they are in
+        // flight; if this instance dies mid-delivery they become due again when the lease runs out
+        batch.forEach(event -> {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setNextAttemptAt(now.plus(lease));
+        });
+        return batch;
+    }
+
+    /**
+     * Hands back claimed events that were not attempted, so they are due again at once and the
+     * claim does not count as an attempt.
+     */
+    private void release(List<OutboxEvent> events) {
+        Instant now = Instant.now();
+        events.forEach(event -> {
+            event.setAttempts(event.getAttempts() - 1);
+            event.setNextAttemptAt(now);
+        });
+        transactionTemplate.executeWithoutResult(status -> outboxEventRepository.saveAll(events));
+        log.warn("Released {} outbox events unattempted; deliveries are too slow for the {} lease",
+                events.size(), lease);
+    }
+
+    private boolean deliver(OutboxEvent event) {
+        try {
+            List<OutboxEventHandler> eventHandlers = handlers.get(event.getEventType());
+            if (eventHandlers == null) {
+                throw new IllegalStateException("No handler for outbox event type " + event.getEventType());
+            }
+            // Every handler runs even if one fails; the event is retried as a whole, so they must be idempotent
+            Exception failure = null;
+            for (OutboxEventHandler handler : eventHandlers) {
+                try {
+                    handler.deliver(event);
+                } catch (Exception e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            event.setStatus(OutboxStatus.DELIVERED);
+            event.setDeliveredAt(Instant.now());
+            event.setLastError(null);
+            return true;
+        } catch (Exception e) {
+            event.setLastError(truncate(e.getMessage()));
+            if (event.getAttempts() >= maxAttempts) {
+                event.setStatus(OutboxStatus.FAILED);
+                log.error("Giving up on outbox event {} ({}) for order ID: {} after {} attempts",
+                        event.getOutboxId(), event.getEventType(), event.getOrderId(), event.getAttempts(), e);
+            } else {
+                event.setNextAttemptAt(Instant.now().plus(backoff(event.getAttempts())));
+                log.warn("Outbox event {} ({}) for order ID: {} failed on attempt {}: {}",
+                        event.getOutboxId(), event.getEventType(), event.getOrderId(), event.getAttempts(), e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    // Jittered so that events which failed together do not retry in lockstep
+    private Duration backoff(int attempts) {
+        long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempts - 1, 30));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
@@ -0,0 +1,44 @@
+package com.pm.orderservice.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.orderservice.client.PaymentServiceClient;
+import com.pm.orderservice.dto.payment.CreatePaymentRequest;
+import com.pm.orderservice.dto.payment.PaymentDto;
+import com.pm.orderservice.model.OrderStatus;
+import com.pm.orderservice.model.OutboxEvent;
+import com.pm.orderservice.model.OutboxEventType;
+import com.pm.orderservice.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentRequestHandler implements OutboxEventHandler {
+
+    private final PaymentServiceClient paymentServiceClient;
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public OutboxEventType eventType() {
+        return OutboxEventType.PAYMENT_REQUESTED;
+    }
+
+    @Override
+    public void deliver(OutboxEvent event) throws Exception {
+        OrderStatus status = orderRepository.findStatusByOrderId(event.getOrderId()).orElse(null);
+        if (status != OrderStatus.PENDING) {
+            log.info("Skipping payment for order ID: {} in status {}", event.getOrderId(), status);
+            return;
+        }
+
+        CreatePaymentRequest request = objectMapper.readValue(event.getPayload(), CreatePaymentRequest.class);
+        PaymentDto payment = paymentServiceClient.createPayment(request, event.getIdempotencyKey());
+        orderRepository.recordPaymentInitiated(event.getOrderId(), payment.getPaymentReference(),
+                payment.getGateway(), payment.getInitiatedAt());
+        log.info("Payment created for order ID: {} with payment reference: {}",
+                event.getOrderId(), payment.getPaymentReference());
+    }
+}
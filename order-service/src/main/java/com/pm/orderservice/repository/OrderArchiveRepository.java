@@ -0,0 +1,77 @@
+package com.pm.orderservice.repository;
+
+import com.pm.orderservice.model.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Native access to {@code orders_archive} and {@code order_items_archive} for archiving and for
+ * paging over both tables. Archived rows themselves are read by OrderArchiveReader, never as entities.
+ */
+@Repository
+public interface OrderArchiveRepository extends org.springframework.data.repository.Repository<Order, Long> {
+
+    // Archiving: rows being archived by another instance are skipped rather than waited for
+    @Query(value = "SELECT order_id FROM orders WHERE status IN (:statuses) AND order_date < :cutoff " +
+                   "ORDER BY order_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockArchivableOrderIds(@Param("statuses") Collection<String> statuses,
+                                      @Param("cutoff") Instant cutoff,
+                                      @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive SELECT * FROM orders WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int copyOrders(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_items_archive SELECT * FROM order_items WHERE order_id IN (:orderIds)",
+           nativeQuery = true)
+    int copyItems(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM order_items WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int deleteItems(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM orders WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int deleteOrders(@Param("orderIds") Collection<Long> orderIds);
+
+    // Archived orders can no longer change, so the rollups need not track where they are counted
+    @Modifying
+    @Query(value = "DELETE FROM order_rollup_state WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int deleteRollupStates(@Param("orderIds") Collection<Long> orderIds);
+
+    // Date ranges reaching past the archive horizon page over both tables, newest first
+    @Query(value = "SELECT order_id FROM (" +
+                   "SELECT order_id, order_date FROM orders WHERE order_date BETWEEN :startDate AND :endDate " +
+                   "UNION ALL " +
+                   "SELECT order_id, order_date FROM orders_archive WHERE order_date BETWEEN :startDate AND :endDate" +
+                   ") AS o ORDER BY order_date DESC, order_id DESC",
+           countQuery = "SELECT (SELECT COUNT(*) FROM orders WHERE order_date BETWEEN :startDate AND :endDate) + " +
+                        "(SELECT COUNT(*) FROM orders_archive WHERE order_date BETWEEN :startDate AND :endDate)",
+           nativeQuery = true)
+    Page<Long> findOrderIdsByOrderDateBetweenIncludingArchive(@Param("startDate") Instant startDate,
+                                                              @Param("endDate") Instant endDate,
+                                                              Pageable pageable);
+
+    // User histories that include archived orders page over both tables, newest first
+    @Query(value = "SELECT order_id FROM (" +
+                   "SELECT order_id, order_date FROM orders WHERE user_id = :userId " +
+                   "UNION ALL " +
+                   "SELECT order_id, order_date FROM orders_archive WHERE user_id = :userId" +
+                   ") AS o ORDER BY order_date DESC, order_id DESC",
+           countQuery = "SELECT (SELECT COUNT(*) FROM orders WHERE user_id = :userId) + " +
+                        "(SELECT COUNT(*) FROM orders_archive WHERE user_id = :userId)",
+           nativeQuery = true)
+    Page<Long> findOrderIdsByUserIdIncludingArchive(@Param("userId") Integer userId, Pageable pageable);
+
+    @Query(value = "SELECT COUNT(*) FROM orders_archive WHERE user_id = :userId", nativeQuery = true)
+    long countArchivedByUserId(@Param("userId") Integer userId);
+}
@@ -0,0 +1,13 @@
+package com.pm.orderservice.repository;
+
+import com.pm.orderservice.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record OrderExportRow(Long orderId, String orderNumber, Instant orderDate, Integer userId, String userEmail,
+                             OrderStatus status, String paymentMethod, String paymentStatus, String shippingMethod,
+                             String trackingNumber, String shippingCountry, String discountCode,
+                             BigDecimal subtotal, BigDecimal taxAmount, BigDecimal shippingFee,
+                             BigDecimal discountAmount, BigDecimal totalAmount) {
+}
@@ -0,0 +1,9 @@
+package com.pm.orderservice.repository;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record OrderItemExportRow(Long orderId, Long orderItemId, UUID productId, String productSku, String productName,
+                                 Integer quantity, BigDecimal unitPrice, BigDecimal discountAmount,
+                                 BigDecimal taxAmount, BigDecimal totalPrice) {
+}
@@ -1,12 +1,27 @@
 package com.pm.orderservice.repository;
 
 import com.pm.orderservice.model.OrderItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     List<OrderItem> findByOrderOrderId(Long orderId);
-} 
\ No newline at end of file
+
+    // Same range and order as OrderRepository.streamExportRows, so the two cursors can be merged
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.pm.orderservice.repository.OrderItemExportRow(o.orderId, i.orderItemId, i.productId, " +
+           "i.productSku, i.productName, i.quantity, i.unitPrice, i.discountAmount, i.taxAmount, i.totalPrice) " +
+           "FROM OrderItem i JOIN i.order o WHERE o.orderDate >= :from AND o.orderDate < :to " +
+           "ORDER BY o.orderDate, o.orderId, i.orderItemId")
+    Stream<OrderItemExportRow> streamExportRows(@Param("from") Instant from, @Param("to") Instant to);
+}
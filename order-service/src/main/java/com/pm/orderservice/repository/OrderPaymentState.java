@@ -0,0 +1,9 @@
+package com.pm.orderservice.repository;
+
+import com.pm.orderservice.model.OrderStatus;
+
+/**
+ * The columns a payment webhook changes, read to tell whether it would change anything.
+ */
+public record OrderPaymentState(OrderStatus status, String paymentStatus, String paymentGatewayTransactionId) {
+}
@@ -2,22 +2,58 @@ package com.pm.orderservice.repository;
 
 import com.pm.orderservice.model.Order;
 import com.pm.orderservice.model.OrderStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
     // Basic finders
     Optional<Order> findByOrderNumber(String orderNumber);
+
+    @Query("SELECT o.status FROM Order o WHERE o.orderId = :orderId")
+    Optional<OrderStatus> findStatusByOrderId(@Param("orderId") Long orderId);
+
+    @Query("SELECT new com.pm.orderservice.repository.OrderPaymentState(o.status, o.paymentStatus, " +
+           "o.paymentGatewayTransactionId) FROM Order o WHERE o.orderId = :orderId")
+    Optional<OrderPaymentState> findPaymentStateByOrderId(@Param("orderId") Long orderId);
+
+    @EntityGraph(attributePaths = "orderItems")
+    @Query("SELECT o FROM Order o WHERE o.orderId = :orderId")
+    Optional<Order> findWithItemsByOrderId(@Param("orderId") Long orderId);
+
+    // Compare-and-set of a status transition: writes the order's new state only if it is still at
+    // the status and version it was read with
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :#{#order.status}, o.version = o.version + 1, " +
+           "o.confirmedDate = :#{#order.confirmedDate}, o.shippedDate = :#{#order.shippedDate}, " +
+           "o.deliveredDate = :#{#order.deliveredDate}, o.actualDeliveryDate = :#{#order.actualDeliveryDate}, " +
+           "o.cancelledDate = :#{#order.cancelledDate}, o.cancellationReason = :#{#order.cancellationReason}, " +
+           "o.trackingNumber = :#{#order.trackingNumber}, o.trackingSearchKey = :#{#order.trackingSearchKey}, " +
+           "o.shippingMethod = :#{#order.shippingMethod}, o.adminNotes = :#{#order.adminNotes}, " +
+           "o.updatedAt = :#{#order.updatedAt} " +
+           "WHERE o.orderId = :#{#order.orderId} AND o.status = :expectedStatus AND o.version = :expectedVersion")
+    int compareAndSetStatus(@Param("order") Order order,
+                            @Param("expectedStatus") OrderStatus expectedStatus,
+                            @Param("expectedVersion") Long expectedVersion);
     Page<Order> findByUserId(Integer userId, Pageable pageable);
     List<Order> findByUserId(Integer userId);
 
@@ -39,13 +75,98 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     Page<Order> findByUserIdAndStatus(Integer userId, OrderStatus status, Pageable pageable);
     List<Order> findByUserIdAndStatus(Integer userId, OrderStatus status);
 
-    // Search queries
-    @Query("SELECT o FROM Order o WHERE " +
-           "o.orderNumber LIKE %:searchTerm% OR " +
-           "o.userEmail LIKE %:searchTerm% OR " +
-           "o.userPhone LIKE %:searchTerm% OR " +
-           "o.trackingNumber LIKE %:searchTerm%")
-    Page<Order> searchOrders(@Param("searchTerm") String searchTerm, Pageable pageable);
+    // Listings page over ids so LIMIT/OFFSET stays in SQL; the page is then loaded with findWithItemsByOrderIdIn
+    @Query(value = "SELECT o.orderId FROM Order o",
+           countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<Long> findOrderIds(Pageable pageable);
+
+    @Query(value = "SELECT o.orderId FROM Order o WHERE o.userId = :userId",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.userId = :userId")
+    Page<Long> findOrderIdsByUserId(@Param("userId") Integer userId, Pageable pageable);
+
+    @Query(value = "SELECT o.orderId FROM Order o WHERE o.status = :status",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.status = :status")
+    Page<Long> findOrderIdsByStatus(@Param("status") OrderStatus status, Pageable pageable);
+
+    @Query(value = "SELECT o.orderId FROM Order o WHERE o.orderDate BETWEEN :startDate AND :endDate",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.orderDate BETWEEN :startDate AND :endDate")
+    Page<Long> findOrderIdsByOrderDateBetween(@Param("startDate") Instant startDate,
+                                             @Param("endDate") Instant endDate,
+                                             Pageable pageable);
+
+    // Search strategies chosen by OrderSearchPlanner; each is a range scan on an indexed search key.
+    // Prefix arguments arrive escaped by OrderSearchKeys.likePrefix, whose escape character is '!'
+    @Query(value = "SELECT o.orderId FROM Order o WHERE " +
+                   "o.orderNumber LIKE CONCAT(:prefix, '%') ESCAPE '!'",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE " +
+                   "o.orderNumber LIKE CONCAT(:prefix, '%') ESCAPE '!'")
+    Page<Long> findOrderIdsByOrderNumberPrefix(@Param("prefix") String prefix, Pageable pageable);
+
+    @Query(value = "SELECT o.orderId FROM Order o WHERE o.emailSearchKey = :email",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.emailSearchKey = :email")
+    Page<Long> findOrderIdsByEmail(@Param("email") String email, Pageable pageable);
+
+    @Query(value = "SELECT o.orderId FROM Order o WHERE " +
+                   "o.emailSearchKey LIKE CONCAT(:prefix, '%') ESCAPE '!'",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE " +
+                   "o.emailSearchKey LIKE CONCAT(:prefix, '%') ESCAPE '!'")
+    Page<Long> findOrderIdsByEmailPrefix(@Param("prefix") String prefix, Pageable pageable);
+
+    @Query(value = "SELECT o.orderId FROM Order o WHERE " +
+                   "o.phoneSearchKey LIKE CONCAT(:reversedPhone, '%') ESCAPE '!' " +
+                   "OR o.trackingSearchKey LIKE CONCAT(:tracking, '%') ESCAPE '!'",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE " +
+                   "o.phoneSearchKey LIKE CONCAT(:reversedPhone, '%') ESCAPE '!' " +
+                   "OR o.trackingSearchKey LIKE CONCAT(:tracking, '%') ESCAPE '!'")
+    Page<Long> findOrderIdsByPhoneSuffixOrTrackingPrefix(@Param("reversedPhone") String reversedPhone,
+                                                        @Param("tracking") String tracking,
+                                                        Pageable pageable);
+
+    @Query(value = "SELECT o.orderId FROM Order o WHERE " +
+                   "o.emailSearchKey LIKE CONCAT(:email, '%') ESCAPE '!' " +
+                   "OR o.trackingSearchKey LIKE CONCAT(:tracking, '%') ESCAPE '!'",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE " +
+                   "o.emailSearchKey LIKE CONCAT(:email, '%') ESCAPE '!' " +
+                   "OR o.trackingSearchKey LIKE CONCAT(:tracking, '%') ESCAPE '!'")
+    Page<Long> findOrderIdsByEmailOrTrackingPrefix(@Param("email") String email,
+                                                  @Param("tracking") String tracking,
+                                                  Pageable pageable);
+
+    // n-gram full-text index (V9); ranked by relevance, so callers pass an unsorted page
+    @Query(value = "SELECT o.order_id FROM orders o WHERE " +
+                   "MATCH(o.order_number, o.user_email, o.user_phone, o.tracking_number) AGAINST (:term IN BOOLEAN MODE) " +
+                   "ORDER BY MATCH(o.order_number, o.user_email, o.user_phone, o.tracking_number) AGAINST (:term IN BOOLEAN MODE) DESC, " +
+                   "o.order_id DESC",
+           countQuery = "SELECT COUNT(*) FROM orders o WHERE " +
+                   "MATCH(o.order_number, o.user_email, o.user_phone, o.tracking_number) AGAINST (:term IN BOOLEAN MODE)",
+           nativeQuery = true)
+    Page<Long> findOrderIdsByNgram(@Param("term") String term, Pageable pageable);
+
+    @EntityGraph(attributePaths = "orderItems")
+    List<Order> findWithItemsByOrderIdIn(Collection<Long> orderIds);
+
+    // Bulk fulfilment locks a chunk in id order so concurrent batches cannot deadlock on each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderId IN :orderIds ORDER BY o.orderId")
+    List<Order> findForUpdateByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    // Export reads through a forward-only cursor in (orderDate, orderId) order, matching OrderItemRepository.streamExportRows
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.pm.orderservice.repository.OrderExportRow(o.orderId, o.orderNumber, o.orderDate, " +
+           "o.userId, o.userEmail, o.status, o.paymentMethod, o.paymentStatus, o.shippingMethod, o.trackingNumber, " +
+           "o.shippingCountry, o.discountCode, o.subtotal, o.taxAmount, o.shippingFee, o.discountAmount, " +
+           "o.totalAmount) FROM Order o WHERE o.orderDate >= :from AND o.orderDate < :to " +
+           "ORDER BY o.orderDate, o.orderId")
+    Stream<OrderExportRow> streamExportRows(@Param("from") Instant from, @Param("to") Instant to);
+
+    // Summary columns only; item counts come from a per-order aggregate instead of loading the items
+    @Query(value = "SELECT new com.pm.orderservice.repository.OrderSummaryRow(o.orderId, o.orderNumber, o.userId, " +
+                   "o.userEmail, o.status, o.totalAmount, o.paymentStatus, o.shippingMethod, o.trackingNumber, " +
+                   "o.orderDate, o.estimatedDeliveryDate, " +
+                   "(SELECT COALESCE(SUM(i.quantity), 0) FROM OrderItem i WHERE i.order.orderId = o.orderId)) " +
+                   "FROM Order o WHERE o.userId = :userId",
+           countQuery = "SELECT COUNT(o) FROM Order o WHERE o.userId = :userId")
+    Page<OrderSummaryRow> findSummariesByUserId(@Param("userId") Integer userId, Pageable pageable);
 
     // Advanced queries
     @Query("SELECT o FROM Order o WHERE o.userId = :userId AND o.status IN :statuses")
@@ -67,4 +188,14 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     Double getTotalAmountByStatusAndDateRange(@Param("status") OrderStatus status,
                                             @Param("startDate") Instant startDate,
                                             @Param("endDate") Instant endDate);
-}
\ No newline at end of file
+
+    // Payment integration
+    @Transactional
+    @Modifying
+    @Query("UPDATE Order o SET o.paymentReference = :paymentReference, o.paymentGateway = :paymentGateway, " +
+           "o.paymentInitiatedAt = :initiatedAt WHERE o.orderId = :orderId")
+    int recordPaymentInitiated(@Param("orderId") Long orderId,
+                               @Param("paymentReference") String paymentReference,
+                               @Param("paymentGateway") String paymentGateway,
+                               @Param("initiatedAt") Instant initiatedAt);
+}
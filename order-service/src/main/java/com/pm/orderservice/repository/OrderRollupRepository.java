@@ -0,0 +1,81 @@
+package com.pm.orderservice.repository;
+
+import com.pm.orderservice.model.OrderRollup;
+import com.pm.orderservice.model.OrderStatus;
+import com.pm.orderservice.model.RollupGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO order_rollups (granularity, bucket_start, status, payment_method, shipping_method, " +
+                   "order_count, revenue) VALUES (:granularity, :bucketStart, :status, :paymentMethod, :shippingMethod, " +
+                   ":orderCount, :revenue) " +
+                   "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), revenue = revenue + VALUES(revenue)",
+           nativeQuery = true)
+    int addToBucket(@Param("granularity") String granularity,
+                    @Param("bucketStart") Instant bucketStart,
+                    @Param("status") String status,
+                    @Param("paymentMethod") String paymentMethod,
+                    @Param("shippingMethod") String shippingMethod,
+                    @Param("orderCount") long orderCount,
+                    @Param("revenue") BigDecimal revenue);
+
+    @Query("SELECT new com.pm.orderservice.repository.OrderRollupTotals(r.status, r.paymentMethod, r.shippingMethod, " +
+           "SUM(r.orderCount), SUM(r.revenue)) FROM OrderRollup r " +
+           "WHERE r.granularity = :granularity AND r.bucketStart >= :from AND r.bucketStart < :to " +
+           "GROUP BY r.status, r.paymentMethod, r.shippingMethod")
+    List<OrderRollupTotals> sumBuckets(@Param("granularity") RollupGranularity granularity,
+                                       @Param("from") Instant from,
+                                       @Param("to") Instant to);
+
+    @Query("SELECT COALESCE(SUM(r.orderCount), 0) FROM OrderRollup r " +
+           "WHERE r.granularity = :granularity AND r.status = :status")
+    long sumOrderCountByStatus(@Param("granularity") RollupGranularity granularity,
+                               @Param("status") OrderStatus status);
+
+    // Backfill: rebuild a range of buckets straight from orders and orders_archive. Bucketing uses epoch
+    // seconds so it matches RollupGranularity.bucketOf whatever the session time zone is. Only live orders
+    // get a state row, since archived orders can no longer change.
+    @Modifying
+    @Query(value = "DELETE FROM order_rollups WHERE bucket_start >= :from AND bucket_start < :to", nativeQuery = true)
+    int deleteBuckets(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_rollups (granularity, bucket_start, status, payment_method, shipping_method, " +
+                   "order_count, revenue) " +
+                   "SELECT :granularity, FROM_UNIXTIME(FLOOR(UNIX_TIMESTAMP(o.order_date) / :bucketSeconds) * :bucketSeconds) AS bucket, " +
+                   "o.status, COALESCE(o.payment_method, ''), COALESCE(o.shipping_method, ''), COUNT(*), SUM(o.total_amount) " +
+                   "FROM (SELECT order_date, status, payment_method, shipping_method, total_amount FROM orders " +
+                   "      WHERE order_date >= :from AND order_date < :to " +
+                   "      UNION ALL " +
+                   "      SELECT order_date, status, payment_method, shipping_method, total_amount FROM orders_archive " +
+                   "      WHERE order_date >= :from AND order_date < :to) o " +
+                   "GROUP BY bucket, o.status, COALESCE(o.payment_method, ''), COALESCE(o.shipping_method, '')",
+           nativeQuery = true)
+    int rebuildBuckets(@Param("granularity") String granularity,
+                       @Param("bucketSeconds") long bucketSeconds,
+                       @Param("from") Instant from,
+                       @Param("to") Instant to);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_rollup_state (order_id, bucket_hour, status, payment_method, shipping_method, " +
+                   "revenue, last_event_id) " +
+                   "SELECT o.order_id, FROM_UNIXTIME(FLOOR(UNIX_TIMESTAMP(o.order_date) / 3600) * 3600), o.status, " +
+                   "COALESCE(o.payment_method, ''), COALESCE(o.shipping_method, ''), o.total_amount, :watermark " +
+                   "FROM orders o WHERE o.order_date >= :from AND o.order_date < :to " +
+                   "ON DUPLICATE KEY UPDATE bucket_hour = VALUES(bucket_hour), status = VALUES(status), " +
+                   "payment_method = VALUES(payment_method), shipping_method = VALUES(shipping_method), " +
+                   "revenue = VALUES(revenue), last_event_id = VALUES(last_event_id)",
+           nativeQuery = true)
+    int rebuildStates(@Param("watermark") long watermark, @Param("from") Instant from, @Param("to") Instant to);
+}
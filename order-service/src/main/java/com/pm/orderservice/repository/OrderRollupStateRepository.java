@@ -0,0 +1,19 @@
+package com.pm.orderservice.repository;
+
+import com.pm.orderservice.model.OrderRollupState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OrderRollupStateRepository extends JpaRepository<OrderRollupState, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM OrderRollupState s WHERE s.orderId = :orderId")
+    Optional<OrderRollupState> findForUpdate(@Param("orderId") Long orderId);
+}
@@ -0,0 +1,9 @@
+package com.pm.orderservice.repository;
+
+import com.pm.orderservice.model.OrderStatus;
+
+import java.math.BigDecimal;
+
+public record OrderRollupTotals(OrderStatus status, String paymentMethod, String shippingMethod,
+                                Long orderCount, BigDecimal revenue) {
+}
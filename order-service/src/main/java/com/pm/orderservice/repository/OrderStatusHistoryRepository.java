@@ -0,0 +1,13 @@
+package com.pm.orderservice.repository;
+
+import com.pm.orderservice.model.OrderStatusHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrderStatusHistoryRepository extends JpaRepository<OrderStatusHistory, Long> {
+
+    List<OrderStatusHistory> findByOrderIdOrderByOrderVersionAsc(Long orderId);
+}
@@ -0,0 +1,12 @@
+package com.pm.orderservice.repository;
+
+import com.pm.orderservice.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record OrderSummaryRow(Long orderId, String orderNumber, Integer userId, String userEmail,
+                              OrderStatus status, BigDecimal totalAmount, String paymentStatus,
+                              String shippingMethod, String trackingNumber, Instant orderDate,
+                              Instant estimatedDeliveryDate, Long totalItems) {
+}
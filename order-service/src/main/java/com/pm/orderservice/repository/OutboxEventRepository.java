@@ -0,0 +1,28 @@
+package com.pm.orderservice.repository;
+
+import com.pm.orderservice.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Rows claimed by another instance's relay are skipped rather than waited for
+    @Query(value = "SELECT * FROM order_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+                   "ORDER BY next_attempt_at, outbox_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockDueBatch(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM order_outbox WHERE status = 'DELIVERED' AND delivered_at < :cutoff LIMIT :limit",
+           nativeQuery = true)
+    int deleteDelivered(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Query("SELECT COALESCE(MAX(e.outboxId), 0) FROM OutboxEvent e")
+    long findMaxOutboxId();
+}
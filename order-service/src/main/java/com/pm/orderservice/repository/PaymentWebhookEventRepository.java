@@ -0,0 +1,46 @@
+package com.pm.orderservice.repository;
+
+import com.pm.orderservice.model.PaymentWebhookEvent;
+import com.pm.orderservice.model.WebhookEventStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEvent, Long> {
+
+    // Events another instance is recovering are skipped rather than waited for
+    @Query(value = "SELECT * FROM payment_webhook_events WHERE status = 'RECEIVED' AND next_attempt_at <= :now " +
+                   "ORDER BY webhook_event_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<PaymentWebhookEvent> lockDueBatch(@Param("now") Instant now, @Param("limit") int limit);
+
+    boolean existsByEventId(String eventId);
+
+    // The oldest unresolved event of the order that arrived before the given one; it holds the later ones back
+    Optional<PaymentWebhookEvent> findFirstByOrderIdAndStatusAndWebhookEventIdLessThanOrderByWebhookEventIdAsc(
+            Long orderId, WebhookEventStatus status, Long webhookEventId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.status = :status, e.attempts = :attempts, " +
+           "e.nextAttemptAt = :nextAttemptAt, e.lastError = :lastError, e.appliedAt = :appliedAt " +
+           "WHERE e.webhookEventId = :webhookEventId")
+    int recordAttempt(@Param("webhookEventId") Long webhookEventId,
+                      @Param("status") WebhookEventStatus status,
+                      @Param("attempts") int attempts,
+                      @Param("nextAttemptAt") Instant nextAttemptAt,
+                      @Param("lastError") String lastError,
+                      @Param("appliedAt") Instant appliedAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM payment_webhook_events WHERE status = 'APPLIED' AND applied_at < :cutoff LIMIT :limit",
+           nativeQuery = true)
+    int deleteApplied(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,53 @@
+package com.pm.orderservice.search;
+
+import com.pm.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Runs a support search with the strategy chosen by {@link OrderSearchPlanner} and returns a page of
+ * matching order ids. Searches are counted by strategy in {@code order.search.queries}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderSearch {
+
+    private final OrderRepository orderRepository;
+    private final OrderSearchPlanner orderSearchPlanner;
+    private final MeterRegistry meterRegistry;
+
+    public Page<Long> findOrderIds(String term, Pageable pageable) {
+        OrderSearchPlan plan = orderSearchPlanner.plan(term);
+        Page<Long> orderIds = execute(plan, pageable);
+        if (orderIds.getTotalElements() == 0 && plan.fallback() == SearchStrategy.FUZZY) {
+            plan = orderSearchPlanner.fuzzy(term);
+            orderIds = execute(plan, pageable);
+        }
+        log.debug("Search for '{}' used {} and matched {} orders", term, plan.strategy(), orderIds.getTotalElements());
+        return orderIds;
+    }
+
+    private Page<Long> execute(OrderSearchPlan plan, Pageable pageable) {
+        meterRegistry.counter("order.search.queries", "strategy", plan.strategy().name()).increment();
+        return switch (plan.strategy()) {
+            case NONE -> new PageImpl<>(List.of(), pageable, 0);
+            case ORDER_NUMBER -> orderRepository.findOrderIdsByOrderNumberPrefix(plan.key(), pageable);
+            case EMAIL -> orderRepository.findOrderIdsByEmail(plan.key(), pageable);
+            case EMAIL_PREFIX -> orderRepository.findOrderIdsByEmailPrefix(plan.key(), pageable);
+            case PHONE_OR_TRACKING ->
+                    orderRepository.findOrderIdsByPhoneSuffixOrTrackingPrefix(plan.key(), plan.secondaryKey(), pageable);
+            case TEXT_PREFIX -> orderRepository.findOrderIdsByEmailOrTrackingPrefix(plan.key(), plan.secondaryKey(), pageable);
+            case FUZZY -> orderRepository.findOrderIdsByNgram(plan.key(),
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+        };
+    }
+}
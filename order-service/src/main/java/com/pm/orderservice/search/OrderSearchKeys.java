@@ -0,0 +1,67 @@
+package com.pm.orderservice.search;
+
+import java.util.Locale;
+
+/**
+ * Normalized forms of the searchable order fields. The same functions fill the indexed lookup
+ * columns on write and turn a search term into a key on read, so both sides always agree.
+ */
+public final class OrderSearchKeys {
+
+    public static final char LIKE_ESCAPE = '!';
+
+    private OrderSearchKeys() {
+    }
+
+    public static String orderNumber(String value) {
+        return value == null ? null : value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public static String email(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Digits of a phone number, reversed so that "ends with" becomes an index-friendly prefix match.
+     */
+    public static String reversedPhone(String value) {
+        String digits = digits(value);
+        return digits == null ? null : new StringBuilder(digits).reverse().toString();
+    }
+
+    public static String trackingNumber(String value) {
+        if (value == null) {
+            return null;
+        }
+        String key = value.replaceAll("[^A-Za-z0-9]", "").toUpperCase(Locale.ROOT);
+        return key.isEmpty() ? null : key;
+    }
+
+    /**
+     * Escapes the LIKE wildcards in a search key so user input only ever matches literally. Queries
+     * using the result declare {@link #LIKE_ESCAPE} as their escape character; '!' is used instead of
+     * a backslash because MySQL also treats the backslash as a string-literal escape.
+     */
+    public static String likePrefix(String key) {
+        if (key == null) {
+            return null;
+        }
+        StringBuilder escaped = new StringBuilder(key.length() + 4);
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    public static String digits(String value) {
+        if (value == null) {
+            return null;
+        }
+        String digits = value.replaceAll("\\D", "");
+        return digits.isEmpty() ? null : digits;
+    }
+}
@@ -0,0 +1,13 @@
+package com.pm.orderservice.search;
+
+/**
+ * The strategy chosen for a search term and the normalized key(s) it is run with.
+ *
+ * @param fallback strategy to try when this one finds nothing, or {@code null}
+ */
+public record OrderSearchPlan(SearchStrategy strategy, String key, String secondaryKey, SearchStrategy fallback) {
+
+    public static OrderSearchPlan none() {
+        return new OrderSearchPlan(SearchStrategy.NONE, null, null, null);
+    }
+}
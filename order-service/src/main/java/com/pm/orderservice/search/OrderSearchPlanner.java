@@ -0,0 +1,67 @@
+package com.pm.orderservice.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Pattern;
+
+/**
+ * Picks the cheapest way to answer a support search from the shape of the term. Order numbers,
+ * emails, phone numbers and tracking numbers each map to a range scan on an indexed lookup column;
+ * only terms that cannot be anchored (such as an email domain) go to the n-gram full-text index,
+ * which is also the fallback when an anchored search finds nothing. Keys for prefix strategies are
+ * LIKE-escaped, so a '%' or '_' in the term is matched literally.
+ */
+@Component
+public class OrderSearchPlanner {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern PHONE_LIKE = Pattern.compile("^[+()0-9\\s.-]+$");
+
+    @Value("${order.search.min-term-length:3}")
+    private int minTermLength;
+
+    @Value("${order.search.min-phone-digits:4}")
+    private int minPhoneDigits;
+
+    @Value("${order.search.ngram.enabled:false}")
+    private boolean ngramEnabled;
+
+    public OrderSearchPlan plan(String term) {
+        String trimmed = term == null ? "" : term.trim();
+        if (trimmed.length() < minTermLength) {
+            return OrderSearchPlan.none();
+        }
+        SearchStrategy fallback = ngramEnabled ? SearchStrategy.FUZZY : null;
+
+        String orderNumber = OrderSearchKeys.orderNumber(trimmed);
+        if (orderNumber.startsWith("ORD-")) {
+            return new OrderSearchPlan(SearchStrategy.ORDER_NUMBER,
+                    OrderSearchKeys.likePrefix(orderNumber), null, null);
+        }
+        if (trimmed.indexOf('@') >= 0) {
+            if (trimmed.startsWith("@")) {
+                // A domain cannot be anchored on the left, so only the n-gram index can serve it
+                return ngramEnabled ? fuzzy(trimmed) : OrderSearchPlan.none();
+            }
+            String email = OrderSearchKeys.email(trimmed);
+            return EMAIL.matcher(trimmed).matches()
+                    ? new OrderSearchPlan(SearchStrategy.EMAIL, email, null, fallback)
+                    : new OrderSearchPlan(SearchStrategy.EMAIL_PREFIX, OrderSearchKeys.likePrefix(email), null, fallback);
+        }
+        String digits = OrderSearchKeys.digits(trimmed);
+        if (PHONE_LIKE.matcher(trimmed).matches() && digits != null && digits.length() >= minPhoneDigits) {
+            return new OrderSearchPlan(SearchStrategy.PHONE_OR_TRACKING,
+                    OrderSearchKeys.reversedPhone(trimmed), digits, fallback);
+        }
+        String tracking = OrderSearchKeys.trackingNumber(trimmed);
+        return new OrderSearchPlan(SearchStrategy.TEXT_PREFIX,
+                OrderSearchKeys.likePrefix(OrderSearchKeys.email(trimmed)),
+                OrderSearchKeys.likePrefix(tracking != null ? tracking : trimmed), fallback);
+    }
+
+    public OrderSearchPlan fuzzy(String term) {
+        // Quoted as a phrase: with the ngram parser that is a substring match, and operators in the term are inert
+        return new OrderSearchPlan(SearchStrategy.FUZZY, "\"" + term.trim().replace("\"", "") + "\"", null, null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.pm.orderservice.search;
+
+public enum SearchStrategy {
+    /** Term too short to search selectively */
+    NONE,
+    /** Order number prefix on {@code order_number} */
+    ORDER_NUMBER,
+    /** Exact match on the lowercased email */
+    EMAIL,
+    /** Prefix of the lowercased email */
+    EMAIL_PREFIX,
+    /** Suffix of the phone number (prefix of its reversed digits) or prefix of the tracking number */
+    PHONE_OR_TRACKING,
+    /** Prefix of the email or the tracking number */
+    TEXT_PREFIX,
+    /** Substring match through the n-gram full-text index */
+    FUZZY
+}
@@ -0,0 +1,220 @@
+package com.pm.orderservice.service;
+
+import com.pm.orderservice.client.CartServiceClient;
+import com.pm.orderservice.client.ProductServiceClient;
+import com.pm.orderservice.client.PromotionServiceClient;
+import com.pm.orderservice.dto.CreateOrderRequest;
+import com.pm.orderservice.dto.cart.CartDto;
+import com.pm.orderservice.dto.product.ProductAvailabilityDto;
+import com.pm.orderservice.dto.product.StockReservationLine;
+import com.pm.orderservice.dto.promotion.PromotionValidationDto;
+import com.pm.orderservice.exception.CheckoutException;
+import com.pm.orderservice.exception.CheckoutTimeoutException;
+import com.pm.orderservice.model.OrderItem;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Gathers what an order needs from other services. Once the lines are known (from the request or
+ * the user's cart), catalog prices, stock reservation and promotion validation run concurrently on
+ * virtual threads under one deadline, so checkout waits for the slowest call rather than their sum.
+ * Any failure releases the stock reservation once it has settled.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CheckoutOrchestrator implements DisposableBean {
+
+    private final CartServiceClient cartServiceClient;
+    private final ProductServiceClient productServiceClient;
+    private final PromotionServiceClient promotionServiceClient;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${checkout.deadline:3s}")
+    private Duration deadline;
+
+    public CheckoutPlan prepare(CreateOrderRequest request) {
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+        List<CheckoutLine> lines = checkoutLines(request);
+        String reference = UUID.randomUUID().toString();
+        String discountCode = StringUtils.hasText(request.getDiscountCode()) ? request.getDiscountCode().trim() : null;
+        BigDecimal expectedSubtotal = lines.stream()
+                .filter(line -> line.unitPrice() != null)
+                .map(line -> line.unitPrice().multiply(BigDecimal.valueOf(line.quantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        CompletableFuture<Map<UUID, ProductAvailabilityDto>> catalog = async(() ->
+                productServiceClient.getAvailability(lines.stream().map(CheckoutLine::productId).toList()).stream()
+                        .collect(Collectors.toMap(ProductAvailabilityDto::getProductId, Function.identity())));
+        CompletableFuture<Void> reservation = async(() -> {
+            productServiceClient.reserveStock(reference, lines.stream()
+                    .map(line -> new StockReservationLine(line.productId(), line.quantity()))
+                    .toList());
+            return null;
+        });
+        CompletableFuture<PromotionValidationDto> promotion = discountCode == null
+                ? CompletableFuture.completedFuture(null)
+                : async(() -> promotionServiceClient.validatePromotion(discountCode, request.getUserId(), expectedSubtotal));
+
+        try {
+            awaitAll(deadlineNanos, catalog, reservation, promotion);
+            return plan(request.getUserId(), reference, lines, catalog.join(),
+                    discountCode, expectedSubtotal, promotion.join(), deadlineNanos);
+        } catch (RuntimeException e) {
+            reservation.whenCompleteAsync((ignored, failure) -> releaseQuietly(reference), executor);
+            throw e;
+        }
+    }
+
+    /**
+     * Gives back the stock of a plan whose order could not be stored.
+     */
+    public void release(CheckoutPlan plan) {
+        executor.execute(() -> releaseQuietly(plan.reservationReference()));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private List<CheckoutLine> checkoutLines(CreateOrderRequest request) {
+        List<CheckoutLine> lines = new ArrayList<>();
+        if (request.getOrderItems() != null && !request.getOrderItems().isEmpty()) {
+            request.getOrderItems().forEach(item -> lines.add(new CheckoutLine(item.getProductId(), item.getQuantity(),
+                    item.getProductName(), item.getProductSku(), item.getUnitPrice(), item.getProductImageUrl())));
+        } else {
+            CartDto cart = cartServiceClient.getCartByUserId(request.getUserId());
+            if (cart != null && cart.getCartItems() != null) {
+                cart.getCartItems().forEach(item -> lines.add(new CheckoutLine(item.getProductId(), item.getQuantity(),
+                        item.getProductName(), item.getProductSku(), item.getUnitPrice(), item.getProductImageUrl())));
+            }
+        }
+        if (lines.isEmpty()) {
+            throw new CheckoutException("Cart is empty for user ID: " + request.getUserId());
+        }
+
+        Map<UUID, CheckoutLine> merged = new LinkedHashMap<>();
+        lines.forEach(line -> merged.merge(line.productId(), line, CheckoutLine::plus));
+        return List.copyOf(merged.values());
+    }
+
+    private CheckoutPlan plan(Integer userId, String reference, List<CheckoutLine> lines,
+                              Map<UUID, ProductAvailabilityDto> catalog, String discountCode,
+                              BigDecimal expectedSubtotal, PromotionValidationDto promotion,
+                              long deadlineNanos) {
+        List<OrderItem> items = new ArrayList<>(lines.size());
+        for (CheckoutLine line : lines) {
+            ProductAvailabilityDto product = catalog.get(line.productId());
+            if (product == null || !ProductAvailabilityDto.STATUS_ACTIVE.equalsIgnoreCase(product.getStatus())) {
+                throw new CheckoutException("Product is no longer available: " + line.productId());
+            }
+            // The catalog price is authoritative; cart prices may be stale
+            BigDecimal unitPrice = product.getPrice();
+            items.add(OrderItem.builder()
+                    .productId(line.productId())
+                    .productName(product.getName() != null ? product.getName() : line.productName())
+                    .productSku(product.getSku() != null ? product.getSku() : line.productSku())
+                    .unitPrice(unitPrice)
+                    .quantity(line.quantity())
+                    .totalPrice(unitPrice.multiply(BigDecimal.valueOf(line.quantity())))
+                    .discountAmount(BigDecimal.ZERO)
+                    .taxAmount(BigDecimal.ZERO)
+                    .productImageUrl(line.productImageUrl())
+                    .build());
+        }
+        BigDecimal subtotal = items.stream()
+                .map(OrderItem::getTotalPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        if (discountCode == null) {
+            return new CheckoutPlan(reference, items, subtotal, null, null, BigDecimal.ZERO);
+        }
+        // The code was validated against the submitted prices; recheck only if the catalog disagreed
+        if (promotion != null && promotion.isSuccess() && subtotal.compareTo(expectedSubtotal) != 0) {
+            CompletableFuture<PromotionValidationDto> revalidation = async(() ->
+                    promotionServiceClient.validatePromotion(discountCode, userId, subtotal));
+            awaitAll(deadlineNanos, revalidation);
+            promotion = revalidation.join();
+        }
+        if (promotion == null || !promotion.isSuccess()) {
+            throw new CheckoutException("Promotion code " + discountCode + " was rejected: "
+                    + (promotion != null ? promotion.getMessage() : "no response"));
+        }
+        BigDecimal discountAmount = promotion.getDiscountAmount() != null ? promotion.getDiscountAmount() : BigDecimal.ZERO;
+        return new CheckoutPlan(reference, items, subtotal, discountCode, promotion.getPromotionType(), discountAmount);
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor);
+    }
+
+    private void awaitAll(long deadlineNanos, CompletableFuture<?>... futures) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures);
+        // Fail on the first error instead of waiting for the remaining calls
+        for (CompletableFuture<?> future : futures) {
+            future.whenComplete((result, failure) -> {
+                if (failure != null) {
+                    all.completeExceptionally(failure);
+                }
+            });
+        }
+        try {
+            all.get(Math.max(deadlineNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new CheckoutTimeoutException("Checkout did not complete within " + deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CheckoutException("Checkout was interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new CheckoutException("Checkout failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private void releaseQuietly(String reference) {
+        try {
+            productServiceClient.releaseStock(reference);
+        } catch (Exception e) {
+            log.error("Failed to release stock reservation {}", reference, e);
+        }
+    }
+
+    private record CheckoutLine(UUID productId, int quantity, String productName, String productSku,
+                                BigDecimal unitPrice, String productImageUrl) {
+
+        CheckoutLine plus(CheckoutLine other) {
+            return new CheckoutLine(productId, quantity + other.quantity, productName, productSku,
+                    unitPrice, productImageUrl);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.pm.orderservice.service;
+
+import com.pm.orderservice.model.OrderItem;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Everything gathered from other services to place one order: priced items, the applied discount
+ * and the stock reservation held for them.
+ */
+public record CheckoutPlan(String reservationReference,
+                           List<OrderItem> items,
+                           BigDecimal subtotal,
+                           String discountCode,
+                           String discountType,
+                           BigDecimal discountAmount) {
+
+    public BigDecimal totalAmount() {
+        return subtotal.subtract(discountAmount).max(BigDecimal.ZERO);
+    }
+}
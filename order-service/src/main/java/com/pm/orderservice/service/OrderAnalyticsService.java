@@ -0,0 +1,18 @@
+package com.pm.orderservice.service;
+
+import com.pm.orderservice.dto.analytics.OrderAnalyticsDto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public interface OrderAnalyticsService {
+
+    OrderAnalyticsDto getOrderTotals(Instant from, Instant to);
+
+    /**
+     * Rebuilds the rollups of the UTC days {@code [fromDay, toDay)} from the live and archived orders.
+     *
+     * @return number of days rebuilt
+     */
+    int backfill(LocalDate fromDay, LocalDate toDay);
+}
@@ -0,0 +1,13 @@
+package com.pm.orderservice.service;
+
+import com.pm.orderservice.model.Order;
+
+/**
+ * Published whenever an order is created or changed. Listeners run once the change has committed.
+ */
+public record OrderChangedEvent(Long orderId, String orderNumber, Integer userId) {
+
+    public static OrderChangedEvent of(Order order) {
+        return new OrderChangedEvent(order.getOrderId(), order.getOrderNumber(), order.getUserId());
+    }
+}
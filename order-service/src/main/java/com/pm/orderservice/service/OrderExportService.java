@@ -0,0 +1,16 @@
+package com.pm.orderservice.service;
+
+import com.pm.orderservice.export.ExportFormat;
+
+import java.io.OutputStream;
+import java.time.Instant;
+
+public interface OrderExportService {
+
+    /**
+     * Streams the orders placed in {@code [from, to)} with their items to {@code out}, which is left open.
+     *
+     * @return number of orders written
+     */
+    long exportOrders(Instant from, Instant to, ExportFormat format, OutputStream out);
+}
@@ -0,0 +1,12 @@
+package com.pm.orderservice.service;
+
+import com.pm.orderservice.dto.fulfilment.BulkDeliverRequest;
+import com.pm.orderservice.dto.fulfilment.BulkShipRequest;
+import com.pm.orderservice.dto.fulfilment.BulkStatusResponse;
+
+public interface OrderFulfilmentService {
+
+    BulkStatusResponse shipOrders(BulkShipRequest request);
+
+    BulkStatusResponse deliverOrders(BulkDeliverRequest request);
+}
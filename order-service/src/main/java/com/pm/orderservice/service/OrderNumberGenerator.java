@@ -0,0 +1,90 @@
+package com.pm.orderservice.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake-style order numbers: 41 bits of milliseconds since {@link #EPOCH}, a 10-bit node id and
+ * a 12-bit per-millisecond sequence, written as 13 Crockford base32 characters after {@code ORD-}.
+ * Numbers are unique across nodes without a database round trip, and because the width is fixed and
+ * the alphabet is in ASCII order they sort in creation order, so inserts land at the right edge of
+ * the {@code order_number} index. Uniqueness rests on every instance having its own node id, so the
+ * id must be configured; a derived one could collide and is not attempted.
+ */
+@Component
+public class OrderNumberGenerator {
+
+    public static final String PREFIX = "ORD-";
+
+    static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    // Last issued (timestamp << SEQUENCE_BITS | sequence), advanced with CAS so callers never block
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public OrderNumberGenerator(@Value("${order.number.node-id:-1}") int nodeId) {
+        this(requireConfigured(nodeId), System::currentTimeMillis);
+    }
+
+    OrderNumberGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Order number node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    public String next() {
+        return PREFIX + encode(nextId());
+    }
+
+    long nextId() {
+        while (true) {
+            long last = lastState.get();
+            long lastTimestamp = last >>> SEQUENCE_BITS;
+            // A clock that steps back keeps using the last timestamp, and an exhausted millisecond
+            // borrows the next one; either way ids stay strictly increasing
+            long timestamp = Math.max(clock.getAsLong() - EPOCH.toEpochMilli(), lastTimestamp);
+            long sequence = timestamp == lastTimestamp ? (last & SEQUENCE_MASK) + 1 : 0;
+            if (sequence > SEQUENCE_MASK) {
+                timestamp++;
+                sequence = 0;
+            }
+            long next = (timestamp << SEQUENCE_BITS) | sequence;
+            if (lastState.compareAndSet(last, next)) {
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+
+    static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private static int requireConfigured(int nodeId) {
+        if (nodeId < 0) {
+            throw new IllegalStateException("order.number.node-id (ORDER_NODE_ID) is not set; give each instance "
+                    + "a distinct id between 0 and " + MAX_NODE_ID);
+        }
+        return nodeId;
+    }
+}
@@ -17,7 +17,7 @@ public interface OrderService {
 
     // Order Listing and Filtering
     CollectionResponse<OrderDto> getAllOrders(Pageable pageable);
-    CollectionResponse<OrderDto> getOrdersByUserId(Integer userId, Pageable pageable);
+    CollectionResponse<OrderDto> getOrdersByUserId(Integer userId, boolean includeArchived, Pageable pageable);
     CollectionResponse<OrderDto> getOrdersByStatus(OrderStatus status, Pageable pageable);
     CollectionResponse<OrderDto> getOrdersByDateRange(Instant startDate, Instant endDate, Pageable pageable);
     CollectionResponse<OrderSummaryDto> getOrderSummariesByUserId(Integer userId, Pageable pageable);
@@ -32,7 +32,7 @@ public interface OrderService {
     // Order Search and Analytics
     CollectionResponse<OrderDto> searchOrders(String searchTerm, Pageable pageable);
     long countOrdersByStatus(OrderStatus status);
-    long countOrdersByUserId(Integer userId);
+    long countOrdersByUserId(Integer userId, boolean includeArchived);
 
     // Order Validation
     boolean canUpdateOrderStatus(Long orderId, OrderStatus newStatus);
@@ -0,0 +1,246 @@
+package com.pm.orderservice.service;
+
+import com.pm.orderservice.exception.OrderStateConflictException;
+import com.pm.orderservice.model.Order;
+import com.pm.orderservice.model.OrderStatus;
+import com.pm.orderservice.model.OrderStatusHistory;
+import com.pm.orderservice.outbox.OrderOutbox;
+import com.pm.orderservice.repository.OrderRepository;
+import com.pm.orderservice.repository.OrderStatusHistoryRepository;
+import com.pm.orderservice.search.OrderSearchKeys;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Order status transitions. Allowed moves and what entering a status stamps on the order are
+ * declared in {@link #TRANSITIONS} and {@link #ON_ENTER}. A transition is written with one
+ * compare-and-set UPDATE on (status, version), so of two concurrent writers exactly one wins and the
+ * other gets an {@link OrderStateConflictException}; every accepted transition is added to
+ * {@code order_status_history} and published through the outbox.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class OrderStateMachine {
+
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+    private static final Map<OrderStatus, List<Stamp>> ON_ENTER = new EnumMap<>(OrderStatus.class);
+
+    // Fields a transition's changes may set per order; a bulk transition writes those that differ
+    private static final List<Field> PER_ORDER_FIELDS = List.of(
+            new Field("trackingNumber", Order::getTrackingNumber),
+            new Field("trackingSearchKey", Order::getTrackingSearchKey),
+            new Field("shippingMethod", Order::getShippingMethod),
+            new Field("adminNotes", Order::getAdminNotes),
+            new Field("cancellationReason", Order::getCancellationReason));
+
+    static {
+        allow(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.CANCELLED);
+        allow(OrderStatus.CONFIRMED, OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.CANCELLED);
+        allow(OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.CANCELLED);
+        allow(OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+        allow(OrderStatus.DELIVERED, OrderStatus.REFUNDED);
+
+        onEnter(OrderStatus.CONFIRMED, new Stamp("confirmedDate", Order::setConfirmedDate));
+        onEnter(OrderStatus.SHIPPED, new Stamp("shippedDate", Order::setShippedDate));
+        onEnter(OrderStatus.DELIVERED, new Stamp("deliveredDate", Order::setDeliveredDate),
+                new Stamp("actualDeliveryDate", Order::setActualDeliveryDate));
+        onEnter(OrderStatus.CANCELLED, new Stamp("cancelledDate", Order::setCancelledDate));
+    }
+
+    private final OrderRepository orderRepository;
+    private final OrderStatusHistoryRepository orderStatusHistoryRepository;
+    private final OrderOutbox orderOutbox;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public static boolean canTransition(OrderStatus from, OrderStatus to) {
+        return TRANSITIONS.getOrDefault(from, Collections.emptySet()).contains(to);
+    }
+
+    /**
+     * Moves a freshly read order to {@code target}. {@code changes} may set fields that travel with
+     * the transition (tracking number, notes). On return the order reflects the stored state; it is
+     * detached, so it should be loaded with everything the caller needs to map it.
+     */
+    public Order transition(Order order, OrderStatus target, Consumer<Order> changes, String note) {
+        OrderStatus current = order.getStatus();
+        if (!canTransition(current, target)) {
+            throw new OrderStateConflictException("Cannot update order status from " + current + " to " + target);
+        }
+        Long expectedVersion = order.getVersion();
+
+        // Changes are made on a detached copy and written only by the compare-and-set below
+        entityManager.detach(order);
+        Instant now = Instant.now();
+        order.setStatus(target);
+        apply(order, target, changes, now);
+
+        if (orderRepository.compareAndSetStatus(order, current, expectedVersion) == 0) {
+            throw new OrderStateConflictException("Order " + order.getOrderId() + " was changed concurrently; "
+                    + "it is no longer " + current + " at version " + expectedVersion);
+        }
+        order.setVersion(expectedVersion + 1);
+
+        orderStatusHistoryRepository.save(OrderStatusHistory.builder()
+                .orderId(order.getOrderId())
+                .fromStatus(current)
+                .toStatus(target)
+                .orderVersion(order.getVersion())
+                .note(note)
+                .changedAt(now)
+                .build());
+        orderOutbox.recordStatusChange(order, current);
+        eventPublisher.publishEvent(OrderChangedEvent.of(order));
+        log.info("Order {} moved from {} to {} (version {})", order.getOrderId(), current, target, order.getVersion());
+        return order;
+    }
+
+    /**
+     * Moves many orders to {@code target} with one set-based UPDATE. The orders must have been read
+     * with a row lock in the current transaction and must all be allowed to enter {@code target};
+     * {@code changes} may only set the fields in {@link #PER_ORDER_FIELDS}. Each order still gets its
+     * own history row and outbox event. On return the orders are detached and reflect the stored state.
+     */
+    public List<Order> transitionAll(List<Order> orders, OrderStatus target, Consumer<Order> changes, String note) {
+        if (orders.isEmpty()) {
+            return orders;
+        }
+        Map<Long, OrderStatus> previous = new HashMap<>();
+        Map<Long, List<Object>> before = new HashMap<>();
+        for (Order order : orders) {
+            if (!canTransition(order.getStatus(), target)) {
+                throw new IllegalArgumentException("Cannot update order " + order.getOrderId()
+                        + " from " + order.getStatus() + " to " + target);
+            }
+            previous.put(order.getOrderId(), order.getStatus());
+            before.put(order.getOrderId(), PER_ORDER_FIELDS.stream().map(field -> field.value(order)).toList());
+        }
+
+        Instant now = Instant.now();
+        orders.forEach(entityManager::detach);
+        orders.forEach(order -> apply(order, target, changes, now));
+
+        StringBuilder jpql = new StringBuilder(
+                "UPDATE Order o SET o.status = :target, o.version = o.version + 1, o.updatedAt = :now");
+        ON_ENTER.getOrDefault(target, List.of())
+                .forEach(stamp -> jpql.append(", o.").append(stamp.attribute()).append(" = :now"));
+        Map<String, Object> parameters = new HashMap<>();
+        for (int f = 0; f < PER_ORDER_FIELDS.size(); f++) {
+            Field field = PER_ORDER_FIELDS.get(f);
+            int index = f;
+            List<Order> changed = orders.stream()
+                    .filter(order -> !Objects.equals(before.get(order.getOrderId()).get(index), field.value(order)))
+                    .toList();
+            if (changed.isEmpty()) {
+                continue;
+            }
+            jpql.append(", o.").append(field.attribute()).append(" = CASE o.orderId");
+            for (int i = 0; i < changed.size(); i++) {
+                String suffix = f + "_" + i;
+                jpql.append(" WHEN :id").append(suffix).append(" THEN :value").append(suffix);
+                parameters.put("id" + suffix, changed.get(i).getOrderId());
+                parameters.put("value" + suffix, field.value(changed.get(i)));
+            }
+            jpql.append(" ELSE o.").append(field.attribute()).append(" END");
+        }
+        jpql.append(" WHERE o.orderId IN :orderIds AND o.status IN :sources");
+
+        Query update = entityManager.createQuery(jpql.toString())
+                .setParameter("target", target)
+                .setParameter("now", now)
+                .setParameter("orderIds", previous.keySet())
+                .setParameter("sources", EnumSet.copyOf(previous.values()));
+        parameters.forEach(update::setParameter);
+        int updated = update.executeUpdate();
+        if (updated != orders.size()) {
+            // Only possible if the caller did not hold the row locks it promised
+            throw new OrderStateConflictException("Expected to move " + orders.size() + " orders to " + target
+                    + " but " + updated + " were updated");
+        }
+
+        List<OrderStatusHistory> history = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            order.setVersion(order.getVersion() + 1);
+            history.add(OrderStatusHistory.builder()
+                    .orderId(order.getOrderId())
+                    .fromStatus(previous.get(order.getOrderId()))
+                    .toStatus(target)
+                    .orderVersion(order.getVersion())
+                    .note(note)
+                    .changedAt(now)
+                    .build());
+            orderOutbox.recordStatusChange(order, previous.get(order.getOrderId()));
+            eventPublisher.publishEvent(OrderChangedEvent.of(order));
+        }
+        orderStatusHistoryRepository.saveAll(history);
+        log.info("Moved {} orders to {}", orders.size(), target);
+        return orders;
+    }
+
+    /**
+     * Records the initial status of a newly stored order.
+     */
+    public void created(Order order) {
+        orderStatusHistoryRepository.save(OrderStatusHistory.builder()
+                .orderId(order.getOrderId())
+                .toStatus(order.getStatus())
+                .orderVersion(order.getVersion())
+                .changedAt(order.getOrderDate())
+                .build());
+        orderOutbox.recordStatusChange(order, null);
+        eventPublisher.publishEvent(OrderChangedEvent.of(order));
+    }
+
+    private static void apply(Order order, OrderStatus target, Consumer<Order> changes, Instant now) {
+        order.setStatus(target);
+        ON_ENTER.getOrDefault(target, List.of()).forEach(stamp -> stamp.setter().accept(order, now));
+        if (changes != null) {
+            changes.accept(order);
+        }
+        order.setTrackingSearchKey(OrderSearchKeys.trackingNumber(order.getTrackingNumber()));
+        order.setUpdatedAt(now);
+    }
+
+    private static void allow(OrderStatus from, OrderStatus... to) {
+        TRANSITIONS.put(from, Collections.unmodifiableSet(EnumSet.of(to[0], to)));
+    }
+
+    private static void onEnter(OrderStatus status, Stamp... stamps) {
+        ON_ENTER.put(status, List.of(stamps));
+    }
+
+    /**
+     * A timestamp set to the transition time when an order enters a status.
+     */
+    private record Stamp(String attribute, BiConsumer<Order, Instant> setter) {
+    }
+
+    private record Field(String attribute, Function<Order, Object> getter) {
+
+        Object value(Order order) {
+            return getter.apply(order);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.pm.orderservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.orderservice.archive.OrderArchivePolicy;
+import com.pm.orderservice.archive.OrderArchiveReader;
+import com.pm.orderservice.export.ExportFormat;
+import com.pm.orderservice.export.OrderExportWriter;
+import com.pm.orderservice.repository.OrderExportRow;
+import com.pm.orderservice.repository.OrderItemExportRow;
+import com.pm.orderservice.repository.OrderItemRepository;
+import com.pm.orderservice.repository.OrderRepository;
+import com.pm.orderservice.service.OrderExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exports orders in constant memory. Orders and items are read through two forward-only cursors
+ * sorted by the same (orderDate, orderId) key and merged as they are written, so an order's items
+ * arrive with it without a query per order. Rows are projections rather than entities, so nothing
+ * accumulates in the persistence context. Both cursors run in one read-only transaction and
+ * therefore see the same snapshot. When the range reaches past the archive horizon, the archive
+ * tables are read the same way and the two sources are merged on the same key.
+ */
+@Slf4j
+@Service
+public class OrderExportServiceImpl implements OrderExportService {
+
+    private static final Comparator<OrderExportRow> EXPORT_ORDER =
+            Comparator.comparing(OrderExportRow::orderDate).thenComparing(OrderExportRow::orderId);
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderArchiveReader orderArchiveReader;
+    private final OrderArchivePolicy orderArchivePolicy;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderExportServiceImpl(OrderRepository orderRepository,
+                                  OrderItemRepository orderItemRepository,
+                                  OrderArchiveReader orderArchiveReader,
+                                  OrderArchivePolicy orderArchivePolicy,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.orderArchiveReader = orderArchiveReader;
+        this.orderArchivePolicy = orderArchivePolicy;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public long exportOrders(Instant from, Instant to, ExportFormat format, OutputStream out) {
+        long started = System.nanoTime();
+        boolean includeArchive = orderArchivePolicy.reachesArchive(from);
+        long exported = transactionTemplate.execute(status -> {
+            try (Stream<OrderExportRow> orders = orderRepository.streamExportRows(from, to);
+                 Stream<OrderItemExportRow> items = orderItemRepository.streamExportRows(from, to);
+                 Stream<OrderExportRow> archivedOrders = includeArchive
+                         ? orderArchiveReader.streamExportRows(from, to) : Stream.empty();
+                 Stream<OrderItemExportRow> archivedItems = includeArchive
+                         ? orderArchiveReader.streamItemExportRows(from, to) : Stream.empty()) {
+                return write(new Cursor(orders.iterator(), items.iterator()),
+                        new Cursor(archivedOrders.iterator(), archivedItems.iterator()),
+                        format.writer(out, objectMapper));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Order export failed", e);
+            }
+        });
+        log.info("Exported {} orders between {} and {} as {} in {} ms",
+                exported, from, to, format, (System.nanoTime() - started) / 1_000_000);
+        return exported;
+    }
+
+    private long write(Cursor live, Cursor archived, OrderExportWriter writer) throws IOException {
+        long count = 0;
+        live.advance();
+        archived.advance();
+        while (live.order != null || archived.order != null) {
+            Cursor next = archived.order == null
+                    || (live.order != null && EXPORT_ORDER.compare(live.order, archived.order) <= 0) ? live : archived;
+            writer.write(next.order, next.orderItems);
+            next.advance();
+            count++;
+        }
+        writer.finish();
+        return count;
+    }
+
+    /**
+     * Walks an order cursor together with an item cursor in the same order, one order and its items
+     * at a time.
+     */
+    private static final class Cursor {
+        private final Iterator<OrderExportRow> orders;
+        private final Iterator<OrderItemExportRow> items;
+        private final List<OrderItemExportRow> orderItems = new ArrayList<>();
+        private OrderItemExportRow nextItem;
+        private OrderExportRow order;
+
+        Cursor(Iterator<OrderExportRow> orders, Iterator<OrderItemExportRow> items) {
+            this.orders = orders;
+            this.items = items;
+            this.nextItem = items.hasNext() ? items.next() : null;
+        }
+
+        void advance() {
+            order = orders.hasNext() ? orders.next() : null;
+            orderItems.clear();
+            while (order != null && nextItem != null && nextItem.orderId().equals(order.orderId())) {
+                orderItems.add(nextItem);
+                nextItem = items.hasNext() ? items.next() : null;
+            }
+        }
+    }
+}
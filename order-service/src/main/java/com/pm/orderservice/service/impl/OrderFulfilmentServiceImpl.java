@@ -0,0 +1,165 @@
+package com.pm.orderservice.service.impl;
+
+import com.pm.orderservice.dto.fulfilment.BulkDeliverRequest;
+import com.pm.orderservice.dto.fulfilment.BulkOrderOutcome;
+import com.pm.orderservice.dto.fulfilment.BulkOutcome;
+import com.pm.orderservice.dto.fulfilment.BulkShipRequest;
+import com.pm.orderservice.dto.fulfilment.BulkStatusResponse;
+import com.pm.orderservice.dto.fulfilment.ShipmentLine;
+import com.pm.orderservice.model.Order;
+import com.pm.orderservice.model.OrderStatus;
+import com.pm.orderservice.repository.OrderRepository;
+import com.pm.orderservice.service.OrderFulfilmentService;
+import com.pm.orderservice.service.OrderStateMachine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Applies one status change to many orders. The batch is split into chunks; each chunk is locked
+ * with one SELECT ... FOR UPDATE, moved with one set-based UPDATE and committed on its own, so a
+ * failing chunk does not undo the others and every order gets its own outcome.
+ */
+@Slf4j
+@Service
+public class OrderFulfilmentServiceImpl implements OrderFulfilmentService {
+
+    private final OrderRepository orderRepository;
+    private final OrderStateMachine orderStateMachine;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxBatchSize;
+
+    public OrderFulfilmentServiceImpl(OrderRepository orderRepository,
+                                      OrderStateMachine orderStateMachine,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${order.fulfilment.chunk-size:200}") int chunkSize,
+                                      @Value("${order.fulfilment.max-batch-size:5000}") int maxBatchSize) {
+        this.orderRepository = orderRepository;
+        this.orderStateMachine = orderStateMachine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public BulkStatusResponse shipOrders(BulkShipRequest request) {
+        // The first line wins when an order is listed twice; the repeat is reported as rejected
+        Map<Long, ShipmentLine> lines = new HashMap<>();
+        List<Long> orderIds = new ArrayList<>(request.getShipments().size());
+        for (ShipmentLine line : request.getShipments()) {
+            lines.putIfAbsent(line.getOrderId(), line);
+            orderIds.add(line.getOrderId());
+        }
+
+        Consumer<Order> changes = order -> {
+            ShipmentLine line = lines.get(order.getOrderId());
+            order.setTrackingNumber(line.getTrackingNumber().trim());
+            String shippingMethod = StringUtils.hasText(line.getShippingMethod())
+                    ? line.getShippingMethod() : request.getShippingMethod();
+            if (StringUtils.hasText(shippingMethod)) {
+                order.setShippingMethod(shippingMethod.trim());
+            }
+        };
+        Predicate<Order> sameShipment = order -> Objects.equals(order.getTrackingNumber(),
+                lines.get(order.getOrderId()).getTrackingNumber().trim());
+        return apply(OrderStatus.SHIPPED, orderIds, changes, sameShipment, request.getNote());
+    }
+
+    @Override
+    public BulkStatusResponse deliverOrders(BulkDeliverRequest request) {
+        return apply(OrderStatus.DELIVERED, request.getOrderIds(), null, order -> true, request.getNote());
+    }
+
+    private BulkStatusResponse apply(OrderStatus target, List<Long> orderIds, Consumer<Order> changes,
+                                     Predicate<Order> alreadyApplied, String note) {
+        if (orderIds.size() > maxBatchSize) {
+            throw new IllegalArgumentException("A batch may contain at most " + maxBatchSize + " orders");
+        }
+        long started = System.nanoTime();
+        List<Long> distinct = orderIds.stream().distinct().toList();
+
+        Map<Long, BulkOrderOutcome> outcomes = new HashMap<>();
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + chunkSize, distinct.size()));
+            try {
+                outcomes.putAll(transactionTemplate.execute(status ->
+                        applyChunk(target, chunk, changes, alreadyApplied, note)));
+            } catch (RuntimeException e) {
+                log.error("Bulk move to {} failed for a chunk of {} orders starting at {}",
+                        target, chunk.size(), chunk.get(0), e);
+                chunk.forEach(orderId -> outcomes.put(orderId, outcome(orderId, BulkOutcome.FAILED, null, null,
+                        "Chunk failed: " + e.getMessage())));
+            }
+        }
+
+        List<BulkOrderOutcome> ordered = new ArrayList<>(orderIds.size());
+        Set<Long> seen = new HashSet<>();
+        Map<BulkOutcome, Integer> counts = new EnumMap<>(BulkOutcome.class);
+        for (Long orderId : orderIds) {
+            BulkOrderOutcome result = seen.add(orderId) ? outcomes.get(orderId)
+                    : outcome(orderId, BulkOutcome.REJECTED, null, null, "Order is listed more than once");
+            ordered.add(result);
+            counts.merge(result.getOutcome(), 1, Integer::sum);
+        }
+        log.info("Bulk move of {} orders to {} finished in {} ms: {}",
+                orderIds.size(), target, (System.nanoTime() - started) / 1_000_000, counts);
+        return BulkStatusResponse.builder()
+                .targetStatus(target)
+                .requested(orderIds.size())
+                .counts(counts)
+                .outcomes(ordered)
+                .build();
+    }
+
+    private Map<Long, BulkOrderOutcome> applyChunk(OrderStatus target, List<Long> chunk, Consumer<Order> changes,
+                                                   Predicate<Order> alreadyApplied, String note) {
+        Map<Long, BulkOrderOutcome> outcomes = new LinkedHashMap<>();
+        List<Order> movable = new ArrayList<>();
+        for (Order order : orderRepository.findForUpdateByOrderIdIn(chunk)) {
+            if (order.getStatus() == target && alreadyApplied.test(order)) {
+                outcomes.put(order.getOrderId(), outcome(order.getOrderId(), BulkOutcome.UNCHANGED,
+                        order.getStatus(), order.getVersion(), null));
+            } else if (OrderStateMachine.canTransition(order.getStatus(), target)) {
+                movable.add(order);
+            } else {
+                outcomes.put(order.getOrderId(), outcome(order.getOrderId(), BulkOutcome.REJECTED,
+                        order.getStatus(), order.getVersion(),
+                        "Cannot update order status from " + order.getStatus() + " to " + target));
+            }
+        }
+        for (Order order : orderStateMachine.transitionAll(movable, target, changes, note)) {
+            outcomes.put(order.getOrderId(), outcome(order.getOrderId(), BulkOutcome.UPDATED,
+                    order.getStatus(), order.getVersion(), null));
+        }
+        chunk.forEach(orderId -> outcomes.computeIfAbsent(orderId, id ->
+                outcome(id, BulkOutcome.NOT_FOUND, null, null, "Order not found")));
+        return outcomes;
+    }
+
+    private static BulkOrderOutcome outcome(Long orderId, BulkOutcome outcome, OrderStatus status,
+                                            Long version, String message) {
+        return BulkOrderOutcome.builder()
+                .orderId(orderId)
+                .outcome(outcome)
+                .status(status)
+                .version(version)
+                .message(message)
+                .build();
+    }
+}
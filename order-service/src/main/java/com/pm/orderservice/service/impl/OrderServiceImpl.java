@@ -1,29 +1,51 @@
 package com.pm.orderservice.service.impl;
 
-import com.pm.orderservice.client.PaymentServiceClient;
+import com.pm.orderservice.archive.OrderArchivePolicy;
+import com.pm.orderservice.archive.OrderArchiveReader;
+import com.pm.orderservice.datasource.ReadYourWrites;
 import com.pm.orderservice.dto.*;
+import com.pm.orderservice.history.OrderHistoryCache;
 import com.pm.orderservice.dto.payment.CreatePaymentRequest;
-import com.pm.orderservice.dto.payment.PaymentDto;
 import com.pm.orderservice.dto.response.collection.CollectionResponse;
 import com.pm.orderservice.mapper.OrderItemMapper;
 import com.pm.orderservice.mapper.OrderMapper;
 import com.pm.orderservice.model.Order;
 import com.pm.orderservice.model.OrderItem;
 import com.pm.orderservice.model.OrderStatus;
+import com.pm.orderservice.model.RollupGranularity;
+import com.pm.orderservice.outbox.OrderOutbox;
+import com.pm.orderservice.repository.OrderArchiveRepository;
 import com.pm.orderservice.repository.OrderItemRepository;
 import com.pm.orderservice.repository.OrderRepository;
+import com.pm.orderservice.repository.OrderRollupRepository;
+import com.pm.orderservice.repository.OrderSummaryRow;
+import com.pm.orderservice.search.OrderSearch;
+import com.pm.orderservice.service.CheckoutOrchestrator;
+import com.pm.orderservice.service.CheckoutPlan;
+import com.pm.orderservice.service.OrderChangedEvent;
+import com.pm.orderservice.service.OrderNumberGenerator;
 import com.pm.orderservice.service.OrderService;
+import com.pm.orderservice.service.OrderStateMachine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -36,24 +58,32 @@ public class OrderServiceImpl implements OrderService {
     private final OrderItemRepository orderItemRepository;
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
-    private final RestTemplate restTemplate;
-    private final PaymentServiceClient paymentServiceClient;
+    private final CheckoutOrchestrator checkoutOrchestrator;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderOutbox orderOutbox;
+    private final OrderStateMachine orderStateMachine;
+    private final OrderSearch orderSearch;
+    private final OrderRollupRepository orderRollupRepository;
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final OrderArchiveReader orderArchiveReader;
+    private final OrderArchivePolicy orderArchivePolicy;
+    private final ReadYourWrites readYourWrites;
+    private final OrderHistoryCache orderHistoryCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ==================== Order Creation and Management ====================
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderDto createOrder(CreateOrderRequest request) {
         log.info("Creating order for user ID: {}", request.getUserId());
 
-        // Fetch cart from cart-service
-        String cartServiceUrl = "http://cart-service:8300/api/carts/user/" + request.getUserId();
-        var cartResponse = restTemplate.getForObject(cartServiceUrl, Object.class); // Replace Object with CartDto if shared
-        // TODO: Map cartResponse to order items (simulate for now)
-        // In production, use a shared DTO module or OpenAPI generator
-        Set<OrderItem> orderItems = Set.of(); // TODO: Map from cartResponse
-        BigDecimal totalAmount = BigDecimal.ZERO; // TODO: Calculate from cartResponse
+        // Remote calls run before any connection is taken from the pool
+        CheckoutPlan plan = checkoutOrchestrator.prepare(request);
 
         Order order = Order.builder()
+                .orderNumber(orderNumberGenerator.next())
                 .userId(request.getUserId())
                 .userEmail(request.getUserEmail())
                 .userPhone(request.getUserPhone())
@@ -66,55 +96,53 @@ public class OrderServiceImpl implements OrderService {
                 .billingPostalCode(request.getBillingPostalCode())
                 .billingCountry(request.getBillingCountry())
                 .status(OrderStatus.PENDING)
-                .subtotal(BigDecimal.ZERO)
+                .subtotal(plan.subtotal())
                 .taxAmount(BigDecimal.ZERO)
                 .shippingFee(BigDecimal.ZERO)
-                .discountAmount(BigDecimal.ZERO)
-                .totalAmount(totalAmount)
+                .discountAmount(plan.discountAmount())
+                .discountCode(plan.discountCode())
+                .discountType(plan.discountType())
+                .totalAmount(plan.totalAmount())
                 .paymentMethod(request.getPaymentMethod())
                 .paymentStatus("PENDING")
                 .shippingMethod(request.getShippingMethod())
                 .notes(request.getNotes())
                 .isGift(request.getIsGift())
                 .giftMessage(request.getGiftMessage())
-                .orderItems(orderItems)
+                .reservationReference(plan.reservationReference())
                 .build();
-
-        Order savedOrder = orderRepository.save(order);
-        log.info("Order created successfully with ID: {}", savedOrder.getOrderId());
-
-        // Create payment for the order if payment method is specified
-        if (request.getPaymentMethod() != null && !"CASH_ON_DELIVERY".equals(request.getPaymentMethod())) {
-            try {
-                CreatePaymentRequest paymentRequest = CreatePaymentRequest.builder()
-                        .orderId(savedOrder.getOrderId())
-                        .userId(savedOrder.getUserId())
-                        .userEmail(savedOrder.getUserEmail())
-                        .amount(savedOrder.getTotalAmount())
-                        .currency("VND")
-                        .gateway(request.getPaymentMethod())
-                        .description("Payment for order " + savedOrder.getOrderNumber())
-                        .timeoutMinutes(15)
-                        .build();
-
-                PaymentDto payment = paymentServiceClient.createPayment(paymentRequest);
-
-                // Update order with payment information
-                savedOrder.setPaymentReference(payment.getPaymentReference());
-                savedOrder.setPaymentGateway(payment.getGateway());
-                savedOrder.setPaymentStatus("PENDING");
-                savedOrder.setPaymentInitiatedAt(payment.getInitiatedAt());
-
-                savedOrder = orderRepository.save(savedOrder);
-                log.info("Payment created for order ID: {} with payment reference: {}",
-                        savedOrder.getOrderId(), payment.getPaymentReference());
-
-            } catch (Exception e) {
-                log.error("Failed to create payment for order ID: {}", savedOrder.getOrderId(), e);
-                // Don't fail the order creation, just log the error
-                // The payment can be created later manually
-            }
+        Set<OrderItem> orderItems = new LinkedHashSet<>();
+        plan.items().forEach(item -> {
+            item.setOrder(order);
+            orderItems.add(item);
+        });
+        order.setOrderItems(orderItems);
+
+        // The payment request and the order event commit atomically with the order; the relay delivers them
+        Order savedOrder;
+        try {
+            savedOrder = transactionTemplate.execute(status -> {
+                Order saved = orderRepository.save(order);
+                orderStateMachine.created(saved);
+                if (request.getPaymentMethod() != null && !"CASH_ON_DELIVERY".equals(request.getPaymentMethod())) {
+                    orderOutbox.requestPayment(saved, CreatePaymentRequest.builder()
+                            .orderId(saved.getOrderId())
+                            .userId(saved.getUserId())
+                            .userEmail(saved.getUserEmail())
+                            .amount(saved.getTotalAmount())
+                            .currency("VND")
+                            .gateway(request.getPaymentMethod())
+                            .description("Payment for order " + saved.getOrderNumber())
+                            .timeoutMinutes(15)
+                            .build());
+                }
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            checkoutOrchestrator.release(plan);
+            throw e;
         }
+        log.info("Order created successfully with ID: {}", savedOrder.getOrderId());
 
         return orderMapper.toDTO(savedOrder);
     }
@@ -123,18 +151,23 @@ public class OrderServiceImpl implements OrderService {
     @Transactional(readOnly = true)
     public OrderDto getOrderById(Long orderId) {
         log.info("Fetching order by ID: {}", orderId);
-        Order order = orderRepository.findById(orderId)
+        readYourWrites.readingOrder(orderId);
+        // Only a miss in the live table costs a look at the archive
+        return orderRepository.findById(orderId)
+                .map(orderMapper::toDTO)
+                .or(() -> orderArchiveReader.findById(orderId))
                 .orElseThrow(() -> new RuntimeException("Order not found with ID: " + orderId));
-        return orderMapper.toDTO(order);
     }
 
     @Override
     @Transactional(readOnly = true)
     public OrderDto getOrderByOrderNumber(String orderNumber) {
         log.info("Fetching order by order number: {}", orderNumber);
-        Order order = orderRepository.findByOrderNumber(orderNumber)
+        readYourWrites.readingOrderNumber(orderNumber);
+        return orderRepository.findByOrderNumber(orderNumber)
+                .map(orderMapper::toDTO)
+                .or(() -> orderArchiveReader.findByOrderNumber(orderNumber))
                 .orElseThrow(() -> new RuntimeException("Order not found with order number: " + orderNumber));
-        return orderMapper.toDTO(order);
     }
 
     // ==================== Order Listing and Filtering ====================
@@ -143,13 +176,10 @@ public class OrderServiceImpl implements OrderService {
     @Transactional(readOnly = true)
     public CollectionResponse<OrderDto> getAllOrders(Pageable pageable) {
         log.info("Fetching all orders with pagination: {}", pageable);
-        Page<Order> orderPage = orderRepository.findAll(pageable);
-        List<OrderDto> orders = orderPage.getContent().stream()
-                .map(orderMapper::toDTO)
-                .collect(Collectors.toList());
+        Page<OrderDto> orderPage = withItems(orderRepository.findOrderIds(pageable));
 
         return CollectionResponse.<OrderDto>builder()
-                .data(orders)
+                .data(orderPage.getContent())
                 .totalElements(orderPage.getTotalElements())
                 .totalPages(orderPage.getTotalPages())
                 .currentPage(orderPage.getNumber())
@@ -158,34 +188,33 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public CollectionResponse<OrderDto> getOrdersByUserId(Integer userId, Pageable pageable) {
-        log.info("Fetching orders for user ID: {} with pagination: {}", userId, pageable);
-        Page<Order> orderPage = orderRepository.findByUserId(userId, pageable);
-        List<OrderDto> orders = orderPage.getContent().stream()
-                .map(orderMapper::toDTO)
-                .collect(Collectors.toList());
-
-        return CollectionResponse.<OrderDto>builder()
-                .data(orders)
-                .totalElements(orderPage.getTotalElements())
-                .totalPages(orderPage.getTotalPages())
-                .currentPage(orderPage.getNumber())
-                .pageSize(orderPage.getSize())
-                .build();
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CollectionResponse<OrderDto> getOrdersByUserId(Integer userId, boolean includeArchived, Pageable pageable) {
+        log.info("Fetching orders for user ID: {} (archived: {}) with pagination: {}", userId, includeArchived, pageable);
+        return orderHistoryCache.page(userId, includeArchived ? "orders+archive" : "orders", pageable, () -> {
+            readYourWrites.readingUser(userId);
+            Page<OrderDto> orderPage = withItems(includeArchived
+                    ? orderArchiveRepository.findOrderIdsByUserIdIncludingArchive(userId, newestFirst(pageable))
+                    : orderRepository.findOrderIdsByUserId(userId, pageable));
+
+            return CollectionResponse.<OrderDto>builder()
+                    .data(orderPage.getContent())
+                    .totalElements(orderPage.getTotalElements())
+                    .totalPages(orderPage.getTotalPages())
+                    .currentPage(orderPage.getNumber())
+                    .pageSize(orderPage.getSize())
+                    .build();
+        });
     }
 
     @Override
     @Transactional(readOnly = true)
     public CollectionResponse<OrderDto> getOrdersByStatus(OrderStatus status, Pageable pageable) {
         log.info("Fetching orders by status: {} with pagination: {}", status, pageable);
-        Page<Order> orderPage = orderRepository.findByStatus(status, pageable);
-        List<OrderDto> orders = orderPage.getContent().stream()
-                .map(orderMapper::toDTO)
-                .collect(Collectors.toList());
+        Page<OrderDto> orderPage = withItems(orderRepository.findOrderIdsByStatus(status, pageable));
 
         return CollectionResponse.<OrderDto>builder()
-                .data(orders)
+                .data(orderPage.getContent())
                 .totalElements(orderPage.getTotalElements())
                 .totalPages(orderPage.getTotalPages())
                 .currentPage(orderPage.getNumber())
@@ -197,13 +226,14 @@ public class OrderServiceImpl implements OrderService {
     @Transactional(readOnly = true)
     public CollectionResponse<OrderDto> getOrdersByDateRange(Instant startDate, Instant endDate, Pageable pageable) {
         log.info("Fetching orders between {} and {} with pagination: {}", startDate, endDate, pageable);
-        Page<Order> orderPage = orderRepository.findByOrderDateBetween(startDate, endDate, pageable);
-        List<OrderDto> orders = orderPage.getContent().stream()
-                .map(orderMapper::toDTO)
-                .collect(Collectors.toList());
+        // Ranges reaching past the archive horizon page over both tables, newest first
+        Page<OrderDto> orderPage = orderArchivePolicy.reachesArchive(startDate)
+                ? withItems(orderArchiveRepository.findOrderIdsByOrderDateBetweenIncludingArchive(startDate, endDate,
+                        newestFirst(pageable)))
+                : withItems(orderRepository.findOrderIdsByOrderDateBetween(startDate, endDate, pageable));
 
         return CollectionResponse.<OrderDto>builder()
-                .data(orders)
+                .data(orderPage.getContent())
                 .totalElements(orderPage.getTotalElements())
                 .totalPages(orderPage.getTotalPages())
                 .currentPage(orderPage.getNumber())
@@ -212,21 +242,24 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CollectionResponse<OrderSummaryDto> getOrderSummariesByUserId(Integer userId, Pageable pageable) {
         log.info("Fetching order summaries for user ID: {} with pagination: {}", userId, pageable);
-        Page<Order> orderPage = orderRepository.findByUserId(userId, pageable);
-        List<OrderSummaryDto> orderSummaries = orderPage.getContent().stream()
-                .map(this::convertToOrderSummary)
-                .collect(Collectors.toList());
-
-        return CollectionResponse.<OrderSummaryDto>builder()
-                .data(orderSummaries)
-                .totalElements(orderPage.getTotalElements())
-                .totalPages(orderPage.getTotalPages())
-                .currentPage(orderPage.getNumber())
-                .pageSize(orderPage.getSize())
-                .build();
+        return orderHistoryCache.page(userId, "summaries", pageable, () -> {
+            readYourWrites.readingUser(userId);
+            Page<OrderSummaryRow> summaryPage = orderRepository.findSummariesByUserId(userId, pageable);
+            List<OrderSummaryDto> orderSummaries = summaryPage.getContent().stream()
+                    .map(this::convertToOrderSummary)
+                    .collect(Collectors.toList());
+
+            return CollectionResponse.<OrderSummaryDto>builder()
+                    .data(orderSummaries)
+                    .totalElements(summaryPage.getTotalElements())
+                    .totalPages(summaryPage.getTotalPages())
+                    .currentPage(summaryPage.getNumber())
+                    .pageSize(summaryPage.getSize())
+                    .build();
+        });
     }
 
     // ==================== Order Status Management ====================
@@ -235,54 +268,22 @@ public class OrderServiceImpl implements OrderService {
     public OrderDto updateOrderStatus(Long orderId, UpdateOrderStatusRequest request) {
         log.info("Updating order status for order ID: {} to {}", orderId, request.getStatus());
 
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsByOrderId(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with ID: " + orderId));
-
-        if (!canUpdateOrderStatus(orderId, request.getStatus())) {
-            throw new RuntimeException("Cannot update order status from " + order.getStatus() + " to " + request.getStatus());
-        }
-
         OrderStatus oldStatus = order.getStatus();
-        order.setStatus(request.getStatus());
 
-        // Update relevant dates based on status
-        Instant now = Instant.now();
-        switch (request.getStatus()) {
-            case PENDING:
-                // No specific date update needed
-                break;
-            case CONFIRMED:
-                order.setConfirmedDate(now);
-                break;
-            case PROCESSING:
-                // No specific date field, but could add processing_date if needed
-                break;
-            case SHIPPED:
-                order.setShippedDate(now);
-                if (request.getTrackingNumber() != null) {
-                    order.setTrackingNumber(request.getTrackingNumber());
-                }
-                break;
-            case DELIVERED:
-                order.setDeliveredDate(now);
-                order.setActualDeliveryDate(now);
-                break;
-            case CANCELLED:
-                order.setCancelledDate(now);
-                if (request.getCancellationReason() != null) {
-                    order.setCancellationReason(request.getCancellationReason());
-                }
-                break;
-            case REFUNDED:
-                // Could add refunded_date if needed
-                break;
-        }
-
-        if (request.getAdminNotes() != null) {
-            order.setAdminNotes(request.getAdminNotes());
-        }
+        Order updatedOrder = orderStateMachine.transition(order, request.getStatus(), o -> {
+            if (request.getStatus() == OrderStatus.SHIPPED && request.getTrackingNumber() != null) {
+                o.setTrackingNumber(request.getTrackingNumber());
+            }
+            if (request.getStatus() == OrderStatus.CANCELLED && request.getCancellationReason() != null) {
+                o.setCancellationReason(request.getCancellationReason());
+            }
+            if (request.getAdminNotes() != null) {
+                o.setAdminNotes(request.getAdminNotes());
+            }
+        }, request.getCancellationReason());
 
-        Order updatedOrder = orderRepository.save(order);
         log.info("Order status updated from {} to {} for order ID: {}", oldStatus, request.getStatus(), orderId);
         return orderMapper.toDTO(updatedOrder);
     }
@@ -300,21 +301,19 @@ public class OrderServiceImpl implements OrderService {
     public OrderDto shipOrder(Long orderId, String trackingNumber, String shippingMethod) {
         log.info("Shipping order ID: {} with tracking number: {}", orderId, trackingNumber);
 
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsByOrderId(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with ID: " + orderId));
 
         if (!canBeShipped(order)) {
             throw new RuntimeException("Order cannot be shipped. Current status: " + order.getStatus());
         }
 
-        order.setStatus(OrderStatus.SHIPPED);
-        order.setShippedDate(Instant.now());
-        order.setTrackingNumber(trackingNumber);
-        if (shippingMethod != null) {
-            order.setShippingMethod(shippingMethod);
-        }
-
-        Order updatedOrder = orderRepository.save(order);
+        Order updatedOrder = orderStateMachine.transition(order, OrderStatus.SHIPPED, o -> {
+            o.setTrackingNumber(trackingNumber);
+            if (shippingMethod != null) {
+                o.setShippingMethod(shippingMethod);
+            }
+        }, null);
         log.info("Order shipped successfully: {}", orderId);
         return orderMapper.toDTO(updatedOrder);
     }
@@ -344,13 +343,10 @@ public class OrderServiceImpl implements OrderService {
     @Transactional(readOnly = true)
     public CollectionResponse<OrderDto> searchOrders(String searchTerm, Pageable pageable) {
         log.info("Searching orders with term: {} and pagination: {}", searchTerm, pageable);
-        Page<Order> orderPage = orderRepository.searchOrders(searchTerm, pageable);
-        List<OrderDto> orders = orderPage.getContent().stream()
-                .map(orderMapper::toDTO)
-                .collect(Collectors.toList());
+        Page<OrderDto> orderPage = withItems(orderSearch.findOrderIds(searchTerm, pageable));
 
         return CollectionResponse.<OrderDto>builder()
-                .data(orders)
+                .data(orderPage.getContent())
                 .totalElements(orderPage.getTotalElements())
                 .totalPages(orderPage.getTotalPages())
                 .currentPage(orderPage.getNumber())
@@ -361,13 +357,18 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     public long countOrdersByStatus(OrderStatus status) {
-        return orderRepository.countByStatus(status);
+        // Served from the daily rollups, which trail order changes by one outbox relay cycle
+        return orderRollupRepository.sumOrderCountByStatus(RollupGranularity.DAY, status);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public long countOrdersByUserId(Integer userId) {
-        return orderRepository.countByUserId(userId);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long countOrdersByUserId(Integer userId, boolean includeArchived) {
+        return orderHistoryCache.count(userId, includeArchived ? "orders+archive" : "orders", () -> {
+            readYourWrites.readingUser(userId);
+            long live = orderRepository.countByUserId(userId);
+            return includeArchived ? live + orderArchiveRepository.countArchivedByUserId(userId) : live;
+        });
     }
 
     // ==================== Order Validation ====================
@@ -375,29 +376,9 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     public boolean canUpdateOrderStatus(Long orderId, OrderStatus newStatus) {
-        Order order = orderRepository.findById(orderId)
+        OrderStatus currentStatus = orderRepository.findStatusByOrderId(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with ID: " + orderId));
-
-        OrderStatus currentStatus = order.getStatus();
-
-        // Define valid status transitions
-        switch (currentStatus) {
-            case PENDING:
-                return newStatus == OrderStatus.CONFIRMED || newStatus == OrderStatus.CANCELLED;
-            case CONFIRMED:
-                return newStatus == OrderStatus.PROCESSING || newStatus == OrderStatus.CANCELLED;
-            case PROCESSING:
-                return newStatus == OrderStatus.SHIPPED || newStatus == OrderStatus.CANCELLED;
-            case SHIPPED:
-                return newStatus == OrderStatus.DELIVERED;
-            case DELIVERED:
-                return newStatus == OrderStatus.REFUNDED;
-            case CANCELLED:
-            case REFUNDED:
-                return false; // Final states
-            default:
-                return false;
-        }
+        return OrderStateMachine.canTransition(currentStatus, newStatus);
     }
 
     @Override
@@ -429,6 +410,8 @@ public class OrderServiceImpl implements OrderService {
         // Recalculate order totals
         recalculateOrderTotals(order);
         Order updatedOrder = orderRepository.save(order);
+        orderOutbox.recordAmountChange(updatedOrder);
+        eventPublisher.publishEvent(OrderChangedEvent.of(updatedOrder));
 
         log.info("Item added to order ID: {}", orderId);
         return orderMapper.toDTO(updatedOrder);
@@ -457,6 +440,8 @@ public class OrderServiceImpl implements OrderService {
         // Recalculate order totals
         recalculateOrderTotals(order);
         Order updatedOrder = orderRepository.save(order);
+        orderOutbox.recordAmountChange(updatedOrder);
+        eventPublisher.publishEvent(OrderChangedEvent.of(updatedOrder));
 
         log.info("Item removed from order ID: {}", orderId);
         return orderMapper.toDTO(updatedOrder);
@@ -492,6 +477,8 @@ public class OrderServiceImpl implements OrderService {
         // Recalculate order totals
         recalculateOrderTotals(order);
         Order updatedOrder = orderRepository.save(order);
+        orderOutbox.recordAmountChange(updatedOrder);
+        eventPublisher.publishEvent(OrderChangedEvent.of(updatedOrder));
 
         log.info("Item updated in order ID: {}", orderId);
         return orderMapper.toDTO(updatedOrder);
@@ -526,25 +513,57 @@ public class OrderServiceImpl implements OrderService {
         order.setTotalAmount(subtotal.add(taxAmount).add(shippingFee).subtract(discountAmount));
     }
 
-    private OrderSummaryDto convertToOrderSummary(Order order) {
-        int totalItems = order.getOrderItems() != null ?
-                order.getOrderItems().stream()
-                        .mapToInt(OrderItem::getQuantity)
-                        .sum() : 0;
+    /**
+     * Pages over live and archived orders come from a UNION that is always sorted newest first, so
+     * only that sort (the listings' default) is accepted.
+     */
+    private static Pageable newestFirst(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.isSorted() && !sort.equals(Sort.by(Sort.Direction.DESC, "orderDate"))
+                && !sort.equals(Sort.by(Sort.Direction.DESC, "orderDate", "orderId"))) {
+            throw new IllegalArgumentException("Listings that include archived orders are sorted by orderDate "
+                    + "descending; sort " + sort + " is not supported");
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+    }
 
+    /**
+     * Loads a page of orders with their items in one query, keeping the order of the id page. Ids
+     * missing from the live table are read from the archive.
+     */
+    private Page<OrderDto> withItems(Page<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return new PageImpl<>(List.of(), orderIds.getPageable(), orderIds.getTotalElements());
+        }
+        Map<Long, OrderDto> ordersById = orderRepository.findWithItemsByOrderIdIn(orderIds.getContent()).stream()
+                .collect(Collectors.toMap(Order::getOrderId, orderMapper::toDTO, (a, b) -> a, HashMap::new));
+        if (ordersById.size() < orderIds.getNumberOfElements()) {
+            List<Long> archived = orderIds.getContent().stream()
+                    .filter(orderId -> !ordersById.containsKey(orderId))
+                    .toList();
+            orderArchiveReader.findByOrderIdIn(archived).forEach(order -> ordersById.put(order.getOrderId(), order));
+        }
+        List<OrderDto> orders = orderIds.getContent().stream()
+                .map(ordersById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(orders, orderIds.getPageable(), orderIds.getTotalElements());
+    }
+
+    private OrderSummaryDto convertToOrderSummary(OrderSummaryRow row) {
         return OrderSummaryDto.builder()
-                .orderId(order.getOrderId())
-                .orderNumber(order.getOrderNumber())
-                .userId(order.getUserId())
-                .userEmail(order.getUserEmail())
-                .status(order.getStatus())
-                .totalAmount(order.getTotalAmount())
-                .paymentStatus(order.getPaymentStatus())
-                .shippingMethod(order.getShippingMethod())
-                .trackingNumber(order.getTrackingNumber())
-                .orderDate(order.getOrderDate())
-                .estimatedDeliveryDate(order.getEstimatedDeliveryDate())
-                .totalItems(totalItems)
+                .orderId(row.orderId())
+                .orderNumber(row.orderNumber())
+                .userId(row.userId())
+                .userEmail(row.userEmail())
+                .status(row.status())
+                .totalAmount(row.totalAmount())
+                .paymentStatus(row.paymentStatus())
+                .shippingMethod(row.shippingMethod())
+                .trackingNumber(row.trackingNumber())
+                .orderDate(row.orderDate())
+                .estimatedDeliveryDate(row.estimatedDeliveryDate())
+                .totalItems(row.totalItems() != null ? row.totalItems().intValue() : 0)
                 .build();
     }
 
@@ -553,7 +572,7 @@ public class OrderServiceImpl implements OrderService {
     @Override
     public OrderDto updatePaymentStatus(Long orderId, String paymentStatus, String gatewayTransactionId) {
         log.info("Updating payment status for order ID: {} to {}", orderId, paymentStatus);
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsByOrderId(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with ID: " + orderId));
 
         order.setPaymentStatus(paymentStatus);
@@ -566,17 +585,19 @@ public class OrderServiceImpl implements OrderService {
         switch (paymentStatus.toUpperCase()) {
             case "COMPLETED":
                 order.setPaymentCompletedAt(now);
-                // Auto-confirm order when payment is completed
-                if (order.getStatus() == OrderStatus.PENDING) {
-                    order.setStatus(OrderStatus.CONFIRMED);
-                }
                 break;
             case "FAILED":
                 order.setPaymentFailedAt(now);
                 break;
         }
 
-        Order updatedOrder = orderRepository.save(order);
+        // The version check on this save keeps a concurrent admin transition from being overwritten
+        Order updatedOrder = orderRepository.saveAndFlush(order);
+        eventPublisher.publishEvent(OrderChangedEvent.of(updatedOrder));
+        // Auto-confirm order when payment is completed
+        if ("COMPLETED".equalsIgnoreCase(paymentStatus) && updatedOrder.getStatus() == OrderStatus.PENDING) {
+            updatedOrder = orderStateMachine.transition(updatedOrder, OrderStatus.CONFIRMED, null, "Payment completed");
+        }
         log.info("Payment status updated for order ID: {}", orderId);
 
         return orderMapper.toDTO(updatedOrder);
@@ -599,6 +620,7 @@ public class OrderServiceImpl implements OrderService {
         order.setNotes(order.getNotes() != null ? order.getNotes() + "; Payment failed: " + reason : "Payment failed: " + reason);
 
         Order updatedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderChangedEvent.of(updatedOrder));
         log.info("Payment failed for order ID: {}", orderId);
 
         return orderMapper.toDTO(updatedOrder);
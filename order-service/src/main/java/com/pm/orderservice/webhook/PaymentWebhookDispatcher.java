@@ -0,0 +1,253 @@
+package com.pm.orderservice.webhook;
+
+import com.pm.orderservice.exception.OrderStateConflictException;
+import com.pm.orderservice.model.OrderStatus;
+import com.pm.orderservice.model.PaymentWebhookEvent;
+import com.pm.orderservice.model.WebhookEventStatus;
+import com.pm.orderservice.repository.OrderPaymentState;
+import com.pm.orderservice.repository.OrderRepository;
+import com.pm.orderservice.repository.PaymentWebhookEventRepository;
+import com.pm.orderservice.service.OrderService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies accepted payment webhooks off the request thread. Events are spread over single-threaded
+ * lanes by order id, so the events of one order are applied one at a time and in arrival order while
+ * different orders proceed in parallel. Events left RECEIVED (a crash, or a failed attempt) are
+ * claimed again by {@link #recoverPending()} once their {@code next_attempt_at} has passed.
+ * <p>
+ * An event is only applied once every earlier event of its order is resolved (APPLIED or FAILED).
+ * Otherwise a failed event retried later would overwrite the payment state set by the events that
+ * followed it. A held-back event keeps its attempts and is scheduled just after the event it waits
+ * for, so recovery, which hands out events in arrival order, retries both in the right order.
+ */
+@Slf4j
+@Component
+public class PaymentWebhookDispatcher implements DisposableBean {
+
+    private static final int RECOVERY_BATCH_SIZE = 100;
+    private static final int PURGE_CHUNK_SIZE = 1000;
+    // A lost race with another writer of the same order is retried in place to keep the lane's order
+    private static final int CONFLICT_RETRIES = 3;
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final PaymentWebhookEventRepository webhookEventRepository;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService[] lanes;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final Timer processingLag;
+
+    @Value("${order.webhook.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${order.webhook.retry-after:1m}")
+    private Duration retryAfter;
+
+    @Value("${order.webhook.retain-applied-for:P7D}")
+    private Duration retainAppliedFor;
+
+    public PaymentWebhookDispatcher(OrderService orderService,
+                                    OrderRepository orderRepository,
+                                    PaymentWebhookEventRepository webhookEventRepository,
+                                    MeterRegistry meterRegistry,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${order.webhook.lanes:8}") int laneCount) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.webhookEventRepository = webhookEventRepository;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("payment-webhook-" + i).factory());
+        }
+        Gauge.builder("order.webhook.queue.depth", queueDepth, AtomicInteger::get)
+                .description("Accepted payment webhooks waiting to be applied")
+                .register(meterRegistry);
+        this.processingLag = Timer.builder("order.webhook.lag")
+                .description("Time from receiving a payment webhook to applying it")
+                .register(meterRegistry);
+    }
+
+    public void submit(PaymentWebhookEvent event) {
+        if (!inFlight.add(event.getWebhookEventId())) {
+            return;
+        }
+        queueDepth.incrementAndGet();
+        lanes[Math.floorMod(Long.hashCode(event.getOrderId()), lanes.length)].execute(() -> process(event));
+    }
+
+    @Scheduled(fixedDelayString = "${order.webhook.recovery-interval-ms:30000}")
+    public void recoverPending() {
+        try {
+            List<PaymentWebhookEvent> batch = transactionTemplate.execute(status -> {
+                Instant now = Instant.now();
+                List<PaymentWebhookEvent> due = webhookEventRepository.lockDueBatch(now, RECOVERY_BATCH_SIZE);
+                // Pushing next_attempt_at out hides the claimed events from other instances meanwhile
+                due.forEach(event -> event.setNextAttemptAt(now.plus(retryAfter)));
+                return due;
+            });
+            batch.forEach(this::submit);
+            if (!batch.isEmpty()) {
+                log.info("Recovered {} pending payment webhooks", batch.size());
+            }
+        } catch (Exception e) {
+            log.error("Error recovering payment webhooks: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${order.webhook.cleanup-cron:0 45 3 * * ?}")
+    public void purgeAppliedEvents() {
+        try {
+            Instant cutoff = Instant.now().minus(retainAppliedFor);
+            int purged = 0;
+            int chunk;
+            do {
+                chunk = transactionTemplate.execute(status ->
+                        webhookEventRepository.deleteApplied(cutoff, PURGE_CHUNK_SIZE));
+                purged += chunk;
+            } while (chunk == PURGE_CHUNK_SIZE);
+            log.info("Purged {} applied payment webhooks", purged);
+        } catch (Exception e) {
+            log.error("Error purging payment webhooks: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        // Whatever is still queued stays RECEIVED and is recovered after a restart
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        for (ExecutorService lane : lanes) {
+            lane.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private void process(PaymentWebhookEvent event) {
+        queueDepth.decrementAndGet();
+        int attempts = event.getAttempts() + 1;
+        try {
+            Optional<PaymentWebhookEvent> blocker = webhookEventRepository
+                    .findFirstByOrderIdAndStatusAndWebhookEventIdLessThanOrderByWebhookEventIdAsc(
+                            event.getOrderId(), WebhookEventStatus.RECEIVED, event.getWebhookEventId());
+            if (blocker.isPresent()) {
+                holdBack(event, blocker.get());
+                return;
+            }
+            String outcome = applyWithRetries(event);
+            Instant now = Instant.now();
+            webhookEventRepository.recordAttempt(event.getWebhookEventId(), WebhookEventStatus.APPLIED, attempts,
+                    event.getNextAttemptAt(), null, now);
+            processingLag.record(Duration.between(event.getReceivedAt(), now));
+            count(event, outcome);
+        } catch (RuntimeException e) {
+            boolean exhausted = attempts >= maxAttempts;
+            log.warn("Payment webhook {} for order {} failed (attempt {}): {}",
+                    event.getEventId(), event.getOrderId(), attempts, e.getMessage());
+            try {
+                webhookEventRepository.recordAttempt(event.getWebhookEventId(),
+                        exhausted ? WebhookEventStatus.FAILED : WebhookEventStatus.RECEIVED, attempts,
+                        Instant.now().plus(retryAfter), truncate(e.getMessage()), null);
+            } catch (RuntimeException recordFailure) {
+                log.error("Failed to record outcome of payment webhook {}", event.getEventId(), recordFailure);
+            }
+            count(event, exhausted ? "failed" : "retry");
+        } finally {
+            inFlight.remove(event.getWebhookEventId());
+        }
+    }
+
+    private void holdBack(PaymentWebhookEvent event, PaymentWebhookEvent blocker) {
+        Instant after = blocker.getNextAttemptAt().isAfter(Instant.now()) ? blocker.getNextAttemptAt() : Instant.now();
+        log.info("Payment webhook {} for order {} waits for earlier event {}",
+                event.getEventId(), event.getOrderId(), blocker.getEventId());
+        webhookEventRepository.recordAttempt(event.getWebhookEventId(), WebhookEventStatus.RECEIVED,
+                event.getAttempts(), after.plusMillis(1),
+                truncate("Waiting for earlier event " + blocker.getEventId()), null);
+        count(event, "held");
+    }
+
+    private String applyWithRetries(PaymentWebhookEvent event) {
+        for (int retry = 0; ; retry++) {
+            try {
+                return apply(event);
+            } catch (OrderStateConflictException | ObjectOptimisticLockingFailureException e) {
+                if (retry >= CONFLICT_RETRIES) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private String apply(PaymentWebhookEvent event) {
+        Long orderId = event.getOrderId();
+        OrderPaymentState state = orderRepository.findPaymentStateByOrderId(orderId)
+                .orElseThrow(() -> new RuntimeException("Order not found with ID: " + orderId));
+        switch (event.getEventType()) {
+            case PAYMENT_STATUS -> {
+                if (alreadyApplied(state, event.getPaymentStatus(), event.getGatewayTransactionId())) {
+                    return "unchanged";
+                }
+                orderService.updatePaymentStatus(orderId, event.getPaymentStatus(), event.getGatewayTransactionId());
+            }
+            case PAYMENT_CONFIRMED -> {
+                if (alreadyApplied(state, "COMPLETED", event.getGatewayTransactionId())) {
+                    return "unchanged";
+                }
+                orderService.confirmPayment(orderId, event.getGatewayTransactionId());
+            }
+            case PAYMENT_FAILED -> {
+                if ("FAILED".equalsIgnoreCase(state.paymentStatus())) {
+                    return "unchanged";
+                }
+                orderService.failPayment(orderId, event.getReason() != null ? event.getReason() : "Payment failed");
+            }
+        }
+        return "applied";
+    }
+
+    // A repeated status is a no-op unless it still has to confirm a pending order
+    private static boolean alreadyApplied(OrderPaymentState state, String paymentStatus, String gatewayTransactionId) {
+        return paymentStatus != null
+                && paymentStatus.equalsIgnoreCase(state.paymentStatus())
+                && (gatewayTransactionId == null || gatewayTransactionId.equals(state.paymentGatewayTransactionId()))
+                && !("COMPLETED".equalsIgnoreCase(paymentStatus) && state.status() == OrderStatus.PENDING);
+    }
+
+    private void count(PaymentWebhookEvent event, String outcome) {
+        meterRegistry.counter("order.webhook.events", "type", event.getEventType().name(), "outcome", outcome)
+                .increment();
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
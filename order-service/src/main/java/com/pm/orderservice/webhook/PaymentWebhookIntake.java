@@ -0,0 +1,110 @@
+package com.pm.orderservice.webhook;
+
+import com.pm.orderservice.dto.payment.PaymentWebhookRequest;
+import com.pm.orderservice.model.PaymentWebhookEvent;
+import com.pm.orderservice.model.PaymentWebhookType;
+import com.pm.orderservice.model.WebhookEventStatus;
+import com.pm.orderservice.repository.PaymentWebhookEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Accepts payment webhooks. An event is recorded once under its event id and handed to the
+ * {@link PaymentWebhookDispatcher}; the caller is acknowledged without waiting for the order update.
+ * Retried deliveries are recognised by a bounded in-memory LRU of recent ids and, past that, by the
+ * unique key on {@code payment_webhook_events}.
+ */
+@Slf4j
+@Component
+public class PaymentWebhookIntake {
+
+    private final PaymentWebhookEventRepository webhookEventRepository;
+    private final PaymentWebhookDispatcher dispatcher;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Boolean> recentEventIds;
+    private final Duration retryAfter;
+
+    public PaymentWebhookIntake(PaymentWebhookEventRepository webhookEventRepository,
+                                PaymentWebhookDispatcher dispatcher,
+                                MeterRegistry meterRegistry,
+                                @Value("${order.webhook.dedupe-cache-size:10000}") int dedupeCacheSize,
+                                @Value("${order.webhook.retry-after:1m}") Duration retryAfter) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.dispatcher = dispatcher;
+        this.meterRegistry = meterRegistry;
+        this.retryAfter = retryAfter;
+        this.recentEventIds = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > dedupeCacheSize;
+            }
+        });
+    }
+
+    /**
+     * @return {@code false} if the event was already received
+     */
+    public boolean accept(PaymentWebhookType type, PaymentWebhookRequest request) {
+        String eventId = eventId(type, request);
+        if (recentEventIds.containsKey(eventId)) {
+            return duplicate(type, eventId);
+        }
+
+        Instant now = Instant.now();
+        PaymentWebhookEvent event;
+        try {
+            // next_attempt_at is when recovery may take over if this instance never applies the event
+            event = webhookEventRepository.saveAndFlush(PaymentWebhookEvent.builder()
+                    .eventId(eventId)
+                    .eventType(type)
+                    .orderId(request.getOrderId())
+                    .paymentStatus(request.getPaymentStatus())
+                    .gatewayTransactionId(request.getGatewayTransactionId())
+                    .reason(request.getReason())
+                    .status(WebhookEventStatus.RECEIVED)
+                    .attempts(0)
+                    .nextAttemptAt(now.plus(retryAfter))
+                    .receivedAt(now)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Only the unique event id makes this a retried delivery; any other violation is a bad event
+            if (!webhookEventRepository.existsByEventId(eventId)) {
+                throw e;
+            }
+            recentEventIds.put(eventId, Boolean.TRUE);
+            return duplicate(type, eventId);
+        }
+        recentEventIds.put(eventId, Boolean.TRUE);
+        dispatcher.submit(event);
+        meterRegistry.counter("order.webhook.events", "type", type.name(), "outcome", "accepted").increment();
+        return true;
+    }
+
+    private boolean duplicate(PaymentWebhookType type, String eventId) {
+        log.info("Ignoring duplicate payment webhook {}", eventId);
+        meterRegistry.counter("order.webhook.events", "type", type.name(), "outcome", "duplicate").increment();
+        return false;
+    }
+
+    // Senders without event ids are de-duplicated on the content of the event instead
+    private static String eventId(PaymentWebhookType type, PaymentWebhookRequest request) {
+        if (StringUtils.hasText(request.getEventId())) {
+            return request.getEventId().trim();
+        }
+        String content = type + "|" + request.getOrderId() + "|" + request.getPaymentStatus() + "|"
+                + request.getGatewayTransactionId() + "|" + request.getReason();
+        return "derived-" + UUID.nameUUIDFromBytes(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
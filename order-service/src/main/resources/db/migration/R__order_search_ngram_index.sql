@@ -0,0 +1,17 @@
+-- Keeps the n-gram full-text index of V9 only while order.search.ngram.enabled is set. The index is
+-- costly to build and to maintain on every order write, so it is dropped when the fallback is off.
+-- The placeholder is part of this script's checksum: Flyway runs it again whenever the setting
+-- changes, creating or dropping the index to match.
+SET @wanted = '${order_search_ngram}' = 'true';
+SET @present = (SELECT COUNT(*) > 0 FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'orders' AND index_name = 'ft_orders_search');
+SET @ddl = CASE
+    WHEN @wanted AND NOT @present THEN
+        'ALTER TABLE orders ADD FULLTEXT INDEX ft_orders_search (order_number, user_email, user_phone, tracking_number) WITH PARSER ngram'
+    WHEN @present AND NOT @wanted THEN
+        'ALTER TABLE orders DROP INDEX ft_orders_search'
+    ELSE 'DO 0'
+END;
+PREPARE ngram_index FROM @ddl;
+EXECUTE ngram_index;
+DEALLOCATE PREPARE ngram_index;
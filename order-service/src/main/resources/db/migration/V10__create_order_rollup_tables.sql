@@ -0,0 +1,26 @@
+-- Order count and revenue per UTC hour and day, by status, payment method and shipping method.
+-- Missing methods are stored as '' so they take part in the unique key.
+CREATE TABLE order_rollups (
+    rollup_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    granularity VARCHAR(10) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    payment_method VARCHAR(50) NOT NULL DEFAULT '',
+    shipping_method VARCHAR(50) NOT NULL DEFAULT '',
+    order_count BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(16,2) NOT NULL DEFAULT 0.00,
+    UNIQUE KEY uk_order_rollups_bucket (granularity, bucket_start, status, payment_method, shipping_method),
+    INDEX idx_order_rollups_status (granularity, status, bucket_start)
+);
+
+-- What each order currently contributes to the rollups, so a status change can move it between
+-- buckets. last_event_id makes re-delivered and superseded events no-ops.
+CREATE TABLE order_rollup_state (
+    order_id BIGINT PRIMARY KEY,
+    bucket_hour TIMESTAMP NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    payment_method VARCHAR(50) NOT NULL DEFAULT '',
+    shipping_method VARCHAR(50) NOT NULL DEFAULT '',
+    revenue DECIMAL(12,2) NOT NULL DEFAULT 0.00,
+    last_event_id BIGINT NOT NULL
+);
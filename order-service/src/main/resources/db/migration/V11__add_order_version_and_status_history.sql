@@ -0,0 +1,15 @@
+-- Optimistic concurrency for orders: status transitions compare-and-set on (status, version)
+ALTER TABLE orders
+ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Every accepted status transition, in the order it was applied
+CREATE TABLE order_status_history (
+    history_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    from_status VARCHAR(20),
+    to_status VARCHAR(20) NOT NULL,
+    order_version BIGINT NOT NULL,
+    note VARCHAR(500),
+    changed_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    UNIQUE KEY uk_order_status_history_version (order_id, order_version)
+);
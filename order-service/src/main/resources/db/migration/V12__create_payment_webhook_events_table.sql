@@ -0,0 +1,21 @@
+-- Payment webhooks accepted by order-service. The unique event id makes retried deliveries from the
+-- gateway no-ops across restarts and instances; RECEIVED rows are applied asynchronously and picked
+-- up again after next_attempt_at if the instance that accepted them did not finish.
+CREATE TABLE payment_webhook_events (
+    webhook_event_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_id VARCHAR(100) NOT NULL,
+    event_type VARCHAR(30) NOT NULL,
+    order_id BIGINT NOT NULL,
+    payment_status VARCHAR(20),
+    gateway_transaction_id VARCHAR(255),
+    reason VARCHAR(500),
+    status VARCHAR(20) NOT NULL DEFAULT 'RECEIVED',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    last_error VARCHAR(500),
+    received_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    applied_at TIMESTAMP(3),
+    UNIQUE KEY uk_payment_webhook_events_event_id (event_id),
+    INDEX idx_payment_webhook_events_due (status, next_attempt_at, webhook_event_id),
+    INDEX idx_payment_webhook_events_order_id (order_id)
+);
@@ -0,0 +1,10 @@
+-- Orders in a final state past the retention window are moved here by OrderArchiver. The archive
+-- tables mirror the live ones column for column (rows are copied with INSERT ... SELECT *), so any
+-- later change to orders or order_items must be applied to its archive table as well.
+-- Range partitioning by order_date was not used: every unique key (order_id, order_number) would
+-- have to include order_date, and partitioned InnoDB tables cannot take part in foreign keys.
+CREATE TABLE orders_archive LIKE orders;
+CREATE TABLE order_items_archive LIKE order_items;
+
+-- Lets the archiver find old orders of a status without scanning the live table
+CREATE INDEX idx_orders_status_order_date ON orders(status, order_date);
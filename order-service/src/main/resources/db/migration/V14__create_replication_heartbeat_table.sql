@@ -0,0 +1,8 @@
+-- Written on the primary by ReplicaLagMonitor and read back from the replica; the age of the row the
+-- replica sees is its replication lag.
+CREATE TABLE replication_heartbeat (
+    heartbeat_id INT PRIMARY KEY,
+    beat_at TIMESTAMP(3) NOT NULL
+);
+
+INSERT INTO replication_heartbeat (heartbeat_id, beat_at) VALUES (1, CURRENT_TIMESTAMP(3));
@@ -0,0 +1,3 @@
+-- CREATE TABLE ... LIKE in V13 copied the n-gram full-text index of orders into the archive. Archived
+-- orders are never searched with it, and keeping it would slow every archiver batch.
+ALTER TABLE orders_archive DROP INDEX ft_orders_search;
@@ -0,0 +1,3 @@
+-- Stock reservation held in product-service for the order's items
+ALTER TABLE orders
+ADD COLUMN reservation_reference VARCHAR(64);
@@ -0,0 +1,18 @@
+-- Outbox of calls owed to other services, written in the same transaction as the order change and
+-- delivered by the relay. The idempotency key travels with every attempt so retries are safe.
+CREATE TABLE order_outbox (
+    outbox_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(30) NOT NULL,
+    order_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    last_error VARCHAR(500),
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    delivered_at TIMESTAMP(3),
+    UNIQUE KEY uk_order_outbox_idempotency_key (idempotency_key),
+    INDEX idx_order_outbox_due (status, next_attempt_at, outbox_id),
+    INDEX idx_order_outbox_order_id (order_id)
+);
@@ -0,0 +1,3 @@
+-- Serves "my orders" pages: a user's orders newest first, and item counts summed per order
+CREATE INDEX idx_orders_user_id_order_date ON orders(user_id, order_date, order_id);
+CREATE INDEX idx_order_items_order_id_quantity ON order_items(order_id, quantity);
@@ -0,0 +1,18 @@
+-- Normalized lookup columns so support searches are index range scans instead of '%term%' scans
+ALTER TABLE orders
+ADD COLUMN email_search_key VARCHAR(255) NULL AFTER user_phone,
+ADD COLUMN phone_search_key VARCHAR(20) NULL AFTER email_search_key,
+ADD COLUMN tracking_search_key VARCHAR(100) NULL AFTER tracking_number;
+
+UPDATE orders
+SET email_search_key = LOWER(TRIM(user_email)),
+    phone_search_key = NULLIF(REVERSE(REGEXP_REPLACE(user_phone, '[^0-9]', '')), ''),
+    tracking_search_key = NULLIF(UPPER(REGEXP_REPLACE(tracking_number, '[^A-Za-z0-9]', '')), '');
+
+CREATE INDEX idx_orders_email_search_key ON orders(email_search_key);
+CREATE INDEX idx_orders_phone_search_key ON orders(phone_search_key);
+CREATE INDEX idx_orders_tracking_search_key ON orders(tracking_search_key);
+
+-- Substring matching for terms that cannot be anchored; queried only when order.search.ngram.enabled is set
+ALTER TABLE orders
+ADD FULLTEXT INDEX ft_orders_search (order_number, user_email, user_phone, tracking_number) WITH PARSER ngram;
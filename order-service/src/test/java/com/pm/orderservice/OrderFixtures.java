@@ -0,0 +1,53 @@
+package com.pm.orderservice;
+
+import com.pm.orderservice.model.Order;
+import com.pm.orderservice.model.OrderItem;
+import com.pm.orderservice.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Builders for the orders and items persisted by the repository tests. Each one is valid as built;
+ * tests override only the fields they are about.
+ */
+public final class OrderFixtures {
+
+    private OrderFixtures() {
+    }
+
+    /**
+     * A PENDING order of 30.00 shipped to a fixed address, with an email derived from the order number.
+     */
+    public static Order.OrderBuilder<?, ?> order(String orderNumber, Integer userId) {
+        return Order.builder()
+                .orderNumber(orderNumber)
+                .userId(userId)
+                .userEmail(orderNumber.toLowerCase() + "@example.com")
+                .shippingAddress("1 Test Street")
+                .shippingCity("Hanoi")
+                .shippingCountry("VN")
+                .status(OrderStatus.PENDING)
+                .subtotal(new BigDecimal("30.00"))
+                .taxAmount(BigDecimal.ZERO)
+                .shippingFee(BigDecimal.ZERO)
+                .discountAmount(BigDecimal.ZERO)
+                .totalAmount(new BigDecimal("30.00"));
+    }
+
+    /**
+     * Line {@code line} of the order: a random product bought {@code quantity} times at {@code unitPrice}.
+     */
+    public static OrderItem item(Order order, int line, String unitPrice, int quantity) {
+        BigDecimal price = new BigDecimal(unitPrice);
+        return OrderItem.builder()
+                .order(order)
+                .productId(UUID.randomUUID())
+                .productName("Product " + line)
+                .productSku("SKU-" + line)
+                .unitPrice(price)
+                .quantity(quantity)
+                .totalPrice(price.multiply(BigDecimal.valueOf(quantity)))
+                .build();
+    }
+}
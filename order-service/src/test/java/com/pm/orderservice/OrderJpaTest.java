@@ -0,0 +1,31 @@
+package com.pm.orderservice;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A {@link DataJpaTest} against the embedded database, with the schema generated from the entities
+ * instead of the Flyway migrations. Tests run outside a test transaction, so the code under test
+ * commits its own work and the test must clean up after itself. Extra properties go into a
+ * {@code @TestPropertySource} on the test class.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.type.preferred_uuid_jdbc_type=BINARY"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public @interface OrderJpaTest {
+}
@@ -0,0 +1,189 @@
+package com.pm.orderservice.archive;
+
+import com.pm.orderservice.OrderFixtures;
+import com.pm.orderservice.OrderJpaTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.orderservice.datasource.ReadYourWrites;
+import com.pm.orderservice.dto.OrderDto;
+import com.pm.orderservice.dto.response.collection.CollectionResponse;
+import com.pm.orderservice.export.ExportFormat;
+import com.pm.orderservice.history.OrderHistoryCache;
+import com.pm.orderservice.mapper.OrderItemMapperImpl;
+import com.pm.orderservice.mapper.OrderMapperImpl;
+import com.pm.orderservice.model.Order;
+import com.pm.orderservice.model.OrderStatus;
+import com.pm.orderservice.outbox.OrderOutbox;
+import com.pm.orderservice.repository.OrderItemRepository;
+import com.pm.orderservice.repository.OrderRepository;
+import com.pm.orderservice.search.OrderSearch;
+import com.pm.orderservice.search.OrderSearchPlanner;
+import com.pm.orderservice.service.CheckoutOrchestrator;
+import com.pm.orderservice.service.OrderExportService;
+import com.pm.orderservice.service.OrderNumberGenerator;
+import com.pm.orderservice.service.OrderService;
+import com.pm.orderservice.service.OrderStateMachine;
+import com.pm.orderservice.service.impl.OrderExportServiceImpl;
+import com.pm.orderservice.service.impl.OrderServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Once a batch is archived, every read that may reach the archive must return each order exactly
+ * once: from the archive if it was moved, from the live tables otherwise.
+ */
+@OrderJpaTest
+@TestPropertySource(properties = "order.history-cache.enabled=false")
+@Import({OrderArchiver.class, OrderArchivePolicy.class, OrderArchiveReader.class, OrderServiceImpl.class,
+        OrderExportServiceImpl.class, OrderMapperImpl.class, OrderItemMapperImpl.class, OrderStateMachine.class,
+        OrderSearch.class, OrderSearchPlanner.class, ReadYourWrites.class, OrderHistoryCache.class,
+        SimpleMeterRegistry.class, JacksonAutoConfiguration.class})
+class OrderArchiverTest {
+
+    private static final int USER_ID = 42;
+    private static final int ITEMS_PER_ORDER = 2;
+
+    @Autowired
+    private OrderArchiver orderArchiver;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private CheckoutOrchestrator checkoutOrchestrator;
+
+    @MockBean
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @MockBean
+    private OrderOutbox orderOutbox;
+
+    private JdbcTemplate jdbcTemplate;
+    private int nextOrder = 1;
+
+    @BeforeEach
+    void createArchiveTables() {
+        // Flyway is off here, so the archive tables are copied from the generated live ones as V13 does
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS orders_archive AS SELECT * FROM orders WITH NO DATA");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS order_items_archive AS SELECT * FROM order_items WITH NO DATA");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("DELETE FROM order_items_archive");
+        jdbcTemplate.execute("DELETE FROM orders_archive");
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void archivedOrdersAreReadExactlyOnce() throws Exception {
+        Instant old = Instant.now().truncatedTo(ChronoUnit.SECONDS).minus(400, ChronoUnit.DAYS);
+        Instant recent = Instant.now().truncatedTo(ChronoUnit.SECONDS).minus(1, ChronoUnit.DAYS);
+        List<Long> archivable = List.of(
+                persistOrder(OrderStatus.DELIVERED, old),
+                persistOrder(OrderStatus.CANCELLED, old.plus(1, ChronoUnit.HOURS)),
+                persistOrder(OrderStatus.REFUNDED, old.plus(2, ChronoUnit.HOURS)));
+        Long oldPending = persistOrder(OrderStatus.PENDING, old.plus(3, ChronoUnit.HOURS));
+        Long recentDelivered = persistOrder(OrderStatus.DELIVERED, recent);
+
+        orderArchiver.archiveOrders();
+
+        assertEquals(2, orderRepository.count());
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders_archive", Integer.class));
+        assertEquals(3 * ITEMS_PER_ORDER,
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_items_archive", Integer.class));
+
+        // Lookup by id falls back to the archive
+        for (Long orderId : archivable) {
+            OrderDto order = orderService.getOrderById(orderId);
+            assertEquals(orderId, order.getOrderId());
+            assertEquals(ITEMS_PER_ORDER, order.getOrderItems().size());
+        }
+
+        // A range reaching past the horizon pages over both tables, newest first
+        List<Long> newestFirst = List.of(recentDelivered, oldPending, archivable.get(2), archivable.get(1),
+                archivable.get(0));
+        CollectionResponse<OrderDto> range = orderService.getOrdersByDateRange(old.minus(1, ChronoUnit.DAYS),
+                Instant.now(), PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "orderDate")));
+        assertEquals(5, range.getTotalElements());
+        assertEquals(newestFirst, range.getData().stream().map(OrderDto::getOrderId).toList());
+        range.getData().forEach(order -> assertEquals(ITEMS_PER_ORDER, order.getOrderItems().size()));
+        assertThrows(IllegalArgumentException.class, () -> orderService.getOrdersByDateRange(
+                old.minus(1, ChronoUnit.DAYS), Instant.now(), PageRequest.of(0, 20, Sort.by("totalAmount"))));
+
+        // The export merges both sources in (orderDate, orderId) order
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = orderExportService.exportOrders(old.minus(1, ChronoUnit.DAYS), Instant.now(),
+                ExportFormat.NDJSON, out);
+        List<Long> exportedIds = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            JsonNode json = objectMapper.readTree(line);
+            exportedIds.add(json.get("order").get("orderId").asLong());
+            assertEquals(ITEMS_PER_ORDER, json.get("items").size());
+            json.get("items").forEach(item ->
+                    assertEquals(json.get("order").get("orderId").asLong(), item.get("orderId").asLong()));
+        }
+        assertEquals(5, exported);
+        assertEquals(newestFirst.reversed(), exportedIds);
+
+        // User histories only include archived orders when asked to
+        assertEquals(2, orderService.getOrdersByUserId(USER_ID, false, PageRequest.of(0, 20)).getTotalElements());
+        CollectionResponse<OrderDto> history = orderService.getOrdersByUserId(USER_ID, true,
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "orderDate")));
+        assertEquals(newestFirst, history.getData().stream().map(OrderDto::getOrderId).toList());
+        assertEquals(2, orderService.countOrdersByUserId(USER_ID, false));
+        assertEquals(5, orderService.countOrdersByUserId(USER_ID, true));
+        assertFalse(orderRepository.existsById(archivable.get(0)));
+    }
+
+    private Long persistOrder(OrderStatus status, Instant orderDate) {
+        int n = nextOrder++;
+        Order order = orderRepository.saveAndFlush(OrderFixtures.order("ORD-ARCHIVE-" + n, USER_ID)
+                .orderDate(orderDate)
+                .status(status)
+                .build());
+        for (int line = 0; line < ITEMS_PER_ORDER; line++) {
+            orderItemRepository.saveAndFlush(OrderFixtures.item(order, line, "15.00", 1));
+        }
+        return order.getOrderId();
+    }
+}
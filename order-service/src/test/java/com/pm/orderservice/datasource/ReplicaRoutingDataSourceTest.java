@@ -0,0 +1,174 @@
+package com.pm.orderservice.datasource;
+
+import com.pm.orderservice.service.OrderChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes against two independent in-memory databases, each of which names itself in a
+ * {@code marker} table, so every query shows which one served it.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaLagMonitor monitor;
+    private ReadYourWrites readYourWrites;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        monitor = new ReplicaLagMonitor(primary, replica, Duration.ofSeconds(5), meterRegistry);
+        readYourWrites = new ReadYourWrites(Duration.ofSeconds(10));
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(monitor, meterRegistry);
+        routing.setTargetDataSources(Map.of(DataSourceRoute.PRIMARY, primary, DataSourceRoute.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactionsUseACaughtUpReplica() {
+        replicateHeartbeat();
+
+        assertThat(served(readOnly)).isEqualTo("replica");
+        assertThat(served(readWrite)).isEqualTo("primary");
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        replicateHeartbeat();
+        new JdbcTemplate(replica).update("UPDATE replication_heartbeat SET beat_at = ?",
+                Timestamp.from(Instant.now().minusSeconds(60)));
+        monitor.check();
+
+        assertThat(monitor.isReplicaUsable()).isFalse();
+        assertThat(served(readOnly)).isEqualTo("primary");
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimary() {
+        replicateHeartbeat();
+        new JdbcTemplate(replica).execute("DROP TABLE replication_heartbeat");
+        monitor.check();
+
+        assertThat(served(readOnly)).isEqualTo("primary");
+    }
+
+    @Test
+    void recentWritesPinTheirReadsToPrimary() {
+        replicateHeartbeat();
+        readYourWrites.onOrderChanged(new OrderChangedEvent(11L, "ORD-TEST", 7));
+
+        assertThat(served(readOnly, ryw -> ryw.readingUser(7))).isEqualTo("primary");
+        assertThat(served(readOnly, ryw -> ryw.readingOrder(11L))).isEqualTo("primary");
+        assertThat(served(readOnly, ryw -> ryw.readingOrderNumber("ORD-TEST"))).isEqualTo("primary");
+        assertThat(served(readOnly, ryw -> ryw.readingUser(8))).isEqualTo("replica");
+        // The pin ends with its transaction
+        assertThat(served(readOnly)).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWritesDoNotPin() {
+        replicateHeartbeat();
+        // Published through a real context, so the transactional listener only sees committed changes
+        try (AnnotationConfigApplicationContext context =
+                     new AnnotationConfigApplicationContext(ListenerConfig.class)) {
+            readYourWrites = context.getBean(ReadYourWrites.class);
+            readWrite.executeWithoutResult(status -> {
+                context.publishEvent(new OrderChangedEvent(12L, null, 9));
+                status.setRollbackOnly();
+            });
+            assertThat(served(readOnly, ryw -> ryw.readingUser(9))).isEqualTo("replica");
+
+            readWrite.executeWithoutResult(status -> context.publishEvent(new OrderChangedEvent(12L, null, 9)));
+            assertThat(served(readOnly, ryw -> ryw.readingUser(9))).isEqualTo("primary");
+        }
+    }
+
+    @Test
+    void expiredWritesNoLongerPin() throws InterruptedException {
+        replicateHeartbeat();
+        readYourWrites = new ReadYourWrites(Duration.ofMillis(50));
+        readYourWrites.onOrderChanged(new OrderChangedEvent(13L, null, 5));
+        Thread.sleep(100);
+        readYourWrites.purgeExpired();
+
+        assertThat(served(readOnly, ryw -> ryw.readingUser(5))).isEqualTo("replica");
+    }
+
+    private String served(TransactionTemplate transaction) {
+        return served(transaction, ryw -> { });
+    }
+
+    private String served(TransactionTemplate transaction, Consumer<ReadYourWrites> beforeFirstQuery) {
+        return transaction.execute(status -> {
+            beforeFirstQuery.accept(readYourWrites);
+            return jdbc.queryForObject("SELECT name FROM marker", String.class);
+        });
+    }
+
+    /** Stands in for replication: copies the primary's heartbeat to the replica and re-checks. */
+    private void replicateHeartbeat() {
+        monitor.check();
+        Timestamp beat = new JdbcTemplate(primary).queryForObject(
+                "SELECT beat_at FROM replication_heartbeat WHERE heartbeat_id = 1", Timestamp.class);
+        new JdbcTemplate(replica).update("UPDATE replication_heartbeat SET beat_at = ?", beat);
+        monitor.check();
+        assertThat(monitor.isReplicaUsable()).isTrue();
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class ListenerConfig {
+
+        @Bean
+        ReadYourWrites readYourWrites() {
+            return new ReadYourWrites(Duration.ofSeconds(10));
+        }
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE marker (name VARCHAR(20))");
+        jdbc.update("INSERT INTO marker (name) VALUES (?)", name);
+        jdbc.execute("CREATE TABLE replication_heartbeat (heartbeat_id INT PRIMARY KEY, beat_at TIMESTAMP(3) NOT NULL)");
+        jdbc.update("INSERT INTO replication_heartbeat (heartbeat_id, beat_at) VALUES (1, ?)",
+                Timestamp.from(Instant.EPOCH));
+        return dataSource;
+    }
+}
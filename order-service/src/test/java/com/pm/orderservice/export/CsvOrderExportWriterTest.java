@@ -0,0 +1,97 @@
+package com.pm.orderservice.export;
+
+import com.pm.orderservice.model.OrderStatus;
+import com.pm.orderservice.repository.OrderExportRow;
+import com.pm.orderservice.repository.OrderItemExportRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvOrderExportWriterTest {
+
+    private static final UUID PRODUCT_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Test
+    void writesOneRowPerItemWithTheOrderRepeated() throws IOException {
+        List<String> lines = export(order("ORD-1", "jane@example.com", null),
+                List.of(item(10L, "Mug"), item(11L, "Plate")));
+
+        assertEquals(3, lines.size());
+        assertEquals("1,ORD-1,2026-01-02T03:04:05Z,7,jane@example.com,SHIPPED,CARD,COMPLETED,STANDARD,,VN,,"
+                + "10.00,0.00,0.00,0.00,10.00,10,00000000-0000-0000-0000-000000000001,SKU-10,Mug,1,10.00,,,10.00",
+                lines.get(1));
+        assertEquals(orderColumns(lines.get(1)), orderColumns(lines.get(2)));
+        assertTrue(lines.get(2).contains(",11,00000000-0000-0000-0000-000000000001,SKU-11,Plate,"));
+    }
+
+    @Test
+    void writesAnOrderWithoutItemsWithEmptyItemColumns() throws IOException {
+        List<String> lines = export(order("ORD-1", "jane@example.com", null), List.of());
+
+        assertEquals(2, lines.size());
+        assertEquals(26, lines.get(1).split(",", -1).length);
+        assertEquals(",,,,,,,,,", lines.get(1).substring(lines.get(1).length() - 9));
+    }
+
+    @Test
+    void quotesSeparatorsQuotesAndLineBreaks() throws IOException {
+        String csv = exportText(order("ORD-1", "jane@example.com", "Smith, Jane"),
+                List.of(item(10L, "12\" \"deluxe\" pan\r\nwith lid")));
+
+        assertTrue(csv.contains(",\"Smith, Jane\","));
+        assertTrue(csv.contains(",\"12\"\" \"\"deluxe\"\" pan\r\nwith lid\","));
+    }
+
+    @Test
+    void escapesValuesASpreadsheetWouldReadAsFormulas() throws IOException {
+        for (String formula : List.of("=HYPERLINK(\"http://x\")", "+1", "-2", "@SUM(A1)")) {
+            String csv = exportText(order("ORD-1", "jane@example.com", null), List.of(item(10L, formula)));
+            String expected = formula.indexOf('"') >= 0
+                    ? ",\"'" + formula.replace("\"", "\"\"") + "\","
+                    : ",'" + formula + ",";
+            assertTrue(csv.contains(expected), () -> "Not escaped: " + formula + " in " + csv);
+        }
+        // Numeric columns are not free text and keep their sign
+        String csv = exportText(order("ORD-1", "jane@example.com", null),
+                List.of(new OrderItemExportRow(1L, 10L, PRODUCT_ID, "SKU", "Refund", 1,
+                        new BigDecimal("-5.00"), null, null, new BigDecimal("-5.00"))));
+        assertTrue(csv.contains(",-5.00,"));
+    }
+
+    private static List<String> orderColumns(String line) {
+        return List.of(line.split(",", -1)).subList(0, 17);
+    }
+
+    private static List<String> export(OrderExportRow order, List<OrderItemExportRow> items) throws IOException {
+        return List.of(exportText(order, items).split("\r\n"));
+    }
+
+    private static String exportText(OrderExportRow order, List<OrderItemExportRow> items) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OrderExportWriter writer = new CsvOrderExportWriter(out);
+        writer.write(order, items);
+        writer.finish();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static OrderExportRow order(String orderNumber, String userEmail, String trackingNumber) {
+        return new OrderExportRow(1L, orderNumber, Instant.parse("2026-01-02T03:04:05Z"), 7, userEmail,
+                OrderStatus.SHIPPED, "CARD", "COMPLETED", "STANDARD", trackingNumber, "VN", null,
+                new BigDecimal("10.00"), new BigDecimal("0.00"), new BigDecimal("0.00"), new BigDecimal("0.00"),
+                new BigDecimal("10.00"));
+    }
+
+    private static OrderItemExportRow item(Long orderItemId, String productName) {
+        return new OrderItemExportRow(1L, orderItemId, PRODUCT_ID, "SKU-" + orderItemId, productName, 1,
+                new BigDecimal("10.00"), null, null, new BigDecimal("10.00"));
+    }
+}
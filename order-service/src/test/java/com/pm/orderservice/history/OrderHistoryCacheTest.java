@@ -0,0 +1,174 @@
+package com.pm.orderservice.history;
+
+import com.pm.orderservice.service.OrderChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the cache in a small application context, so invalidation arrives through the same
+ * transactional event listener as in the service.
+ */
+class OrderHistoryCacheTest {
+
+    private static final int MAX_USERS = 2;
+    private static final int MAX_PAGES = 3;
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    private AnnotationConfigApplicationContext context;
+    private OrderHistoryCache cache;
+    private TransactionTemplate transaction;
+    private MeterRegistry meterRegistry;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(CacheConfig.class);
+        cache = context.getBean(OrderHistoryCache.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        meterRegistry = context.getBean(MeterRegistry.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void hitFollowsMiss() {
+        String first = cache.page(7, "orders", FIRST_PAGE, this::load);
+        String second = cache.page(7, "orders", FIRST_PAGE, this::load);
+        Long count = cache.count(7, "orders", () -> 3L);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(cache.count(7, "orders", () -> 4L)).isEqualTo(count);
+        assertThat(meterRegistry.get("order.history.cache.gets").tag("result", "hit").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("order.history.cache.gets").tag("result", "miss").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void changeInvalidatesOnlyOnceCommitted() {
+        String cached = cache.page(7, "orders", FIRST_PAGE, this::load);
+
+        transaction.executeWithoutResult(status -> {
+            context.publishEvent(new OrderChangedEvent(1L, "ORD-1", 7));
+            assertThat(cache.page(7, "orders", FIRST_PAGE, this::load)).isEqualTo(cached);
+        });
+
+        assertThat(cache.page(7, "orders", FIRST_PAGE, this::load)).isNotEqualTo(cached);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void rolledBackChangeKeepsTheEntry() {
+        String cached = cache.page(7, "orders", FIRST_PAGE, this::load);
+
+        transaction.executeWithoutResult(status -> {
+            context.publishEvent(new OrderChangedEvent(1L, "ORD-1", 7));
+            status.setRollbackOnly();
+        });
+
+        assertThat(cache.page(7, "orders", FIRST_PAGE, this::load)).isEqualTo(cached);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void changeOfAnotherUserKeepsTheEntry() {
+        String cached = cache.page(7, "orders", FIRST_PAGE, this::load);
+
+        context.publishEvent(new OrderChangedEvent(2L, "ORD-2", 8));
+
+        assertThat(cache.page(7, "orders", FIRST_PAGE, this::load)).isEqualTo(cached);
+    }
+
+    @Test
+    void leastRecentlyUsedUserIsEvicted() {
+        String first = cache.page(1, "orders", FIRST_PAGE, this::load);
+        String second = cache.page(2, "orders", FIRST_PAGE, this::load);
+        cache.page(1, "orders", FIRST_PAGE, this::load);
+        cache.page(3, "orders", FIRST_PAGE, this::load);
+
+        assertThat(cache.page(1, "orders", FIRST_PAGE, this::load)).isEqualTo(first);
+        assertThat(loads).hasValue(3);
+        assertThat(cache.page(2, "orders", FIRST_PAGE, this::load)).isNotEqualTo(second);
+        assertThat(meterRegistry.get("order.history.cache.users").gauge().value()).isEqualTo(MAX_USERS);
+    }
+
+    @Test
+    void deepOrLargePagesBypassTheCache() {
+        Pageable deep = PageRequest.of(MAX_PAGES, 20);
+        Pageable large = PageRequest.of(0, MAX_PAGE_SIZE + 1);
+
+        cache.page(7, "orders", deep, this::load);
+        cache.page(7, "orders", deep, this::load);
+        cache.page(7, "orders", large, this::load);
+        cache.page(7, "orders", large, this::load);
+
+        assertThat(loads).hasValue(4);
+        assertThat(meterRegistry.get("order.history.cache.gets").tag("result", "miss").counter().count())
+                .isZero();
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotKept() {
+        String stale = cache.page(7, "orders", FIRST_PAGE, () -> {
+            String loaded = load();
+            // The order changes after this load has read it but before the result is stored
+            context.publishEvent(new OrderChangedEvent(1L, "ORD-1", 7));
+            return loaded;
+        });
+
+        assertThat(cache.page(7, "orders", FIRST_PAGE, this::load)).isNotEqualTo(stale);
+        assertThat(loads).hasValue(2);
+    }
+
+    private String load() {
+        return "page-" + loads.incrementAndGet();
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class CacheConfig {
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            JdbcDataSource dataSource = new JdbcDataSource();
+            dataSource.setURL("jdbc:h2:mem:history-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        OrderHistoryCache orderHistoryCache(PlatformTransactionManager transactionManager,
+                                            MeterRegistry meterRegistry) {
+            return new OrderHistoryCache(transactionManager, meterRegistry, true, MAX_USERS, MAX_PAGES,
+                    MAX_PAGE_SIZE, Duration.ofMinutes(5));
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.pm.orderservice.repository;
+
+import com.pm.orderservice.OrderFixtures;
+import com.pm.orderservice.OrderJpaTest;
+import com.pm.orderservice.archive.OrderArchivePolicy;
+import com.pm.orderservice.archive.OrderArchiveReader;
+import com.pm.orderservice.datasource.ReadYourWrites;
+import com.pm.orderservice.dto.OrderDto;
+import com.pm.orderservice.dto.OrderSummaryDto;
+import com.pm.orderservice.dto.response.collection.CollectionResponse;
+import com.pm.orderservice.history.OrderHistoryCache;
+import com.pm.orderservice.mapper.OrderItemMapperImpl;
+import com.pm.orderservice.mapper.OrderMapperImpl;
+import com.pm.orderservice.model.Order;
+import com.pm.orderservice.model.OrderItem;
+import com.pm.orderservice.model.OrderStatus;
+import com.pm.orderservice.outbox.OrderOutbox;
+import com.pm.orderservice.search.OrderSearch;
+import com.pm.orderservice.search.OrderSearchPlanner;
+import com.pm.orderservice.service.CheckoutOrchestrator;
+import com.pm.orderservice.service.OrderChangedEvent;
+import com.pm.orderservice.service.OrderNumberGenerator;
+import com.pm.orderservice.service.OrderService;
+import com.pm.orderservice.service.OrderStateMachine;
+import com.pm.orderservice.service.impl.OrderServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every order listing maps each order's items, so the number of SQL statements must not grow with
+ * the number of orders on the page. User histories are counted on a cache miss; a repeated read of
+ * the same page must then run no statement at all. The listings run outside the test's transaction,
+ * so orders are committed before they are listed.
+ */
+@OrderJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({OrderServiceImpl.class, OrderMapperImpl.class, OrderItemMapperImpl.class,
+        OrderSearch.class, OrderSearchPlanner.class, OrderStateMachine.class, OrderArchivePolicy.class,
+        OrderArchiveReader.class, ReadYourWrites.class, OrderHistoryCache.class, SimpleMeterRegistry.class})
+class OrderListingStatementCountTest {
+
+    private static final int USER_ID = 42;
+    private static final int ITEMS_PER_ORDER = 2;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @MockBean
+    private CheckoutOrchestrator checkoutOrchestrator;
+
+    @MockBean
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @MockBean
+    private OrderOutbox orderOutbox;
+
+    private int nextOrder = 1;
+
+    @AfterEach
+    void cleanUp() {
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+        // Outside a transaction the change is applied at once, dropping the user's cached pages
+        eventPublisher.publishEvent(new OrderChangedEvent(null, null, USER_ID));
+    }
+
+    @Test
+    void getAllOrders() {
+        assertConstantStatements(pageable -> orderService.getAllOrders(pageable));
+    }
+
+    @Test
+    void getOrdersByUserId() {
+        assertConstantStatements(pageable -> orderService.getOrdersByUserId(USER_ID, false, pageable));
+        assertCachedPage(pageable -> orderService.getOrdersByUserId(USER_ID, false, pageable));
+    }
+
+    @Test
+    void getOrdersByStatus() {
+        assertConstantStatements(pageable -> orderService.getOrdersByStatus(OrderStatus.PENDING, pageable));
+    }
+
+    @Test
+    void getOrdersByDateRange() {
+        Instant now = Instant.now();
+        assertConstantStatements(pageable -> orderService.getOrdersByDateRange(
+                now.minus(1, ChronoUnit.DAYS), now.plus(1, ChronoUnit.DAYS), pageable));
+    }
+
+    @Test
+    void searchOrders() {
+        assertConstantStatements(pageable -> orderService.searchOrders("user", pageable));
+    }
+
+    @Test
+    void getOrderSummariesByUserId() {
+        assertConstantStatements(pageable -> orderService.getOrderSummariesByUserId(USER_ID, pageable));
+        assertCachedPage(pageable -> orderService.getOrderSummariesByUserId(USER_ID, pageable));
+    }
+
+    @Test
+    void orderSummariesAreProjectedWithoutLoadingOrders() {
+        persistOrders(20);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CollectionResponse<OrderSummaryDto> summaries = orderService.getOrderSummariesByUserId(USER_ID, PageRequest.of(0, 20));
+
+        assertEquals(20, summaries.getData().size());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private void assertConstantStatements(Function<Pageable, CollectionResponse<?>> listing) {
+        persistOrders(10);
+        long statementsForTenOrders = countStatements(listing, 10);
+
+        persistOrders(90);
+        long statementsForHundredOrders = countStatements(listing, 100);
+
+        assertEquals(statementsForTenOrders, statementsForHundredOrders);
+        assertTrue(statementsForHundredOrders <= 3, "Expected id page, count and fetch queries only");
+    }
+
+    /**
+     * The ten-order page read by {@link #assertConstantStatements} is cached, so reading it again
+     * runs no statement. The hundred-order page is larger than max-page-size and never cached.
+     */
+    private void assertCachedPage(Function<Pageable, CollectionResponse<?>> listing) {
+        assertEquals(0, countStatements(listing, 10));
+    }
+
+    private long countStatements(Function<Pageable, CollectionResponse<?>> listing, int pageSize) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CollectionResponse<?> orders = listing.apply(PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "orderDate")));
+
+        assertEquals(pageSize, orders.getData().size());
+        orders.getData().forEach(order -> {
+            if (order instanceof OrderDto dto) {
+                assertEquals(ITEMS_PER_ORDER, dto.getOrderItems().size());
+            } else {
+                assertEquals(ITEMS_PER_ORDER * 3, ((OrderSummaryDto) order).getTotalItems());
+            }
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void persistOrders(int count) {
+        List<Order> orders = new ArrayList<>();
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int n = nextOrder++;
+            // The email is what searchOrders("user") finds
+            Order order = OrderFixtures.order("ORD-TEST-" + n, USER_ID)
+                    .userEmail("user" + n + "@example.com")
+                    .build();
+            orders.add(order);
+            for (int line = 0; line < ITEMS_PER_ORDER; line++) {
+                items.add(OrderFixtures.item(order, line, "5.00", 3));
+            }
+        }
+        orderRepository.saveAll(orders);
+        orderItemRepository.saveAll(items);
+    }
+}
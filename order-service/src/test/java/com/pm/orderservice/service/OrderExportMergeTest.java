@@ -0,0 +1,109 @@
+package com.pm.orderservice.service;
+
+import com.pm.orderservice.OrderFixtures;
+import com.pm.orderservice.OrderJpaTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.orderservice.archive.OrderArchivePolicy;
+import com.pm.orderservice.archive.OrderArchiveReader;
+import com.pm.orderservice.export.ExportFormat;
+import com.pm.orderservice.model.Order;
+import com.pm.orderservice.model.OrderItem;
+import com.pm.orderservice.model.OrderStatus;
+import com.pm.orderservice.repository.OrderItemRepository;
+import com.pm.orderservice.repository.OrderRepository;
+import com.pm.orderservice.service.impl.OrderExportServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The export merges an order cursor with an item cursor. Every order must be written once, in
+ * (orderDate, orderId) order, with exactly its own items, including orders that have none.
+ */
+@OrderJpaTest
+@Import({OrderExportServiceImpl.class, OrderArchiveReader.class, OrderArchivePolicy.class,
+        JacksonAutoConfiguration.class})
+class OrderExportMergeTest {
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private int nextOrder = 1;
+
+    @AfterEach
+    void cleanUp() {
+        orderItemRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void writesEachOrderOnceWithItsOwnItems() throws Exception {
+        Instant placed = Instant.now().truncatedTo(ChronoUnit.SECONDS).minus(1, ChronoUnit.DAYS);
+        persistOrder(placed.minus(3, ChronoUnit.DAYS), 2); // outside the range
+        Order first = persistOrder(placed, 2);
+        Order empty = persistOrder(placed, 0);
+        Order earliest = persistOrder(placed.minus(1, ChronoUnit.HOURS), 1);
+        Order last = persistOrder(placed.plus(1, ChronoUnit.HOURS), 3);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = orderExportService.exportOrders(placed.minus(2, ChronoUnit.DAYS),
+                placed.plus(2, ChronoUnit.HOURS), ExportFormat.NDJSON, out);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertEquals(4, exported);
+        assertEquals(List.of(earliest.getOrderId(), first.getOrderId(), empty.getOrderId(), last.getOrderId()),
+                lines.stream().map(line -> line.get("order").get("orderId").asLong()).toList());
+        for (JsonNode line : lines) {
+            long orderId = line.get("order").get("orderId").asLong();
+            List<Long> itemIds = new ArrayList<>();
+            line.get("items").forEach(item -> {
+                assertEquals(orderId, item.get("orderId").asLong());
+                itemIds.add(item.get("orderItemId").asLong());
+            });
+            assertEquals(itemIdsOf(orderId), itemIds);
+        }
+    }
+
+    private List<Long> itemIdsOf(long orderId) {
+        return orderItemRepository.findByOrderOrderId(orderId).stream()
+                .map(OrderItem::getOrderItemId)
+                .sorted()
+                .toList();
+    }
+
+    private Order persistOrder(Instant orderDate, int items) {
+        int n = nextOrder++;
+        Order order = orderRepository.saveAndFlush(OrderFixtures.order("ORD-EXPORT-" + n, 7)
+                .orderDate(orderDate)
+                .status(OrderStatus.DELIVERED)
+                .build());
+        for (int line = 0; line < items; line++) {
+            orderItemRepository.saveAndFlush(OrderFixtures.item(order, line, "10.00", 1));
+        }
+        return order;
+    }
+}
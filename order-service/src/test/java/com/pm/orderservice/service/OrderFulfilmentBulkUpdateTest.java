@@ -0,0 +1,187 @@
+package com.pm.orderservice.service;
+
+import com.pm.orderservice.OrderFixtures;
+import com.pm.orderservice.OrderJpaTest;
+import com.pm.orderservice.dto.fulfilment.BulkDeliverRequest;
+import com.pm.orderservice.dto.fulfilment.BulkOrderOutcome;
+import com.pm.orderservice.dto.fulfilment.BulkOutcome;
+import com.pm.orderservice.dto.fulfilment.BulkShipRequest;
+import com.pm.orderservice.dto.fulfilment.BulkStatusResponse;
+import com.pm.orderservice.dto.fulfilment.ShipmentLine;
+import com.pm.orderservice.model.Order;
+import com.pm.orderservice.model.OrderStatus;
+import com.pm.orderservice.model.OrderStatusHistory;
+import com.pm.orderservice.outbox.OrderOutbox;
+import com.pm.orderservice.repository.OrderRepository;
+import com.pm.orderservice.repository.OrderStatusHistoryRepository;
+import com.pm.orderservice.service.impl.OrderFulfilmentServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Bulk fulfilment writes a chunk with one UPDATE whose per-order fields are CASE expressions built at
+ * run time. Each order must end up with its own values, and orders that are already there, cannot
+ * move or do not exist must be reported without being touched.
+ */
+@OrderJpaTest
+@TestPropertySource(properties = "order.fulfilment.chunk-size=2")
+@Import({OrderFulfilmentServiceImpl.class, OrderStateMachine.class})
+class OrderFulfilmentBulkUpdateTest {
+
+    private static final long MISSING_ORDER_ID = 999_999L;
+
+    @Autowired
+    private OrderFulfilmentService orderFulfilmentService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatusHistoryRepository orderStatusHistoryRepository;
+
+    @MockBean
+    private OrderOutbox orderOutbox;
+
+    @AfterEach
+    void cleanUp() {
+        orderStatusHistoryRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void shipsEachOrderWithItsOwnTrackingNumber() {
+        Long first = persistOrder(OrderStatus.CONFIRMED, null, null);
+        Long second = persistOrder(OrderStatus.CONFIRMED, "STANDARD", null);
+        Long third = persistOrder(OrderStatus.PROCESSING, null, "Gift wrap");
+
+        BulkStatusResponse response = orderFulfilmentService.shipOrders(BulkShipRequest.builder()
+                .shippingMethod("STANDARD")
+                .note("Evening pickup")
+                .shipments(List.of(
+                        line(first, "1Z-AAA-001", null),
+                        line(second, " 1Z-BBB-002 ", null),
+                        line(third, "1Z-CCC-003", "EXPRESS")))
+                .build());
+
+        assertEquals(Map.of(BulkOutcome.UPDATED, 3), response.getCounts());
+        assertShipped(first, "1Z-AAA-001", "1ZAAA001", "STANDARD", null);
+        assertShipped(second, "1Z-BBB-002", "1ZBBB002", "STANDARD", null);
+        assertShipped(third, "1Z-CCC-003", "1ZCCC003", "EXPRESS", "Gift wrap");
+
+        for (Long orderId : List.of(first, second, third)) {
+            List<OrderStatusHistory> history = orderStatusHistoryRepository.findByOrderIdOrderByOrderVersionAsc(orderId);
+            assertEquals(1, history.size());
+            assertEquals(OrderStatus.SHIPPED, history.get(0).getToStatus());
+            assertEquals(1L, history.get(0).getOrderVersion());
+            assertEquals("Evening pickup", history.get(0).getNote());
+        }
+        verify(orderOutbox, times(3)).recordStatusChange(any(), any());
+    }
+
+    @Test
+    void reportsUnchangedRejectedAndMissingOrdersWithoutTouchingThem() {
+        Long shipped = persistOrder(OrderStatus.CONFIRMED, null, null);
+        orderFulfilmentService.shipOrders(BulkShipRequest.builder()
+                .shipments(List.of(line(shipped, "1Z-RETRY-1", null)))
+                .build());
+        Long pending = persistOrder(OrderStatus.PENDING, null, null);
+        Long confirmed = persistOrder(OrderStatus.CONFIRMED, null, null);
+
+        BulkStatusResponse response = orderFulfilmentService.shipOrders(BulkShipRequest.builder()
+                .shipments(List.of(
+                        line(shipped, "1Z-RETRY-1", null),
+                        line(pending, "1Z-PENDING", null),
+                        line(MISSING_ORDER_ID, "1Z-MISSING", null),
+                        line(confirmed, "1Z-CONFIRMED", null),
+                        line(confirmed, "1Z-AGAIN", null)))
+                .build());
+
+        List<BulkOrderOutcome> outcomes = response.getOutcomes();
+        assertEquals(5, response.getRequested());
+        assertEquals(BulkOutcome.UNCHANGED, outcomes.get(0).getOutcome());
+        assertEquals(1L, outcomes.get(0).getVersion());
+        assertEquals(BulkOutcome.REJECTED, outcomes.get(1).getOutcome());
+        assertEquals(OrderStatus.PENDING, outcomes.get(1).getStatus());
+        assertEquals(BulkOutcome.NOT_FOUND, outcomes.get(2).getOutcome());
+        assertEquals(BulkOutcome.UPDATED, outcomes.get(3).getOutcome());
+        assertEquals(BulkOutcome.REJECTED, outcomes.get(4).getOutcome());
+
+        Order retried = orderRepository.findById(shipped).orElseThrow();
+        assertEquals(1L, retried.getVersion());
+        assertEquals(1, orderStatusHistoryRepository.findByOrderIdOrderByOrderVersionAsc(shipped).size());
+
+        Order rejected = orderRepository.findById(pending).orElseThrow();
+        assertEquals(OrderStatus.PENDING, rejected.getStatus());
+        assertEquals(0L, rejected.getVersion());
+        assertNull(rejected.getTrackingNumber());
+        assertEquals(0, orderStatusHistoryRepository.findByOrderIdOrderByOrderVersionAsc(pending).size());
+
+        // The first line for an order listed twice wins
+        assertShipped(confirmed, "1Z-CONFIRMED", "1ZCONFIRMED", null, null);
+    }
+
+    @Test
+    void deliversWithoutRewritingShipmentFields() {
+        Long first = persistOrder(OrderStatus.CONFIRMED, null, null);
+        Long second = persistOrder(OrderStatus.CONFIRMED, null, null);
+        orderFulfilmentService.shipOrders(BulkShipRequest.builder()
+                .shippingMethod("STANDARD")
+                .shipments(List.of(line(first, "1Z-DLV-1", null), line(second, "1Z-DLV-2", "EXPRESS")))
+                .build());
+
+        BulkStatusResponse response = orderFulfilmentService.deliverOrders(BulkDeliverRequest.builder()
+                .orderIds(List.of(first, second))
+                .build());
+
+        assertEquals(Map.of(BulkOutcome.UPDATED, 2), response.getCounts());
+        Order delivered = orderRepository.findById(second).orElseThrow();
+        assertEquals(OrderStatus.DELIVERED, delivered.getStatus());
+        assertEquals(2L, delivered.getVersion());
+        assertEquals("1Z-DLV-2", delivered.getTrackingNumber());
+        assertEquals("EXPRESS", delivered.getShippingMethod());
+        assertNotNull(delivered.getDeliveredDate());
+        assertEquals("1Z-DLV-1", orderRepository.findById(first).orElseThrow().getTrackingNumber());
+    }
+
+    private void assertShipped(Long orderId, String trackingNumber, String trackingSearchKey,
+                               String shippingMethod, String adminNotes) {
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        assertEquals(OrderStatus.SHIPPED, order.getStatus());
+        assertEquals(1L, order.getVersion());
+        assertEquals(trackingNumber, order.getTrackingNumber());
+        assertEquals(trackingSearchKey, order.getTrackingSearchKey());
+        assertEquals(shippingMethod, order.getShippingMethod());
+        assertEquals(adminNotes, order.getAdminNotes());
+        assertNotNull(order.getShippedDate());
+    }
+
+    private static ShipmentLine line(Long orderId, String trackingNumber, String shippingMethod) {
+        return ShipmentLine.builder()
+                .orderId(orderId)
+                .trackingNumber(trackingNumber)
+                .shippingMethod(shippingMethod)
+                .build();
+    }
+
+    private Long persistOrder(OrderStatus status, String shippingMethod, String adminNotes) {
+        return orderRepository.saveAndFlush(OrderFixtures.order("ORD-BULK-" + System.nanoTime(), 7)
+                .shippingMethod(shippingMethod)
+                .adminNotes(adminNotes)
+                .status(status)
+                .build()).getOrderId();
+    }
+}
@@ -0,0 +1,101 @@
+package com.pm.orderservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderNumberGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int NUMBERS_PER_THREAD = 250_000;
+
+    @Test
+    void concurrentCallersGetUniqueIncreasingNumbersAboveTargetRate() throws Exception {
+        OrderNumberGenerator generator = new OrderNumberGenerator(7, System::currentTimeMillis);
+        generator.next(); // warm up class loading before timing
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<String[]>> results = new ArrayList<>();
+        long started = System.nanoTime();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit((Callable<String[]>) () -> {
+                    String[] numbers = new String[NUMBERS_PER_THREAD];
+                    for (int i = 0; i < NUMBERS_PER_THREAD; i++) {
+                        numbers[i] = generator.next();
+                    }
+                    return numbers;
+                }));
+            }
+
+            Set<String> all = new HashSet<>(THREADS * NUMBERS_PER_THREAD * 2);
+            for (Future<String[]> result : results) {
+                String[] numbers = result.get();
+                for (int i = 0; i < numbers.length; i++) {
+                    assertThat(all.add(numbers[i])).as("duplicate %s", numbers[i]).isTrue();
+                    if (i > 0) {
+                        assertThat(numbers[i]).isGreaterThan(numbers[i - 1]);
+                    }
+                }
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+            double perSecond = all.size() / seconds;
+
+            assertThat(all).hasSize(THREADS * NUMBERS_PER_THREAD);
+            assertThat(perSecond).as("order numbers per second").isGreaterThan(100_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void nodesNeverCollideWithinTheSameMillisecond() {
+        AtomicLong frozen = new AtomicLong(System.currentTimeMillis());
+        OrderNumberGenerator first = new OrderNumberGenerator(1, frozen::get);
+        OrderNumberGenerator second = new OrderNumberGenerator(2, frozen::get);
+
+        Set<String> numbers = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(numbers.add(first.next())).isTrue();
+            assertThat(numbers.add(second.next())).isTrue();
+        }
+    }
+
+    @Test
+    void staysMonotonicWhenTheClockStepsBack() {
+        AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+        OrderNumberGenerator generator = new OrderNumberGenerator(3, clock::get);
+
+        String before = generator.next();
+        clock.addAndGet(-5_000);
+        String after = generator.next();
+
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    void numbersAreFixedWidth() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(OrderNumberGenerator.MAX_NODE_ID, System::currentTimeMillis);
+
+        assertThat(generator.next()).startsWith(OrderNumberGenerator.PREFIX).hasSize(17);
+        assertThat(OrderNumberGenerator.encode(0)).isEqualTo("0000000000000");
+    }
+
+    @Test
+    void refusesToStartWithoutANodeId() {
+        assertThatThrownBy(() -> new OrderNumberGenerator(-1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("ORDER_NODE_ID");
+    }
+}
@@ -0,0 +1,178 @@
+package com.pm.orderservice.service;
+
+import com.pm.orderservice.OrderFixtures;
+import com.pm.orderservice.OrderJpaTest;
+import com.pm.orderservice.archive.OrderArchivePolicy;
+import com.pm.orderservice.archive.OrderArchiveReader;
+import com.pm.orderservice.datasource.ReadYourWrites;
+import com.pm.orderservice.dto.UpdateOrderStatusRequest;
+import com.pm.orderservice.exception.OrderStateConflictException;
+import com.pm.orderservice.history.OrderHistoryCache;
+import com.pm.orderservice.mapper.OrderItemMapperImpl;
+import com.pm.orderservice.mapper.OrderMapperImpl;
+import com.pm.orderservice.model.Order;
+import com.pm.orderservice.model.OrderStatus;
+import com.pm.orderservice.model.OrderStatusHistory;
+import com.pm.orderservice.outbox.OrderOutbox;
+import com.pm.orderservice.repository.OrderRepository;
+import com.pm.orderservice.repository.OrderStatusHistoryRepository;
+import com.pm.orderservice.search.OrderSearch;
+import com.pm.orderservice.search.OrderSearchPlanner;
+import com.pm.orderservice.service.impl.OrderServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many threads acting on one order at once must never lose a transition: each accepted transition
+ * produces exactly one order version and one history row, and the history forms a single chain.
+ * A transition may only lose a race or be illegal from the current status; any other failure fails
+ * the test.
+ */
+@OrderJpaTest
+@Import({OrderServiceImpl.class, OrderMapperImpl.class, OrderItemMapperImpl.class, OrderStateMachine.class,
+        OrderSearch.class, OrderSearchPlanner.class, OrderArchivePolicy.class, OrderArchiveReader.class,
+        ReadYourWrites.class, OrderHistoryCache.class, SimpleMeterRegistry.class})
+class OrderStateMachineConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatusHistoryRepository orderStatusHistoryRepository;
+
+    @MockBean
+    private CheckoutOrchestrator checkoutOrchestrator;
+
+    @MockBean
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @MockBean
+    private OrderOutbox orderOutbox;
+
+    @AfterEach
+    void cleanUp() {
+        orderStatusHistoryRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void exactlyOneOfConflictingTransitionsWins() throws Exception {
+        Long orderId = persistPendingOrder();
+
+        // CANCELLED is final, so only the first of these cancellations can be applied
+        List<Boolean> outcomes = hammer(THREADS, 1, thread -> orderService.cancelOrder(orderId, reason(thread)));
+
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        List<OrderStatusHistory> history = orderStatusHistoryRepository.findByOrderIdOrderByOrderVersionAsc(orderId);
+        assertEquals(1, outcomes.stream().filter(Boolean::booleanValue).count());
+        String winner = reason(outcomes.indexOf(true));
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+        assertEquals(winner, order.getCancellationReason());
+        assertEquals(1L, order.getVersion());
+        assertEquals(1, history.size());
+        assertEquals(OrderStatus.CANCELLED, history.get(0).getToStatus());
+        assertEquals(winner, history.get(0).getNote());
+    }
+
+    @Test
+    void concurrentTransitionsFormOneLinearHistory() throws Exception {
+        Long orderId = persistPendingOrder();
+        OrderStatus[] statuses = OrderStatus.values();
+
+        List<Boolean> outcomes = hammer(THREADS, 50, thread -> orderService.updateOrderStatus(orderId,
+                UpdateOrderStatusRequest.builder()
+                        .status(statuses[ThreadLocalRandom.current().nextInt(statuses.length)])
+                        .build()));
+
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        List<OrderStatusHistory> history = orderStatusHistoryRepository.findByOrderIdOrderByOrderVersionAsc(orderId);
+        long accepted = outcomes.stream().filter(Boolean::booleanValue).count();
+        assertTrue(accepted > 0, "Expected at least one transition to be applied");
+        assertEquals(accepted, history.size());
+        assertEquals(accepted, order.getVersion());
+
+        OrderStatus previous = OrderStatus.PENDING;
+        for (int i = 0; i < history.size(); i++) {
+            OrderStatusHistory entry = history.get(i);
+            assertEquals(i + 1L, entry.getOrderVersion());
+            assertEquals(previous, entry.getFromStatus());
+            assertTrue(OrderStateMachine.canTransition(entry.getFromStatus(), entry.getToStatus()));
+            previous = entry.getToStatus();
+        }
+        assertEquals(previous, order.getStatus());
+    }
+
+    /**
+     * Runs the action from every thread at once.
+     *
+     * @return the outcome of each attempt, ordered by thread: {@code false} where the transition
+     *         lost a race or was not allowed from the status it found
+     */
+    private List<Boolean> hammer(int threads, int attemptsPerThread, ThrowingAction action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Boolean>>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    List<Boolean> results = new ArrayList<>();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        try {
+                            action.run(thread);
+                            results.add(true);
+                        } catch (OrderStateConflictException | ObjectOptimisticLockingFailureException e) {
+                            results.add(false);
+                        }
+                    }
+                    return results;
+                }));
+            }
+            start.countDown();
+            List<Boolean> outcomes = new ArrayList<>();
+            for (Future<List<Boolean>> future : futures) {
+                outcomes.addAll(future.get(60, TimeUnit.SECONDS));
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String reason(int thread) {
+        return "Cancelled by thread " + thread;
+    }
+
+    private Long persistPendingOrder() {
+        return orderRepository.saveAndFlush(OrderFixtures.order("ORD-CAS-" + System.nanoTime(), 7).build())
+                .getOrderId();
+    }
+
+    @FunctionalInterface
+    private interface ThrowingAction {
+        void run(int thread);
+    }
+}
@@ -34,9 +34,11 @@ public class PaymentController {
     
     @PostMapping
     @Operation(summary = "Create a new payment")
-    public ResponseEntity<PaymentDto> createPayment(@RequestBody @Valid CreatePaymentRequest request) {
+    public ResponseEntity<PaymentDto> createPayment(
+            @RequestBody @Valid CreatePaymentRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         log.info("Creating payment for order ID: {}", request.getOrderId());
-        return ResponseEntity.ok(paymentService.createPayment(request));
+        return ResponseEntity.ok(paymentService.createPayment(request, idempotencyKey));
     }
 
     @GetMapping("/{paymentId}")
@@ -17,6 +17,7 @@ public interface PaymentMapper {
     @Mapping(target = "webhooks", ignore = true)
     @Mapping(target = "paymentId", ignore = true)
     @Mapping(target = "paymentReference", ignore = true)
+    @Mapping(target = "idempotencyKey", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     Payment toEntity(PaymentDto paymentDto);
@@ -33,6 +34,7 @@ public interface PaymentMapper {
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "paymentId", ignore = true)
     @Mapping(target = "paymentReference", ignore = true)
+    @Mapping(target = "idempotencyKey", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "transactions", ignore = true)
@@ -30,6 +30,9 @@ public class Payment extends AbstractMappedEntity {
     @Column(name = "order_id", nullable = false)
     private Long orderId;
 
+    @Column(name = "idempotency_key", unique = true, length = 100, updatable = false)
+    private String idempotencyKey;
+
     @Column(name = "user_id", nullable = false)
     private Integer userId;
 
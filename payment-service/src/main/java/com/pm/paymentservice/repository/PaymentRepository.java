@@ -20,6 +20,7 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     
     // Basic finders
     Optional<Payment> findByPaymentReference(String paymentReference);
+    Optional<Payment> findByIdempotencyKey(String idempotencyKey);
     Optional<Payment> findByGatewayTransactionId(String gatewayTransactionId);
     
     // Order-based queries
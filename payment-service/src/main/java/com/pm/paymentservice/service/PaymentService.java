@@ -14,6 +14,7 @@ public interface PaymentService {
     
     // Payment Creation and Management
     PaymentDto createPayment(CreatePaymentRequest request);
+    PaymentDto createPayment(CreatePaymentRequest request, String idempotencyKey);
     PaymentDto getPaymentById(Long paymentId);
     PaymentDto getPaymentByReference(String paymentReference);
     PaymentDto getPaymentByGatewayTransactionId(String gatewayTransactionId);
@@ -9,15 +9,19 @@ import com.pm.paymentservice.repository.*;
 import com.pm.paymentservice.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,11 +36,43 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentWebhookRepository paymentWebhookRepository;
     private final PaymentMapper paymentMapper;
     private final PaymentTransactionMapper paymentTransactionMapper;
+    private final TransactionTemplate transactionTemplate;
 
     // ==================== Payment Creation and Management ====================
     
     @Override
     public PaymentDto createPayment(CreatePaymentRequest request) {
+        return createPayment(request, null);
+    }
+
+    /**
+     * Creates the payment, or returns the one already created under the same idempotency key. A
+     * concurrent retry with the key can insert first; the unique key then rejects this insert and
+     * the winner's payment is read back in a new transaction, where its row is visible.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PaymentDto createPayment(CreatePaymentRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return transactionTemplate.execute(status -> insertPayment(request, null));
+        }
+        try {
+            return transactionTemplate.execute(status -> findByIdempotencyKey(idempotencyKey)
+                    .orElseGet(() -> insertPayment(request, idempotencyKey)));
+        } catch (DataIntegrityViolationException e) {
+            return transactionTemplate.execute(status -> findByIdempotencyKey(idempotencyKey))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<PaymentDto> findByIdempotencyKey(String idempotencyKey) {
+        Optional<Payment> existing = paymentRepository.findByIdempotencyKey(idempotencyKey);
+        existing.ifPresent(payment ->
+                log.info("Payment for idempotency key {} already exists: {}", idempotencyKey, payment.getPaymentId()));
+        return existing.map(paymentMapper::toDTO);
+    }
+
+    private PaymentDto insertPayment(CreatePaymentRequest request, String idempotencyKey) {
         log.info("Creating payment for order ID: {} and user ID: {}", request.getOrderId(), request.getUserId());
         
         // Calculate expiration time
@@ -45,6 +81,7 @@ public class PaymentServiceImpl implements PaymentService {
         
         Payment payment = Payment.builder()
                 .orderId(request.getOrderId())
+                .idempotencyKey(idempotencyKey)
                 .userId(request.getUserId())
                 .userEmail(request.getUserEmail())
                 .amount(request.getAmount())
@@ -60,7 +97,8 @@ public class PaymentServiceImpl implements PaymentService {
                 .refundableAmount(request.getAmount())
                 .build();
         
-        Payment savedPayment = paymentRepository.save(payment);
+        // Flushed here so a duplicate idempotency key fails inside the caller's try block
+        Payment savedPayment = paymentRepository.saveAndFlush(payment);
         log.info("Payment created successfully with ID: {}", savedPayment.getPaymentId());
         
         return paymentMapper.toDTO(savedPayment);
@@ -0,0 +1,5 @@
+-- Callers that retry payment creation send the same key and get the original payment back
+ALTER TABLE payments
+ADD COLUMN idempotency_key VARCHAR(100);
+
+CREATE UNIQUE INDEX uk_payments_idempotency_key ON payments(idempotency_key);
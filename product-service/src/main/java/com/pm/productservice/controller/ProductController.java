@@ -1,6 +1,9 @@
 package com.pm.productservice.controller;
 
+import com.pm.productservice.dto.ProductAvailabilityDto;
 import com.pm.productservice.dto.ProductDto;
+import com.pm.productservice.dto.StockReservationDto;
+import com.pm.productservice.dto.StockReservationRequest;
 import com.pm.productservice.dto.response.collection.CollectionResponse;
 import com.pm.productservice.model.ProductStatus;
 import com.pm.productservice.service.ProductService;
@@ -8,7 +11,9 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -19,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.net.URI;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -118,6 +124,31 @@ public class ProductController {
         return ResponseEntity.ok(productService.findById(id));
     }
 
+    @PostMapping("/availability")
+    @Operation(summary = "Get current price and stock of many products at once")
+    public ResponseEntity<List<ProductAvailabilityDto>> findAvailability(
+            @RequestBody @NotEmpty(message = "Product IDs must not be empty")
+            @Size(max = 500, message = "At most 500 product IDs can be requested at once") List<UUID> productIds) {
+        log.info("Fetching availability of {} products", productIds.size());
+        return ResponseEntity.ok(productService.findAvailability(productIds));
+    }
+
+    @PostMapping("/reservations")
+    @Operation(summary = "Reserve stock for a checkout; repeating a reference returns the existing reservation")
+    public ResponseEntity<StockReservationDto> reserveStock(
+            @RequestBody @NotNull(message = "Input must not be null") @Valid StockReservationRequest request) {
+        log.info("Reserving stock for {} lines under {}", request.getLines().size(), request.getReference());
+        return ResponseEntity.ok(productService.reserveStock(request));
+    }
+
+    @DeleteMapping("/reservations/{reference}")
+    @Operation(summary = "Release a stock reservation")
+    public ResponseEntity<Void> releaseStock(@PathVariable @NotNull String reference) {
+        log.info("Releasing stock reservation {}", reference);
+        productService.releaseStock(reference);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping
     @Operation(summary = "Create a new product")
     public ResponseEntity<ProductDto> save(
@@ -0,0 +1,26 @@
+package com.pm.productservice.dto;
+
+import com.pm.productservice.model.ProductStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Current price and stock of a product, as needed to revalidate cart lines.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductAvailabilityDto {
+    private UUID productId;
+    private String name;
+    private String sku;
+    private BigDecimal price;
+    private ProductStatus status;
+    private Integer availableQuantity;
+}
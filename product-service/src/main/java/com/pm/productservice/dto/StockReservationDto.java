@@ -0,0 +1,17 @@
+package com.pm.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationDto {
+    private String reference;
+    private List<StockReservationLine> lines;
+}
@@ -0,0 +1,24 @@
+package com.pm.productservice.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationLine {
+
+    @NotNull(message = "Product ID must not be null")
+    private UUID productId;
+
+    @NotNull(message = "Quantity must not be null")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+}
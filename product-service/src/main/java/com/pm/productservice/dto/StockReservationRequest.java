@@ -0,0 +1,31 @@
+package com.pm.productservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Stock to hold for one checkout. The reference identifies the reservation, so repeating a request
+ * with the same reference returns the existing reservation instead of reserving twice.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequest {
+
+    @NotBlank(message = "Reference must not be blank")
+    @Size(max = 64, message = "Reference must be at most 64 characters")
+    private String reference;
+
+    @NotEmpty(message = "Lines must not be empty")
+    @Size(max = 500, message = "At most 500 lines can be reserved at once")
+    private List<@Valid StockReservationLine> lines;
+}
@@ -0,0 +1,10 @@
+package com.pm.productservice.exception;
+
+import java.util.UUID;
+
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(UUID productId, int quantity) {
+        super("Insufficient stock for product " + productId + ": " + quantity + " requested");
+    }
+}
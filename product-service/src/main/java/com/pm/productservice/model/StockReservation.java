@@ -0,0 +1,44 @@
+package com.pm.productservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "stock_reservations")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class StockReservation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "reservation_id", updatable = false, nullable = false)
+    private Long reservationId;
+
+    @Column(name = "reference", nullable = false, updatable = false, length = 64)
+    private String reference;
+
+    @Column(name = "product_id", nullable = false, updatable = false, columnDefinition = "BINARY(16)")
+    private UUID productId;
+
+    @Column(name = "quantity", nullable = false, updatable = false)
+    private Integer quantity;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
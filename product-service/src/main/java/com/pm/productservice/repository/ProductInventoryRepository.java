@@ -2,10 +2,28 @@ package com.pm.productservice.repository;
 
 import com.pm.productservice.model.ProductInventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Repository
 public interface ProductInventoryRepository extends JpaRepository<ProductInventory, UUID> {
-}
\ No newline at end of file
+
+    /**
+     * Reserves stock only if enough is unreserved; returns 0 when it is not.
+     */
+    @Modifying
+    @Query("UPDATE ProductInventory i SET i.reservedQuantity = i.reservedQuantity + :quantity, i.updatedAt = :now " +
+           "WHERE i.productId = :productId AND i.quantity - i.reservedQuantity >= :quantity")
+    int reserve(@Param("productId") UUID productId, @Param("quantity") int quantity, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE ProductInventory i SET i.reservedQuantity = " +
+           "CASE WHEN i.reservedQuantity > :quantity THEN i.reservedQuantity - :quantity ELSE 0 END, " +
+           "i.updatedAt = :now WHERE i.productId = :productId")
+    int release(@Param("productId") UUID productId, @Param("quantity") int quantity, @Param("now") Instant now);
+}
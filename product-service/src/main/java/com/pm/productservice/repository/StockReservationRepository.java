@@ -0,0 +1,13 @@
+package com.pm.productservice.repository;
+
+import com.pm.productservice.model.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    List<StockReservation> findByReference(String reference);
+}
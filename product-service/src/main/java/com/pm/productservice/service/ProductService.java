@@ -1,11 +1,16 @@
 package com.pm.productservice.service;
 
+import com.pm.productservice.dto.ProductAvailabilityDto;
 import com.pm.productservice.dto.ProductDto;
+import com.pm.productservice.dto.StockReservationDto;
+import com.pm.productservice.dto.StockReservationRequest;
 import com.pm.productservice.dto.response.collection.CollectionResponse;
 import com.pm.productservice.model.ProductStatus;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface ProductService {
@@ -19,6 +24,9 @@ public interface ProductService {
                                                   BigDecimal maxPrice, Pageable pageable);
     ProductDto findById(UUID id);
     ProductDto findBySku(String sku);
+    List<ProductAvailabilityDto> findAvailability(Collection<UUID> productIds);
+    StockReservationDto reserveStock(StockReservationRequest request);
+    void releaseStock(String reference);
     ProductDto save(ProductDto productDto);
     ProductDto update(UUID id, ProductDto productDto);
     void deleteById(UUID id);
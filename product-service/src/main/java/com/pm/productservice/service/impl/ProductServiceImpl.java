@@ -1,19 +1,26 @@
 package com.pm.productservice.service.impl;
 
+import com.pm.productservice.dto.ProductAvailabilityDto;
 import com.pm.productservice.dto.ProductDto;
+import com.pm.productservice.dto.StockReservationDto;
+import com.pm.productservice.dto.StockReservationLine;
+import com.pm.productservice.dto.StockReservationRequest;
 import com.pm.productservice.dto.response.collection.CollectionResponse;
 import com.pm.productservice.exception.DuplicateResourceException;
+import com.pm.productservice.exception.InsufficientStockException;
 import com.pm.productservice.exception.ProductNotFoundException;
 import com.pm.productservice.mapper.ProductMapper;
 import com.pm.productservice.model.Product;
 import com.pm.productservice.model.ProductInventory;
 import com.pm.productservice.model.ProductStatus;
+import com.pm.productservice.model.StockReservation;
 import com.pm.productservice.model.ReviewStatus;
 import com.pm.productservice.repository.BrandRepository;
 import com.pm.productservice.repository.CategoryRepository;
 import com.pm.productservice.repository.ProductInventoryRepository;
 import com.pm.productservice.repository.ProductRepository;
 import com.pm.productservice.repository.ProductReviewRepository;
+import com.pm.productservice.repository.StockReservationRepository;
 import com.pm.productservice.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,7 +31,13 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.UUID;
 
 @Service
@@ -36,6 +49,7 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final ProductInventoryRepository productInventoryRepository;
     private final ProductReviewRepository reviewRepository;
+    private final StockReservationRepository stockReservationRepository;
     private final CategoryRepository categoryRepository;
     private final BrandRepository brandRepository;
     private final ProductMapper productMapper;
@@ -159,6 +173,89 @@ public class ProductServiceImpl implements ProductService {
         return toDtoWithExtendedInfo(product);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductAvailabilityDto> findAvailability(Collection<UUID> productIds) {
+        log.info("Fetching availability of {} products", productIds.size());
+        // Two queries for the whole batch; unknown product IDs are simply left out of the result
+        Map<UUID, ProductInventory> inventories = productInventoryRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(ProductInventory::getProductId, Function.identity()));
+        return productRepository.findAllById(productIds).stream()
+                .map(product -> {
+                    ProductInventory inventory = inventories.get(product.getId());
+                    int availableQuantity = inventory == null ? 0
+                            : nullToZero(inventory.getQuantity()) - nullToZero(inventory.getReservedQuantity());
+                    return ProductAvailabilityDto.builder()
+                            .productId(product.getId())
+                            .name(product.getName())
+                            .sku(product.getSku())
+                            .price(product.getPrice())
+                            .status(product.getStatus())
+                            .availableQuantity(Math.max(availableQuantity, 0))
+                            .build();
+                })
+                .toList();
+    }
+
+    @Override
+    public StockReservationDto reserveStock(StockReservationRequest request) {
+        List<StockReservation> existing = stockReservationRepository.findByReference(request.getReference());
+        if (!existing.isEmpty()) {
+            log.info("Stock reservation {} already exists", request.getReference());
+            return toReservationDto(request.getReference(), existing);
+        }
+
+        // Lines are merged per product and applied in product ID order, so concurrent reservations
+        // lock inventory rows in the same order. One short line rolls the whole reservation back.
+        Map<UUID, Integer> quantities = new TreeMap<>();
+        request.getLines().forEach(line -> quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum));
+        Instant now = Instant.now();
+        quantities.forEach((productId, quantity) -> {
+            if (productInventoryRepository.reserve(productId, quantity, now) == 0) {
+                throw new InsufficientStockException(productId, quantity);
+            }
+        });
+
+        List<StockReservation> reservations = stockReservationRepository.saveAll(quantities.entrySet().stream()
+                .map(entry -> StockReservation.builder()
+                        .reference(request.getReference())
+                        .productId(entry.getKey())
+                        .quantity(entry.getValue())
+                        .createdAt(now)
+                        .build())
+                .toList());
+        log.info("Reserved stock for {} products under {}", reservations.size(), request.getReference());
+        return toReservationDto(request.getReference(), reservations);
+    }
+
+    @Override
+    public void releaseStock(String reference) {
+        List<StockReservation> reservations = stockReservationRepository.findByReference(reference);
+        if (reservations.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        reservations.stream()
+                .sorted(Comparator.comparing(StockReservation::getProductId))
+                .forEach(reservation ->
+                        productInventoryRepository.release(reservation.getProductId(), reservation.getQuantity(), now));
+        stockReservationRepository.deleteAllInBatch(reservations);
+        log.info("Released stock reservation {}", reference);
+    }
+
+    private StockReservationDto toReservationDto(String reference, List<StockReservation> reservations) {
+        return StockReservationDto.builder()
+                .reference(reference)
+                .lines(reservations.stream()
+                        .map(reservation -> new StockReservationLine(reservation.getProductId(), reservation.getQuantity()))
+                        .toList())
+                .build();
+    }
+
+    private static int nullToZero(Integer value) {
+        return value == null ? 0 : value;
+    }
+
     @Override
     public ProductDto save(ProductDto productDto) {
         log.info("Saving new product: {}", productDto.getName());
@@ -0,0 +1,10 @@
+-- Stock held for checkouts in progress. Rows are keyed by the caller's reference so that a retried
+-- reservation or release is applied at most once.
+CREATE TABLE stock_reservations (
+    reservation_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    reference VARCHAR(64) NOT NULL,
+    product_id CHAR(36) NOT NULL,
+    quantity INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_stock_reservations_reference_product (reference, product_id)
+);